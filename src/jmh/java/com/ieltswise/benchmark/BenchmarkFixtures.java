@@ -0,0 +1,89 @@
+package com.ieltswise.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.CalendarEventReader;
+import com.ieltswise.dto.TimeSlot;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixtures of the benchmarks, read from the test inputs in {@code src/test/java/files/input}
+ * (override with {@code -Dfixtures.dir})
+ */
+final class BenchmarkFixtures {
+
+    private static final Path FIXTURES = Path.of(System.getProperty("fixtures.dir", "src/test/java/files/input"));
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @param zone suffix of an {@code events_<zone>.json} fixture
+     */
+    static List<CalendarEvent> events(String zone) throws IOException {
+        try (InputStream in = new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream("{\"items\": ".getBytes(StandardCharsets.UTF_8)),
+                Files.newInputStream(FIXTURES.resolve("events_" + zone + ".json")),
+                new ByteArrayInputStream("}".getBytes(StandardCharsets.UTF_8)))))) {
+            return CalendarEventReader.read(in).events();
+        }
+    }
+
+    /**
+     * @param name {@code free_schedule} or {@code booked_monday}
+     */
+    static Map<DayOfWeek, List<TimeSlot>> schedule(String name) throws IOException {
+        return OBJECT_MAPPER.readValue(FIXTURES.resolve(name + ".json").toFile(), new TypeReference<>() {
+        });
+    }
+
+    /**
+     * Repeats the fixture events shifted by whole days until there are {@code count} of them, so that the offsets,
+     * all-day and overnight events of the fixture keep their share at any density
+     */
+    static List<CalendarEvent> densify(List<CalendarEvent> fixture, int count) {
+        List<CalendarEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CalendarEvent event = fixture.get(i % fixture.size());
+            long days = (i / fixture.size()) % 20;
+            events.add(new CalendarEvent("e" + i, event.status(),
+                    event.start().plusDays(days).plusMinutes(i % 4 * 15L),
+                    event.end().plusDays(days).plusMinutes(i % 4 * 15L)));
+        }
+        return events;
+    }
+
+    /**
+     * @return events in the JSON format of a Google Calendar events list response
+     */
+    static byte[] page(List<CalendarEvent> events) {
+        StringBuilder json = new StringBuilder("{\"kind\": \"calendar#events\", \"items\": [");
+        for (int i = 0; i < events.size(); i++) {
+            CalendarEvent event = events.get(i);
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"id\": \"").append(event.id())
+                    .append("\", \"status\": \"").append(event.status())
+                    .append("\", \"summary\": \"English with IELTSWise67\", \"start\": {\"dateTime\": \"")
+                    .append(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(event.start()))
+                    .append("\", \"timeZone\": \"Europe/London\"}, \"end\": {\"dateTime\": \"")
+                    .append(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(event.end()))
+                    .append("\"}, \"attendees\": [{\"email\": \"student@example.com\"}]}");
+        }
+        return json.append("], \"nextSyncToken\": \"token\"}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
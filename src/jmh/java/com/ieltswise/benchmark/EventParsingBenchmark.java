@@ -0,0 +1,58 @@
+package com.ieltswise.benchmark;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.CalendarEventReader;
+import com.ieltswise.controller.response.Event;
+import com.ieltswise.service.impl.GoogleEventsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading of a Google Calendar events page and its conversion to the events returned by
+ * {@code GET /tutor/events/{tutorId}}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EventParsingBenchmark {
+
+    @Param({"0", "50", "500"})
+    private int events;
+
+    @Param({"gmt", "gmt+3", "gmt-4"})
+    private String zone;
+
+    private byte[] page;
+
+    @Setup
+    public void setUp() throws IOException {
+        page = BenchmarkFixtures.page(BenchmarkFixtures.densify(BenchmarkFixtures.events(zone), events));
+    }
+
+    @Benchmark
+    public List<CalendarEvent> readPage() throws IOException {
+        return CalendarEventReader.read(new ByteArrayInputStream(page)).events();
+    }
+
+    @Benchmark
+    public List<Event> readAndExtractEvents() throws IOException {
+        return GoogleEventsServiceImpl.extractEvents(CalendarEventReader.read(new ByteArrayInputStream(page)).events());
+    }
+}
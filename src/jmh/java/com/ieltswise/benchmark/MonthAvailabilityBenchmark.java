@@ -0,0 +1,72 @@
+package com.ieltswise.benchmark;
+
+import com.ieltswise.availability.MonthAvailability;
+import com.ieltswise.availability.WeeklySchedule;
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.dto.FreeAndBusyHoursOfTheDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Month availability as computed for {@code GET /tutor/events/{tutorId}/{year}/{month}}:
+ * booking the events, applying the weekly schedule and rendering the hours
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MonthAvailabilityBenchmark {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 2);
+
+    @Param({"0", "50", "500"})
+    private int events;
+
+    @Param({"gmt", "gmt+3", "gmt-4"})
+    private String zone;
+
+    @Param({"free_schedule", "booked_monday"})
+    private String schedule;
+
+    // time zone of the requested month, Asia/Kolkata has a half-hour offset
+    @Param({"UTC", "Europe/London", "Asia/Kolkata"})
+    private String timeZone;
+
+    private List<CalendarEvent> monthEvents;
+    private WeeklySchedule weeklySchedule;
+    private ZoneId monthZone;
+
+    @Setup
+    public void setUp() throws IOException {
+        monthEvents = BenchmarkFixtures.densify(BenchmarkFixtures.events(zone), events);
+        weeklySchedule = WeeklySchedule.of(BenchmarkFixtures.schedule(schedule));
+        monthZone = ZoneId.of(timeZone);
+    }
+
+    @Benchmark
+    public List<FreeAndBusyHoursOfTheDay> computeMonth() {
+        return MonthAvailability.of(MONTH, monthZone, monthEvents, weeklySchedule).toFreeAndBusyHours();
+    }
+
+    @Benchmark
+    public MonthAvailability markMonth() {
+        return MonthAvailability.of(MONTH, monthZone, monthEvents, weeklySchedule);
+    }
+}
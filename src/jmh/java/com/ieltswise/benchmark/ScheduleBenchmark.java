@@ -0,0 +1,48 @@
+package com.ieltswise.benchmark;
+
+import com.ieltswise.availability.WeeklySchedule;
+import com.ieltswise.dto.TimeSlot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packing of a tutor's stored weekly schedule into hour masks, done for every availability request
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ScheduleBenchmark {
+
+    @Param({"free_schedule", "booked_monday"})
+    private String schedule;
+
+    private Map<DayOfWeek, List<TimeSlot>> timeInfo;
+
+    @Setup
+    public void setUp() throws IOException {
+        timeInfo = BenchmarkFixtures.schedule(schedule);
+    }
+
+    @Benchmark
+    public WeeklySchedule packSchedule() {
+        return WeeklySchedule.of(timeInfo);
+    }
+}
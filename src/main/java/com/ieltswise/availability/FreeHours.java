@@ -0,0 +1,50 @@
+package com.ieltswise.availability;
+
+import com.ieltswise.calendar.CalendarEvent;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static com.ieltswise.availability.MonthAvailability.HOUR_MILLIS;
+
+/**
+ * Search of the hours in which a tutor is neither engaged according to the weekly schedule nor busy in the calendar
+ */
+public final class FreeHours {
+
+    private FreeHours() {
+    }
+
+    /**
+     * @param fromHour first hour to check, hours since the epoch
+     * @param toHour   hour to stop at, exclusive
+     * @param events   tutor's events overlapping the hours
+     * @param schedule tutor's weekly schedule
+     * @param limit    maximum number of hours to find
+     * @return free hours in ascending order, the scan stops as soon as {@code limit} of them are found
+     */
+    public static List<Long> find(long fromHour, long toHour, List<CalendarEvent> events, WeeklySchedule schedule,
+                                  int limit) {
+        int hours = (int) (toHour - fromHour);
+        BitSet busy = new BitSet(hours);
+        for (CalendarEvent event : events) {
+            if (event.isCancelled()) {
+                continue;
+            }
+            long first = Math.max(fromHour, Math.floorDiv(event.startMillis(), HOUR_MILLIS));
+            long last = Math.min(toHour, Math.floorDiv(event.endMillis() + HOUR_MILLIS - 1, HOUR_MILLIS));
+            if (first < last) {
+                busy.set((int) (first - fromHour), (int) (last - fromHour));
+            }
+        }
+
+        List<Long> free = new ArrayList<>(Math.min(limit, hours));
+        for (int hour = busy.nextClearBit(0); hour < hours && free.size() < limit; hour = busy.nextClearBit(hour + 1)) {
+            if (!schedule.isEngaged(fromHour + hour)) {
+                free.add(fromHour + hour);
+            }
+        }
+        return free;
+    }
+}
@@ -0,0 +1,326 @@
+package com.ieltswise.availability;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.CalendarEventsFetcher;
+import com.ieltswise.calendar.CalendarMirror;
+import com.ieltswise.calendar.CalendarQuery.Priority;
+import com.ieltswise.entity.TutorInfo;
+import com.ieltswise.event.ScheduleUpdatedEvent;
+import com.ieltswise.event.SessionBookedEvent;
+import com.ieltswise.exception.EventFetchingException;
+import com.ieltswise.repository.TutorInfoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.ieltswise.availability.MonthAvailability.HOUR_MILLIS;
+
+/**
+ * Inverted index from an hour slot to the set of tutors who are free in it.
+ * <p>
+ * The index covers a fixed number of hours starting from the current hour. Every tutor gets an ordinal and every
+ * slot keeps a bit set of the ordinals of the tutors who are neither engaged according to their weekly schedule
+ * nor busy in their calendar, so "who is free between X and Y" is an AND over the slots of the range.
+ * The index is built when the application starts and rebuilt periodically to move the horizon forward; schedule
+ * changes and bookings are applied incrementally in between. Bookings made while the calendars are read for
+ * a rebuild are applied again to the rebuilt index.
+ */
+@Slf4j
+@Component
+public class FreeSlotIndex {
+
+    private final TutorInfoRepository tutorInfoRepository;
+    private final CalendarEventsFetcher calendarEventsFetcher;
+    private final CalendarMirror calendarMirror;
+    private final int horizonHours;
+    private final Clock clock;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+    private volatile boolean built;
+
+    // guarded by lock
+    private long firstHour;
+    private BitSet[] freeTutors = new BitSet[0];
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> emails = new ArrayList<>();
+    private final List<WeeklySchedule> schedules = new ArrayList<>();
+    private final List<BitSet> busyHours = new ArrayList<>();
+    private List<SessionBookedEvent> bookedDuringRebuild;
+
+    @Autowired
+    public FreeSlotIndex(TutorInfoRepository tutorInfoRepository,
+                         CalendarEventsFetcher calendarEventsFetcher,
+                         CalendarMirror calendarMirror,
+                         @Value("${availability.index.horizon-days:28}") int horizonDays) {
+        this(tutorInfoRepository, calendarEventsFetcher, calendarMirror, horizonDays, Clock.systemUTC());
+    }
+
+    FreeSlotIndex(TutorInfoRepository tutorInfoRepository,
+                  CalendarEventsFetcher calendarEventsFetcher,
+                  CalendarMirror calendarMirror,
+                  int horizonDays,
+                  Clock clock) {
+        this.tutorInfoRepository = tutorInfoRepository;
+        this.calendarEventsFetcher = calendarEventsFetcher;
+        this.calendarMirror = calendarMirror;
+        this.horizonHours = horizonDays * 24;
+        this.clock = clock;
+    }
+
+    /**
+     * @param from start of the range
+     * @param to   end of the range, exclusive
+     * @return emails of the tutors who are free in every hour touched by the range
+     * @throws IllegalArgumentException if the range is empty or lies outside the indexed horizon
+     */
+    public List<String> findFreeTutors(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException(String.format("Range start %s must be before its end %s", from, to));
+        }
+        ensureBuilt();
+        long fromHour = Math.floorDiv(from.toEpochMilli(), HOUR_MILLIS);
+        long toHour = Math.floorDiv(to.toEpochMilli() + HOUR_MILLIS - 1, HOUR_MILLIS);
+
+        lock.readLock().lock();
+        try {
+            if (fromHour < firstHour || toHour > firstHour + freeTutors.length) {
+                throw new IllegalArgumentException(String.format("Range from %s to %s is outside of the next %d hours",
+                        from, to, horizonHours));
+            }
+            BitSet free = (BitSet) freeTutors[(int) (fromHour - firstHour)].clone();
+            for (long hour = fromHour + 1; hour < toHour && !free.isEmpty(); hour++) {
+                free.and(freeTutors[(int) (hour - firstHour)]);
+            }
+            List<String> result = new ArrayList<>(free.cardinality());
+            for (int ordinal = free.nextSetBit(0); ordinal >= 0; ordinal = free.nextSetBit(ordinal + 1)) {
+                result.add(emails.get(ordinal));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads all tutors with their schedules and busy hours and replaces the index, moving the horizon to start
+     * from the current hour. Calendars are read before the write lock is taken, so queries are not blocked
+     * by Google Calendar.
+     */
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            lock.writeLock().lock();
+            try {
+                bookedDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                rebuildIndex();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    bookedDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private void rebuildIndex() {
+        long newFirstHour = Math.floorDiv(clock.millis(), HOUR_MILLIS);
+        List<String> newEmails = new ArrayList<>();
+        List<WeeklySchedule> newSchedules = new ArrayList<>();
+        List<BitSet> newBusyHours = new ArrayList<>();
+        for (TutorInfo tutor : tutorInfoRepository.findAll()) {
+            try {
+                BitSet busy = loadBusyHours(tutor.getEmail(), newFirstHour);
+                newEmails.add(tutor.getEmail());
+                newSchedules.add(WeeklySchedule.of(tutor.getSchedule() == null ? null
+                        : tutor.getSchedule().getTimeInfo()));
+                newBusyHours.add(busy);
+            } catch (EventFetchingException e) {
+                log.error("Tutor ID: {} is left out of the free slot index", tutor.getEmail(), e);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            firstHour = newFirstHour;
+            freeTutors = new BitSet[horizonHours];
+            for (int slot = 0; slot < horizonHours; slot++) {
+                freeTutors[slot] = new BitSet(newEmails.size());
+            }
+            ordinals.clear();
+            emails.clear();
+            schedules.clear();
+            busyHours.clear();
+            for (int ordinal = 0; ordinal < newEmails.size(); ordinal++) {
+                ordinals.put(newEmails.get(ordinal), ordinal);
+                emails.add(newEmails.get(ordinal));
+                schedules.add(newSchedules.get(ordinal));
+                busyHours.add(newBusyHours.get(ordinal));
+                indexTutor(ordinal);
+            }
+            // the calendars read above may predate these bookings
+            bookedDuringRebuild.forEach(this::markBooked);
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Free slot index rebuilt for {} tutors", newEmails.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = new Thread(() -> {
+            try {
+                ensureBuilt();
+            } catch (RuntimeException e) {
+                log.error("Failed to build the free slot index, it is built on the first query", e);
+            }
+        }, "free-slot-index-build");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Scheduled(fixedDelayString = "${availability.index.rebuild-interval:PT1H}")
+    public void rebuildIfBuilt() {
+        if (built) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onScheduleUpdated(ScheduleUpdatedEvent event) {
+        if (!built) {
+            return;
+        }
+        WeeklySchedule schedule = WeeklySchedule.of(event.timeInfo());
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(event.tutorEmail());
+            if (ordinal != null) {
+                schedules.set(ordinal, schedule);
+                indexTutor(ordinal);
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        addTutor(event.tutorEmail(), schedule);
+    }
+
+    @EventListener
+    public void onSessionBooked(SessionBookedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (bookedDuringRebuild != null) {
+                bookedDuringRebuild.add(event);
+            }
+            markBooked(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // must be called under the write lock
+    private void markBooked(SessionBookedEvent event) {
+        long fromHour = Math.floorDiv(event.start().toEpochMilli(), HOUR_MILLIS);
+        long toHour = Math.floorDiv(event.end().toEpochMilli() + HOUR_MILLIS - 1, HOUR_MILLIS);
+        Integer ordinal = ordinals.get(event.tutorEmail());
+        if (ordinal == null) {
+            return;
+        }
+        int fromSlot = (int) Math.max(0, fromHour - firstHour);
+        int toSlot = (int) Math.min(horizonHours, toHour - firstHour);
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            busyHours.get(ordinal).set(slot);
+            freeTutors[slot].clear(ordinal);
+        }
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            synchronized (rebuildMonitor) {
+                if (!built) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private void addTutor(String email, WeeklySchedule schedule) {
+        long indexedFrom;
+        lock.readLock().lock();
+        try {
+            indexedFrom = firstHour;
+        } finally {
+            lock.readLock().unlock();
+        }
+        BitSet busy;
+        try {
+            busy = loadBusyHours(email, indexedFrom);
+        } catch (EventFetchingException e) {
+            log.error("Tutor ID: {} is left out of the free slot index until the next rebuild", email, e);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (firstHour != indexedFrom || ordinals.containsKey(email)) {
+                return;
+            }
+            int ordinal = emails.size();
+            ordinals.put(email, ordinal);
+            emails.add(email);
+            schedules.add(schedule);
+            busyHours.add(busy);
+            indexTutor(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // must be called under the write lock
+    private void indexTutor(int ordinal) {
+        WeeklySchedule schedule = schedules.get(ordinal);
+        BitSet busy = busyHours.get(ordinal);
+        for (int slot = 0; slot < horizonHours; slot++) {
+            freeTutors[slot].set(ordinal, !schedule.isEngaged(firstHour + slot) && !busy.get(slot));
+        }
+    }
+
+    private BitSet loadBusyHours(String email, long fromHour) throws EventFetchingException {
+        Instant from = Instant.ofEpochMilli(fromHour * HOUR_MILLIS);
+        Instant to = Instant.ofEpochMilli((fromHour + horizonHours) * HOUR_MILLIS);
+        List<CalendarEvent> events = calendarMirror.isEnabled()
+                ? calendarMirror.getEvents(email, from, to)
+                : calendarEventsFetcher.fetch(email, from, to, Priority.BACKGROUND);
+        BitSet busy = new BitSet(horizonHours);
+        for (CalendarEvent event : events) {
+            long startHour = Math.floorDiv(event.startMillis(), HOUR_MILLIS);
+            long endHour = Math.floorDiv(event.endMillis() + HOUR_MILLIS - 1, HOUR_MILLIS);
+            int fromSlot = (int) Math.max(0, startHour - fromHour);
+            int toSlot = (int) Math.min(horizonHours, endHour - fromHour);
+            if (fromSlot < toSlot) {
+                busy.set(fromSlot, toSlot);
+            }
+        }
+        return busy;
+    }
+}
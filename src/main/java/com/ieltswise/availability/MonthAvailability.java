@@ -0,0 +1,196 @@
+package com.ieltswise.availability;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.dto.FreeAndBusyHoursOfTheDay;
+import com.ieltswise.enums.Status;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hourly availability of a tutor for one month in a time zone.
+ * <p>
+ * Every local day of the month is kept as two bit masks indexed by the day of the month: one for the hours booked
+ * by calendar events and one for the hours the tutor is engaged according to the weekly schedule. Hours are
+ * counted from the local midnight, so a day on which the clocks are moved has 23 or 25 of them.
+ * A status of an hour is resolved only when the month is rendered: UNAVAILABLE wins over BOOKED,
+ * everything else is AVAILABLE.
+ */
+public final class MonthAvailability {
+
+    public static final long HOUR_MILLIS = 3_600_000L;
+    public static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+
+    private static final String TIME = "time";
+    private static final String STATUS = "status";
+
+    private final MonthLayout layout;
+    private final int days;
+    private final int[] booked;
+    private final int[] unavailable;
+
+    public MonthAvailability(YearMonth yearMonth) {
+        this(yearMonth, ZoneOffset.UTC);
+    }
+
+    public MonthAvailability(YearMonth yearMonth, ZoneId zone) {
+        this.layout = MonthLayout.of(yearMonth, zone);
+        this.days = layout.days();
+        this.booked = new int[days];
+        this.unavailable = new int[days];
+    }
+
+    /**
+     * @param yearMonth month
+     * @param events    tutor's events, cancelled ones are skipped
+     * @param schedule  tutor's weekly schedule
+     * @return availability of the month in UTC with the events booked and the schedule applied
+     */
+    public static MonthAvailability of(YearMonth yearMonth, List<CalendarEvent> events, WeeklySchedule schedule) {
+        return of(yearMonth, ZoneOffset.UTC, events, schedule);
+    }
+
+    /**
+     * @param yearMonth month
+     * @param zone      time zone of the days and hours
+     * @param events    tutor's events, cancelled ones are skipped
+     * @param schedule  tutor's weekly schedule
+     * @return availability of the month with the events booked and the schedule applied
+     */
+    public static MonthAvailability of(YearMonth yearMonth, ZoneId zone, List<CalendarEvent> events,
+                                       WeeklySchedule schedule) {
+        MonthAvailability availability = new MonthAvailability(yearMonth, zone);
+        for (CalendarEvent event : events) {
+            if (!event.isCancelled()) {
+                availability.markBooked(event.startMillis(), event.endMillis());
+            }
+        }
+        availability.applySchedule(schedule);
+        return availability;
+    }
+
+    /**
+     * Marks every hour touched by the interval {@code [startMillis, endMillis)} as booked.
+     * The part of the interval that lies outside the month is ignored.
+     */
+    public void markBooked(long startMillis, long endMillis) {
+        if (startMillis >= endMillis) {
+            return;
+        }
+        int firstDay = Math.max(0, layout.dayOf(startMillis));
+        int lastDay = Math.min(days - 1, layout.dayOf(endMillis - 1));
+        for (int day = firstDay; day <= lastDay; day++) {
+            long dayStart = layout.dayStart(day);
+            long from = Math.max(startMillis, dayStart) - dayStart;
+            long to = Math.min(endMillis, layout.dayStart(day + 1)) - dayStart;
+            booked[day] |= hourRange((int) (from / HOUR_MILLIS), (int) ((to + HOUR_MILLIS - 1) / HOUR_MILLIS));
+        }
+    }
+
+    /**
+     * Marks the hours in which the tutor is engaged according to the weekly schedule as unavailable.
+     * The schedule is kept in UTC, so every local hour is checked against the UTC hours it overlaps, two of them
+     * in a zone with a half-hour offset.
+     */
+    public void applySchedule(WeeklySchedule schedule) {
+        for (int day = 0; day < days; day++) {
+            long dayStart = layout.dayStart(day);
+            int hours = layout.hoursInDay(day);
+            int mask = 0;
+            for (int hour = 0; hour < hours; hour++) {
+                long hourStart = dayStart + hour * HOUR_MILLIS;
+                long firstUtcHour = Math.floorDiv(hourStart, HOUR_MILLIS);
+                long lastUtcHour = Math.floorDiv(hourStart + HOUR_MILLIS - 1, HOUR_MILLIS);
+                if (schedule.isEngaged(firstUtcHour)
+                        || lastUtcHour != firstUtcHour && schedule.isEngaged(lastUtcHour)) {
+                    mask |= 1 << hour;
+                }
+            }
+            unavailable[day] |= mask;
+        }
+    }
+
+    /**
+     * @param dayOfMonth day of the month starting from 1
+     * @param hour       hour of the day counted from the local midnight
+     * @return status of the hour
+     */
+    public Status statusAt(int dayOfMonth, int hour) {
+        int bit = 1 << hour;
+        if ((unavailable[dayOfMonth - 1] & bit) != 0) {
+            return Status.UNAVAILABLE;
+        }
+        return (booked[dayOfMonth - 1] & bit) != 0 ? Status.BOOKED : Status.AVAILABLE;
+    }
+
+    /**
+     * @return all hours of the month and their statuses grouped by day
+     */
+    public List<FreeAndBusyHoursOfTheDay> toFreeAndBusyHours() {
+        List<FreeAndBusyHoursOfTheDay> eventsOfMonth = new ArrayList<>(days);
+        for (int day = 0; day < days; day++) {
+            long dayStart = layout.dayStart(day);
+            int hoursInDay = layout.hoursInDay(day);
+            List<Map<String, Object>> hours = new ArrayList<>(hoursInDay);
+            for (int hour = 0; hour < hoursInDay; hour++) {
+                Map<String, Object> hourStatus = new HashMap<>(4);
+                hourStatus.put(TIME, dayStart + hour * HOUR_MILLIS);
+                hourStatus.put(STATUS, statusAt(day + 1, hour));
+                hours.add(hourStatus);
+            }
+            eventsOfMonth.add(FreeAndBusyHoursOfTheDay.builder().date(dayStart).time(hours).build());
+        }
+        return eventsOfMonth;
+    }
+
+    /**
+     * @param days  hours of a month and their statuses grouped by day, they are not changed
+     * @param hours hours to show as unavailable, hours since the epoch
+     * @return the days with every available hour among {@code hours} marked as unavailable; only the changed days
+     * are copied, the list itself is returned if no hour is changed
+     */
+    public static List<FreeAndBusyHoursOfTheDay> markUnavailable(List<FreeAndBusyHoursOfTheDay> days,
+                                                                 Set<Long> hours) {
+        if (hours.isEmpty()) {
+            return days;
+        }
+        List<FreeAndBusyHoursOfTheDay> marked = null;
+        for (int day = 0; day < days.size(); day++) {
+            FreeAndBusyHoursOfTheDay original = days.get(day);
+            List<Map<String, Object>> time = null;
+            for (int hour = 0; hour < original.getTime().size(); hour++) {
+                Map<String, Object> hourStatus = original.getTime().get(hour);
+                if (hourStatus.get(STATUS) == Status.AVAILABLE
+                        && hours.contains(Math.floorDiv(((Number) hourStatus.get(TIME)).longValue(), HOUR_MILLIS))) {
+                    if (time == null) {
+                        time = new ArrayList<>(original.getTime());
+                    }
+                    Map<String, Object> held = new HashMap<>(hourStatus);
+                    held.put(STATUS, Status.UNAVAILABLE);
+                    time.set(hour, held);
+                }
+            }
+            if (time != null) {
+                if (marked == null) {
+                    marked = new ArrayList<>(days);
+                }
+                marked.set(day, FreeAndBusyHoursOfTheDay.builder()
+                        .date(original.getDate())
+                        .time(time)
+                        .stale(original.getStale())
+                        .build());
+            }
+        }
+        return marked == null ? days : marked;
+    }
+
+    private static int hourRange(int fromHour, int toHour) {
+        return (int) ((1L << toHour) - (1L << fromHour));
+    }
+}
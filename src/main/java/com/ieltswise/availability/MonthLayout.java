@@ -0,0 +1,77 @@
+package com.ieltswise.availability;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.ieltswise.availability.MonthAvailability.HOUR_MILLIS;
+
+/**
+ * Starts of the local days of a month in a time zone, so that the hours of a day are plain offsets from its start.
+ * <p>
+ * The zone rules are consulted once per month and zone, the layouts are shared between requests. A day on which
+ * the clocks are moved has 23 or 25 hours.
+ */
+final class MonthLayout {
+
+    private static final int MAX_CACHED = 4096;
+    private static final Map<Key, MonthLayout> CACHE = new ConcurrentHashMap<>();
+
+    // start of every day of the month and of the first day of the next month, epoch milliseconds
+    private final long[] dayStarts;
+
+    private MonthLayout(long[] dayStarts) {
+        this.dayStarts = dayStarts;
+    }
+
+    static MonthLayout of(YearMonth yearMonth, ZoneId zone) {
+        Key key = new Key(yearMonth, zone);
+        MonthLayout layout = CACHE.get(key);
+        if (layout == null) {
+            if (CACHE.size() >= MAX_CACHED) {
+                CACHE.clear();
+            }
+            layout = CACHE.computeIfAbsent(key, MonthLayout::create);
+        }
+        return layout;
+    }
+
+    private static MonthLayout create(Key key) {
+        int days = key.yearMonth().lengthOfMonth();
+        long[] dayStarts = new long[days + 1];
+        for (int day = 0; day < days; day++) {
+            dayStarts[day] = key.yearMonth().atDay(day + 1).atStartOfDay(key.zone()).toInstant().toEpochMilli();
+        }
+        dayStarts[days] = key.yearMonth().plusMonths(1).atDay(1).atStartOfDay(key.zone()).toInstant().toEpochMilli();
+        return new MonthLayout(dayStarts);
+    }
+
+    int days() {
+        return dayStarts.length - 1;
+    }
+
+    /**
+     * @param day day of the month starting from 0, {@link #days()} for the start of the next month
+     */
+    long dayStart(int day) {
+        return dayStarts[day];
+    }
+
+    int hoursInDay(int day) {
+        return (int) ((dayStarts[day + 1] - dayStarts[day] + HOUR_MILLIS - 1) / HOUR_MILLIS);
+    }
+
+    /**
+     * @return day of the month starting from 0 that contains the instant, -1 if the instant is before the month
+     * and {@link #days()} if it is after it
+     */
+    int dayOf(long millis) {
+        int index = Arrays.binarySearch(dayStarts, millis);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private record Key(YearMonth yearMonth, ZoneId zone) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.ieltswise.availability;
+
+import com.ieltswise.dto.TimeSlot;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tutor's weekly schedule packed into one 24-bit mask per day of the week,
+ * bit {@code h} is set when the tutor is engaged at hour {@code h} (UTC)
+ */
+public final class WeeklySchedule {
+
+    private final int[] engagedHours = new int[7];
+
+    private WeeklySchedule() {
+    }
+
+    public static WeeklySchedule of(Map<DayOfWeek, List<TimeSlot>> timeInfo) {
+        WeeklySchedule schedule = new WeeklySchedule();
+        if (timeInfo == null) {
+            return schedule;
+        }
+        for (Map.Entry<DayOfWeek, List<TimeSlot>> entry : timeInfo.entrySet()) {
+            int mask = 0;
+            for (TimeSlot timeSlot : entry.getValue()) {
+                if (timeSlot.isEngaged()) {
+                    mask |= 1 << LocalTime.parse(timeSlot.getTime()).getHour();
+                }
+            }
+            schedule.engagedHours[entry.getKey().ordinal()] = mask;
+        }
+        return schedule;
+    }
+
+    /**
+     * @param dayOfWeek day of the week
+     * @return mask of the hours in which the tutor is engaged on the given day
+     */
+    public int engagedHours(DayOfWeek dayOfWeek) {
+        return engagedHours[dayOfWeek.ordinal()];
+    }
+
+    /**
+     * @param epochHour hours since the epoch
+     * @return true if the tutor is engaged in the UTC hour
+     */
+    public boolean isEngaged(long epochHour) {
+        // the epoch day 0 was a Thursday
+        DayOfWeek dayOfWeek = DayOfWeek.THURSDAY.plus(Math.floorMod(Math.floorDiv(epochHour, 24), 7));
+        return (engagedHours(dayOfWeek) & 1 << Math.floorMod(epochHour, 24)) != 0;
+    }
+}
@@ -0,0 +1,218 @@
+package com.ieltswise.booking;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.model.ConferenceData;
+import com.google.api.services.calendar.model.ConferenceSolutionKey;
+import com.google.api.services.calendar.model.CreateConferenceRequest;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventAttendee;
+import com.google.api.services.calendar.model.EventDateTime;
+import com.google.api.services.calendar.model.EventReminder;
+import com.ieltswise.calendar.GoogleCalendarProvider;
+import com.ieltswise.entity.Booking;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Creates the Google Calendar events of bookings.
+ * <p>
+ * Every booking has an event identifier derived from the booking itself, so an attempt repeated after a timeout
+ * cannot create a second event: Google rejects the duplicate with 409 Conflict and the existing event is returned.
+ * Events of several bookings are created with one batch HTTP request instead of a request per booking.
+ */
+@Slf4j
+@Component
+public class BookingEventWriter {
+
+    /**
+     * Time zone of the lessons' events, the instances of a recurring lesson keep their local time in it
+     */
+    public static final String TIME_ZONE = "Europe/London";
+
+    private static final String CALENDAR_ID = "primary";
+    private static final String EVENT_ID_PREFIX = "booking";
+
+    private final GoogleCalendarProvider googleCalendarProvider;
+
+    @Autowired
+    public BookingEventWriter(GoogleCalendarProvider googleCalendarProvider) {
+        this.googleCalendarProvider = googleCalendarProvider;
+    }
+
+    /**
+     * @param booking booking
+     * @return identifier of the booking's event, made of the characters a-v and 0-9 as Google requires
+     */
+    public static String eventId(Booking booking) {
+        String id = Long.toString(booking.getId(), 32);
+        return EVENT_ID_PREFIX + "0".repeat(13 - id.length()) + id + Long.toString(booking.getCreated(), 32);
+    }
+
+    /**
+     * @param booking booking
+     * @param eventId identifier of the booking's event
+     * @return created event, or the existing one if an earlier attempt has already created it
+     * @throws IOException              if the event could not be created
+     * @throws GeneralSecurityException if the Google Calendar client could not be created
+     */
+    public Event insert(Booking booking, String eventId) throws IOException, GeneralSecurityException {
+        Calendar calendar = googleCalendarProvider.get();
+        try {
+            return calendar.events()
+                    .insert(CALENDAR_ID, buildEventWithMeet(booking, eventId))
+                    .setConferenceDataVersion(1)
+                    .setSendUpdates("all")
+                    .execute();
+        } catch (GoogleJsonResponseException e) {
+            if (e.getStatusCode() != HttpURLConnection.HTTP_CONFLICT) {
+                throw e;
+            }
+            log.info("Event {} of booking {} already exists", eventId, booking.getId());
+            return calendar.events().get(CALENDAR_ID, eventId).execute();
+        }
+    }
+
+    /**
+     * Creates the events of several bookings with a single batch request
+     *
+     * @param bookings bookings
+     * @param eventIds identifiers of the bookings' events, in the same order
+     * @return outcome of every booking, in the same order
+     * @throws IOException              if the batch request could not be sent
+     * @throws GeneralSecurityException if the Google Calendar client could not be created
+     */
+    public List<Outcome> insertAll(List<Booking> bookings, List<String> eventIds)
+            throws IOException, GeneralSecurityException {
+        if (bookings.size() == 1) {
+            try {
+                return List.of(new Outcome(insert(bookings.get(0), eventIds.get(0)), null));
+            } catch (IOException e) {
+                return List.of(new Outcome(null, e));
+            }
+        }
+        Calendar calendar = googleCalendarProvider.get();
+        Outcome[] outcomes = new Outcome[bookings.size()];
+        BatchRequest batch = calendar.batch();
+        for (int i = 0; i < bookings.size(); i++) {
+            int index = i;
+            calendar.events()
+                    .insert(CALENDAR_ID, buildEventWithMeet(bookings.get(i), eventIds.get(i)))
+                    .setConferenceDataVersion(1)
+                    .setSendUpdates("all")
+                    .queue(batch, new JsonBatchCallback<>() {
+                        @Override
+                        public void onSuccess(Event event, HttpHeaders responseHeaders) {
+                            outcomes[index] = new Outcome(event, null);
+                        }
+
+                        @Override
+                        public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                            outcomes[index] = new Outcome(null, new GoogleJsonResponseException(
+                                    new HttpResponseException.Builder(error.getCode(), error.getMessage(),
+                                            responseHeaders), error));
+                        }
+                    });
+        }
+        batch.execute();
+        for (int i = 0; i < outcomes.length; i++) {
+            Outcome outcome = outcomes[i];
+            if (outcome == null) {
+                outcomes[i] = new Outcome(null, new IOException("No batch response for event " + eventIds.get(i)));
+            } else if (outcome.error() instanceof GoogleJsonResponseException e
+                    && e.getStatusCode() == HttpURLConnection.HTTP_CONFLICT) {
+                log.info("Event {} of booking {} already exists", eventIds.get(i), bookings.get(i).getId());
+                try {
+                    outcomes[i] = new Outcome(calendar.events().get(CALENDAR_ID, eventIds.get(i)).execute(), null);
+                } catch (IOException getError) {
+                    outcomes[i] = new Outcome(null, getError);
+                }
+            }
+        }
+        return List.of(outcomes);
+    }
+
+    private Event buildEventWithMeet(Booking booking, String eventId) {
+        return new Event()
+                .setId(eventId)
+                .setSummary("English with IELTSWise67")
+                .setLocation("Online")
+                .setDescription(prepareEventDescription(booking.getRequestedService(), booking.getStudentName()))
+                .setConferenceData(prepareConferenceData(eventId))
+                .setStart(prepareEventTime(booking.getStartDate()))
+                .setEnd(prepareEventTime(booking.getEndDate()))
+                .setAttendees(prepareEventAttendees(booking))
+                .setGuestsCanModify(true)
+                .setReminders(prepareReminders())
+                .setRecurrence(booking.getRecurrence() == null ? null : List.of(booking.getRecurrence()));
+    }
+
+    private ConferenceData prepareConferenceData(String eventId) {
+        final ConferenceSolutionKey conferenceSKey = new ConferenceSolutionKey();
+        conferenceSKey.setType("hangoutsMeet");
+        final CreateConferenceRequest conferenceReq = new CreateConferenceRequest();
+        // the same request id makes Google reuse the meeting if the event is sent again
+        conferenceReq.setRequestId(eventId);
+        conferenceReq.setConferenceSolutionKey(conferenceSKey);
+        final ConferenceData conferenceData = new ConferenceData();
+        conferenceData.setCreateRequest(conferenceReq);
+        return conferenceData;
+    }
+
+    private EventDateTime prepareEventTime(String eventTime) {
+        final DateTime dateTime = new DateTime(eventTime);
+        return new EventDateTime()
+                .setDateTime(dateTime)
+                .setTimeZone(TIME_ZONE);
+    }
+
+    private List<EventAttendee> prepareEventAttendees(Booking booking) {
+        final EventAttendee[] attendees = new EventAttendee[]{
+                new EventAttendee().setEmail(booking.getStudentEmail()),
+                new EventAttendee().setEmail(booking.getTutorEmail()).setResource(true).setOrganizer(true)
+        };
+        return asList(attendees);
+    }
+
+    private Event.Reminders prepareReminders() {
+        final EventReminder[] reminderOverrides = new EventReminder[]{
+                new EventReminder().setMethod("email").setMinutes(24 * 60),
+                new EventReminder().setMethod("popup").setMinutes(10),
+        };
+        return new Event.Reminders()
+                .setUseDefault(false)
+                .setOverrides(asList(reminderOverrides));
+    }
+
+    /**
+     * Result of creating one event of a batch
+     *
+     * @param event created or existing event, {@code null} if it could not be created
+     * @param error why the event could not be created, {@code null} on success
+     */
+    public record Outcome(Event event, Exception error) {
+    }
+
+    private String prepareEventDescription(String requestedService, String studentName) {
+        return """
+                <b>Student Name</b>\s
+                %s<br>
+                <b>Requested Service</b>\s
+                %s"""
+                .formatted(studentName, requestedService);
+    }
+}
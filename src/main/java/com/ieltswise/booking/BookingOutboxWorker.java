@@ -0,0 +1,303 @@
+package com.ieltswise.booking;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.Recurrence;
+import com.ieltswise.calendar.RecurrenceExpander;
+import com.ieltswise.entity.Booking;
+import com.ieltswise.entity.CalendarOutboxEntry;
+import com.ieltswise.enums.BookingStatus;
+import com.ieltswise.enums.BookingType;
+import com.ieltswise.event.SessionBookedEvent;
+import com.ieltswise.repository.BookingRepository;
+import com.ieltswise.repository.CalendarOutboxRepository;
+import com.ieltswise.service.LessonBalanceService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Creates the Google Calendar events of accepted bookings from the calendar outbox.
+ * <p>
+ * Due outbox entries are polled every {@code booking.outbox.poll-interval} and processed on a bounded pool of
+ * {@code booking.outbox.threads} threads, up to {@code booking.outbox.batch-size} events in one Google batch
+ * request. An entry is leased before processing, so that several instances of the
+ * application never process it at the same time. A failed attempt is retried with an exponential backoff starting
+ * at {@code booking.outbox.retry-delay}. After {@code booking.outbox.max-attempts} attempts, or on an error that
+ * a retry cannot fix, the booking fails and the student gets the lessons or the trial back. Either way the
+ * booking's hold of the tutor's hours is released once it is settled.
+ */
+@Slf4j
+@Component
+public class BookingOutboxWorker implements MeterBinder {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final CalendarOutboxRepository calendarOutboxRepository;
+    private final BookingRepository bookingRepository;
+    private final LessonBalanceService lessonBalanceService;
+    private final BookingEventWriter bookingEventWriter;
+    private final SlotReservationManager slotReservationManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final long maxRetryDelayMillis;
+    private final long leaseMillis;
+    private final Clock clock;
+    private final ThreadPoolExecutor executor;
+    private final BlockingQueue<Runnable> queue;
+
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @Autowired
+    public BookingOutboxWorker(CalendarOutboxRepository calendarOutboxRepository,
+                               BookingRepository bookingRepository,
+                               LessonBalanceService lessonBalanceService,
+                               BookingEventWriter bookingEventWriter,
+                               SlotReservationManager slotReservationManager,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${booking.outbox.threads:4}") int threads,
+                               @Value("${booking.outbox.batch-size:50}") int batchSize,
+                               @Value("${booking.outbox.max-attempts:8}") int maxAttempts,
+                               @Value("${booking.outbox.retry-delay:PT5S}") Duration retryDelay,
+                               @Value("${booking.outbox.max-retry-delay:PT10M}") Duration maxRetryDelay,
+                               @Value("${booking.outbox.lease:PT2M}") Duration lease) {
+        this(calendarOutboxRepository, bookingRepository, lessonBalanceService, bookingEventWriter,
+                slotReservationManager, eventPublisher, new TransactionTemplate(transactionManager), threads, batchSize,
+                maxAttempts, retryDelay, maxRetryDelay, lease, Clock.systemUTC());
+    }
+
+    BookingOutboxWorker(CalendarOutboxRepository calendarOutboxRepository, BookingRepository bookingRepository,
+                        LessonBalanceService lessonBalanceService, BookingEventWriter bookingEventWriter,
+                        SlotReservationManager slotReservationManager, ApplicationEventPublisher eventPublisher,
+                        TransactionTemplate transactionTemplate, int threads, int batchSize, int maxAttempts,
+                        Duration retryDelay, Duration maxRetryDelay, Duration lease, Clock clock) {
+        this.calendarOutboxRepository = calendarOutboxRepository;
+        this.bookingRepository = bookingRepository;
+        this.lessonBalanceService = lessonBalanceService;
+        this.bookingEventWriter = bookingEventWriter;
+        this.slotReservationManager = slotReservationManager;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelay.toMillis();
+        this.maxRetryDelayMillis = maxRetryDelay.toMillis();
+        this.leaseMillis = lease.toMillis();
+        this.clock = clock;
+        this.queue = new ArrayBlockingQueue<>(threads * 4);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES, queue,
+                runnable -> new Thread(runnable, "booking-outbox-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Leases as many due entries as the pool can take and hands them to it in batches
+     */
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval:PT1S}")
+    public void poll() {
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        long now = clock.millis();
+        List<CalendarOutboxEntry> claimed = new ArrayList<>();
+        for (CalendarOutboxEntry entry : calendarOutboxRepository
+                .findByNextAttemptAtLessThanEqualOrderByNextAttemptAt(now, PageRequest.of(0, capacity * batchSize))) {
+            if (calendarOutboxRepository.claim(entry.getId(), entry.getNextAttemptAt(), now + leaseMillis) == 1) {
+                claimed.add(entry);
+            }
+        }
+        for (int from = 0; from < claimed.size(); from += batchSize) {
+            List<CalendarOutboxEntry> batch = claimed.subList(from, Math.min(claimed.size(), from + batchSize));
+            try {
+                executor.execute(() -> process(batch));
+            } catch (RejectedExecutionException e) {
+                // the lease expires and the entries are picked up again
+                return;
+            }
+        }
+    }
+
+    /**
+     * Creates the events of the entries' bookings with one request and settles every entry by its own outcome
+     */
+    void process(List<CalendarOutboxEntry> entries) {
+        List<CalendarOutboxEntry> pending = new ArrayList<>(entries.size());
+        List<Booking> bookings = new ArrayList<>(entries.size());
+        List<String> eventIds = new ArrayList<>(entries.size());
+        for (CalendarOutboxEntry entry : entries) {
+            Booking booking = bookingRepository.findById(entry.getBookingId()).orElse(null);
+            if (booking == null) {
+                calendarOutboxRepository.deleteById(entry.getId());
+            } else {
+                pending.add(entry);
+                bookings.add(booking);
+                eventIds.add(entry.getEventId());
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<BookingEventWriter.Outcome> outcomes;
+        try {
+            outcomes = bookingEventWriter.insertAll(bookings, eventIds);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            for (int i = 0; i < pending.size(); i++) {
+                onFailure(pending.get(i), bookings.get(i), e);
+            }
+            return;
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            BookingEventWriter.Outcome outcome = outcomes.get(i);
+            if (outcome.error() == null) {
+                onSuccess(pending.get(i), bookings.get(i), outcome.event());
+            } else {
+                onFailure(pending.get(i), bookings.get(i), outcome.error());
+            }
+        }
+    }
+
+    private void onSuccess(CalendarOutboxEntry entry, Booking booking, Event event) {
+        transactionTemplate.executeWithoutResult(status -> {
+            booking.setStatus(BookingStatus.CONFIRMED);
+            booking.setEventLink(event.getHtmlLink());
+            bookingRepository.save(booking);
+            calendarOutboxRepository.deleteById(entry.getId());
+        });
+        confirmed.increment();
+        log.info("Event created successfully for booking {} of student: {}", booking.getId(),
+                booking.getStudentName());
+        List<CalendarEvent> lessons = lessons(booking);
+        for (CalendarEvent lesson : lessons) {
+            eventPublisher.publishEvent(new SessionBookedEvent(booking.getTutorEmail(), lesson.start().toInstant(),
+                    lesson.end().toInstant()));
+        }
+        // the hours are released only once the caches show them as booked
+        releaseSlots(booking, lessons);
+    }
+
+    private void releaseSlots(Booking booking, List<CalendarEvent> lessons) {
+        slotReservationManager.releaseBooking(booking.getTutorEmail(), booking.getStudentEmail(), lessons.stream()
+                .map(lesson -> new SlotReservationManager.Interval(lesson.startMillis(), lesson.endMillis()))
+                .toList());
+    }
+
+    /**
+     * @return the single lesson of the booking or every instance of a recurring one
+     */
+    private static List<CalendarEvent> lessons(Booking booking) {
+        ZoneId zone = ZoneId.of(BookingEventWriter.TIME_ZONE);
+        CalendarEvent lesson = new CalendarEvent(null, "confirmed",
+                parseEventTime(booking.getStartDate()).atZone(zone), parseEventTime(booking.getEndDate()).atZone(zone),
+                booking.getRecurrence() == null ? null : new Recurrence(List.of(booking.getRecurrence()), zone),
+                null, null);
+        return lesson.recurrence() == null ? List.of(lesson)
+                : RecurrenceExpander.instances(lesson, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    private void onFailure(CalendarOutboxEntry entry, Booking booking, Exception e) {
+        int attempts = entry.getAttempts() + 1;
+        String error = e.getMessage() == null ? e.getClass().getName()
+                : e.getMessage().substring(0, Math.min(MAX_ERROR_LENGTH, e.getMessage().length()));
+        if (attempts < maxAttempts && isRetryable(e)) {
+            entry.setAttempts(attempts);
+            entry.setLastError(error);
+            entry.setNextAttemptAt(clock.millis() + retryDelay(attempts));
+            calendarOutboxRepository.save(entry);
+            retried.increment();
+            log.warn("Attempt {} to create the event of booking {} failed: {}", attempts, booking.getId(), error);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            booking.setStatus(BookingStatus.FAILED);
+            booking.setFailure(error);
+            bookingRepository.save(booking);
+            giveBack(booking);
+            calendarOutboxRepository.deleteById(entry.getId());
+        });
+        failed.increment();
+        releaseSlots(booking, lessons(booking));
+        log.error("Failed to create the event of booking {} after {} attempts", booking.getId(), attempts, e);
+    }
+
+    private void giveBack(Booking booking) {
+        if (booking.getType() == BookingType.TRIAL) {
+            lessonBalanceService.restoreTrial(booking.getStudentEmail());
+        } else {
+            lessonBalanceService.giveBackLessons(booking.getStudentEmail(),
+                    booking.getLessons() == null ? 1 : booking.getLessons());
+        }
+    }
+
+    private long retryDelay(int attempts) {
+        return Math.min(maxRetryDelayMillis, retryDelayMillis << Math.min(attempts - 1, 20));
+    }
+
+    private static boolean isRetryable(Exception e) {
+        if (e instanceof GoogleJsonResponseException response) {
+            int statusCode = response.getStatusCode();
+            return statusCode >= HttpURLConnection.HTTP_INTERNAL_ERROR
+                    || statusCode == HttpURLConnection.HTTP_CLIENT_TIMEOUT || statusCode == 429;
+        }
+        return true;
+    }
+
+    private static Instant parseEventTime(String eventTime) {
+        return Instant.ofEpochMilli(DateTime.parseRfc3339(eventTime).getValue());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("booking.outbox.queue", queue, BlockingQueue::size)
+                .description("Outbox entries waiting for a thread")
+                .register(registry);
+        FunctionCounter.builder("booking.outbox.attempts", confirmed, LongAdder::doubleValue)
+                .tag("result", "confirmed").register(registry);
+        FunctionCounter.builder("booking.outbox.attempts", retried, LongAdder::doubleValue)
+                .tag("result", "retried").register(registry);
+        FunctionCounter.builder("booking.outbox.attempts", failed, LongAdder::doubleValue)
+                .tag("result", "failed").register(registry);
+    }
+}
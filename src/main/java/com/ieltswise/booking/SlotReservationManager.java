@@ -0,0 +1,324 @@
+package com.ieltswise.booking;
+
+import com.ieltswise.exception.SlotUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.ieltswise.availability.MonthAvailability.HOUR_MILLIS;
+
+/**
+ * Short-lived holds of tutors' hours that keep two students from booking the same hour at the same time.
+ * <p>
+ * Holds are kept per tutor and hour in concurrent maps, an hour is taken with a single atomic update of its entry,
+ * so students competing for different hours never wait for each other. A student holds the hours of a lesson for
+ * {@code booking.hold.ttl} while paying for it, and a booking keeps them for {@code booking.hold.booking-ttl} until
+ * its calendar event is created. A hold ends when it is released, when the booking is settled or when it expires;
+ * expired holds are ignored right away and removed every {@code booking.hold.purge-interval}. A booking hold that
+ * is rolled back gives the hours back to the student's earlier holds. Holds live in the memory of one instance of
+ * the application.
+ */
+@Slf4j
+@Component
+public class SlotReservationManager implements MeterBinder {
+
+    private final ConcurrentMap<String, ConcurrentNavigableMap<Long, SlotHold>> holdsByTutor =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, HeldHours> holdsById = new ConcurrentHashMap<>();
+    private final long holdTtlMillis;
+    private final long bookingTtlMillis;
+    private final Clock clock;
+
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    @Autowired
+    public SlotReservationManager(@Value("${booking.hold.ttl:PT10M}") Duration holdTtl,
+                                  @Value("${booking.hold.booking-ttl:PT1H}") Duration bookingTtl) {
+        this(holdTtl, bookingTtl, Clock.systemUTC());
+    }
+
+    SlotReservationManager(Duration holdTtl, Duration bookingTtl, Clock clock) {
+        this.holdTtlMillis = holdTtl.toMillis();
+        this.bookingTtlMillis = bookingTtl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Holds every hour touched by the interval for the student while they pay for the lesson
+     *
+     * @param tutorEmail   tutor
+     * @param studentEmail student
+     * @param startMillis  start of the lesson
+     * @param endMillis    end of the lesson
+     * @return the hold, it expires after {@code booking.hold.ttl}
+     * @throws SlotUnavailableException if another student holds any of the hours
+     */
+    public SlotHold hold(String tutorEmail, String studentEmail, long startMillis, long endMillis)
+            throws SlotUnavailableException {
+        return acquire(tutorEmail, studentEmail, List.of(new Interval(startMillis, endMillis)), holdTtlMillis);
+    }
+
+    /**
+     * Holds the hours of all the lessons of a booking until its calendar event is created. Hours already held by
+     * the same student, for example while they were paying, are taken over by the booking
+     *
+     * @param tutorEmail   tutor
+     * @param studentEmail student
+     * @param lessons      lessons of the booking
+     * @return the hold, it expires after {@code booking.hold.booking-ttl}
+     * @throws SlotUnavailableException if another student holds any of the hours, none of them is held then
+     */
+    public SlotHold holdForBooking(String tutorEmail, String studentEmail, List<Interval> lessons)
+            throws SlotUnavailableException {
+        return acquire(tutorEmail, studentEmail, lessons, bookingTtlMillis);
+    }
+
+    /**
+     * @param holdId hold identifier
+     * @return false if there is no such hold, for example because it has already expired
+     */
+    public boolean release(String holdId) {
+        HeldHours held = holdsById.remove(holdId);
+        if (held == null) {
+            return false;
+        }
+        removeHours(held.hold(), held.hours());
+        released.increment();
+        return true;
+    }
+
+    /**
+     * Undoes a hold of a booking that has not been saved, the hours the student held before it, for example while
+     * paying, are held by the earlier holds again
+     *
+     * @param holdId identifier of the hold returned by {@link #holdForBooking(String, String, List)}
+     */
+    public void rollBack(String holdId) {
+        HeldHours held = holdsById.remove(holdId);
+        if (held != null) {
+            restoreHours(held.hold(), held.hours(), held.replaced());
+            released.increment();
+        }
+    }
+
+    /**
+     * Releases the hours of the lessons held by the student, called once the booking is settled
+     *
+     * @param tutorEmail   tutor
+     * @param studentEmail student
+     * @param lessons      lessons of the booking
+     */
+    public void releaseBooking(String tutorEmail, String studentEmail, List<Interval> lessons) {
+        NavigableMap<Long, SlotHold> hours = holdsByTutor.get(tutorEmail);
+        if (hours == null) {
+            return;
+        }
+        Set<String> holdIds = new TreeSet<>();
+        for (long hour : hoursOf(lessons)) {
+            SlotHold hold = hours.get(hour);
+            if (hold != null && hold.studentEmail().equals(studentEmail) && hours.remove(hour, hold)) {
+                holdIds.add(hold.id());
+            }
+        }
+        for (String holdId : holdIds) {
+            if (holdsById.remove(holdId) != null) {
+                released.increment();
+            }
+        }
+    }
+
+    /**
+     * @param tutorEmail tutor
+     * @param fromMillis start of the interval
+     * @param toMillis   end of the interval
+     * @return true if any hour touched by the interval is held
+     */
+    public boolean isHeld(String tutorEmail, long fromMillis, long toMillis) {
+        return !heldHours(tutorEmail, fromMillis, toMillis).isEmpty();
+    }
+
+    /**
+     * @param tutorEmail tutor
+     * @param fromMillis start of the interval
+     * @param toMillis   end of the interval
+     * @return held hours touched by the interval, hours since the epoch
+     */
+    public Set<Long> heldHours(String tutorEmail, long fromMillis, long toMillis) {
+        NavigableMap<Long, SlotHold> hours = holdsByTutor.get(tutorEmail);
+        if (hours == null || hours.isEmpty()) {
+            return Set.of();
+        }
+        long now = clock.millis();
+        Set<Long> held = new TreeSet<>();
+        for (Map.Entry<Long, SlotHold> entry : hours.subMap(Math.floorDiv(fromMillis, HOUR_MILLIS), true,
+                Math.floorDiv(toMillis + HOUR_MILLIS - 1, HOUR_MILLIS), false).entrySet()) {
+            if (entry.getValue().isActive(now)) {
+                held.add(entry.getKey());
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Removes the expired holds
+     */
+    @Scheduled(fixedDelayString = "${booking.hold.purge-interval:PT1M}")
+    public void purgeExpired() {
+        long now = clock.millis();
+        int purged = 0;
+        for (HeldHours held : holdsById.values()) {
+            if (!held.hold().isActive(now) && holdsById.remove(held.hold().id(), held)) {
+                removeHours(held.hold(), held.hours());
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            expired.add(purged);
+            log.debug("Purged {} expired slot holds", purged);
+        }
+    }
+
+    public int size() {
+        return holdsById.size();
+    }
+
+    private SlotHold acquire(String tutorEmail, String studentEmail, List<Interval> lessons, long ttlMillis)
+            throws SlotUnavailableException {
+        long now = clock.millis();
+        SlotHold hold = new SlotHold(UUID.randomUUID().toString(), tutorEmail, studentEmail, now + ttlMillis);
+        List<Long> hours = hoursOf(lessons);
+        ConcurrentNavigableMap<Long, SlotHold> tutorHours =
+                holdsByTutor.computeIfAbsent(tutorEmail, tutor -> new ConcurrentSkipListMap<>());
+        List<Long> taken = new ArrayList<>(hours.size());
+        Map<Long, SlotHold> replaced = new HashMap<>();
+        SlotHold[] previous = new SlotHold[1];
+        for (long hour : hours) {
+            SlotHold current = tutorHours.compute(hour, (key, existing) -> {
+                previous[0] = existing;
+                return existing == null || !existing.isActive(now) || existing.studentEmail().equals(studentEmail)
+                        ? hold : existing;
+            });
+            if (current != hold) {
+                restoreHours(hold, taken, replaced);
+                conflicts.increment();
+                throw new SlotUnavailableException(tutorEmail, hour * HOUR_MILLIS);
+            }
+            taken.add(hour);
+            // the student's own earlier hold is put back if this one is rolled back
+            if (previous[0] != null && previous[0].isActive(now)) {
+                replaced.put(hour, previous[0]);
+            }
+        }
+        holdsById.put(hold.id(), new HeldHours(hold, hours, Map.copyOf(replaced)));
+        granted.increment();
+        return hold;
+    }
+
+    private void restoreHours(SlotHold hold, Collection<Long> hours, Map<Long, SlotHold> replaced) {
+        NavigableMap<Long, SlotHold> tutorHours = holdsByTutor.get(hold.tutorEmail());
+        if (tutorHours == null) {
+            return;
+        }
+        long now = clock.millis();
+        for (long hour : hours) {
+            SlotHold previous = replaced.get(hour);
+            if (previous != null && previous.isActive(now) && holdsById.containsKey(previous.id())) {
+                tutorHours.replace(hour, hold, previous);
+            } else {
+                tutorHours.remove(hour, hold);
+            }
+        }
+    }
+
+    private void removeHours(SlotHold hold, Collection<Long> hours) {
+        NavigableMap<Long, SlotHold> tutorHours = holdsByTutor.get(hold.tutorEmail());
+        if (tutorHours != null) {
+            for (long hour : hours) {
+                tutorHours.remove(hour, hold);
+            }
+        }
+    }
+
+    private static List<Long> hoursOf(List<Interval> lessons) {
+        Set<Long> hours = new TreeSet<>();
+        for (Interval lesson : lessons) {
+            long last = Math.floorDiv(lesson.endMillis() + HOUR_MILLIS - 1, HOUR_MILLIS);
+            for (long hour = Math.floorDiv(lesson.startMillis(), HOUR_MILLIS); hour < last; hour++) {
+                hours.add(hour);
+            }
+        }
+        return List.copyOf(hours);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("booking.holds", granted, LongAdder::doubleValue)
+                .description("Hold requests")
+                .tag("result", "granted").register(registry);
+        FunctionCounter.builder("booking.holds", conflicts, LongAdder::doubleValue)
+                .description("Hold requests")
+                .tag("result", "conflict").register(registry);
+        FunctionCounter.builder("booking.holds.ended", released, LongAdder::doubleValue)
+                .description("Holds that ended")
+                .tag("reason", "released").register(registry);
+        FunctionCounter.builder("booking.holds.ended", expired, LongAdder::doubleValue)
+                .description("Holds that ended")
+                .tag("reason", "expired").register(registry);
+        Gauge.builder("booking.holds.active", this, SlotReservationManager::size)
+                .description("Holds not yet released or purged")
+                .register(registry);
+    }
+
+    /**
+     * Time of a lesson
+     *
+     * @param startMillis start of the lesson
+     * @param endMillis   end of the lesson
+     */
+    public record Interval(long startMillis, long endMillis) {
+    }
+
+    /**
+     * Hold of one or more hours of a tutor
+     *
+     * @param id           identifier used to release the hold
+     * @param tutorEmail   tutor
+     * @param studentEmail student holding the hours
+     * @param expiresAt    time the hold expires at
+     */
+    public record SlotHold(String id, String tutorEmail, String studentEmail, long expiresAt) {
+
+        boolean isActive(long now) {
+            return now < expiresAt;
+        }
+    }
+
+    private record HeldHours(SlotHold hold, List<Long> hours, Map<Long, SlotHold> replaced) {
+    }
+}
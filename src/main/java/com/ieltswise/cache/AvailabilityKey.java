@@ -0,0 +1,17 @@
+package com.ieltswise.cache;
+
+import java.time.ZoneId;
+
+/**
+ * Key of a month of availability rendered for a time zone. The zone is normalized, so that for example
+ * {@code UTC} and {@code Z} make the same key
+ *
+ * @param tutorMonth tutor and month
+ * @param zone       time zone of the days and hours
+ */
+public record AvailabilityKey(TutorMonth tutorMonth, ZoneId zone) {
+
+    public AvailabilityKey {
+        zone = zone.normalized();
+    }
+}
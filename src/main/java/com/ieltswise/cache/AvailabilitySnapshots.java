@@ -0,0 +1,74 @@
+package com.ieltswise.cache;
+
+import com.ieltswise.dto.FreeAndBusyHoursOfTheDay;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Last successfully computed availability of every tutor's month, served marked as stale
+ * when Google Calendar cannot be reached. Bounded by the number of months, the least recently used go first.
+ */
+@Component
+public class AvailabilitySnapshots implements MeterBinder {
+
+    private final Map<AvailabilityKey, List<FreeAndBusyHoursOfTheDay>> snapshots;
+    private final LongAdder served = new LongAdder();
+
+    @Autowired
+    public AvailabilitySnapshots(@Value("${availability.snapshots.max-months:10000}") int maxMonths) {
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AvailabilityKey, List<FreeAndBusyHoursOfTheDay>> eldest) {
+                return size() > maxMonths;
+            }
+        };
+    }
+
+    public synchronized void put(AvailabilityKey key, List<FreeAndBusyHoursOfTheDay> days) {
+        snapshots.put(key, days);
+    }
+
+    /**
+     * @param key tutor, month and time zone
+     * @return copy of the last known availability with every day marked as stale, null if there is none
+     */
+    public List<FreeAndBusyHoursOfTheDay> getStale(AvailabilityKey key) {
+        List<FreeAndBusyHoursOfTheDay> days;
+        synchronized (this) {
+            days = snapshots.get(key);
+        }
+        if (days == null) {
+            return null;
+        }
+        served.increment();
+        return days.stream()
+                .map(day -> FreeAndBusyHoursOfTheDay.builder()
+                        .date(day.getDate())
+                        .time(day.getTime())
+                        .stale(true)
+                        .build())
+                .toList();
+    }
+
+    public synchronized int size() {
+        return snapshots.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("availability.snapshots.served", served, LongAdder::doubleValue)
+                .description("Stale months served because Google Calendar was unavailable")
+                .register(registry);
+        Gauge.builder("availability.snapshots.size", this, AvailabilitySnapshots::size).register(registry);
+    }
+}
@@ -0,0 +1,213 @@
+package com.ieltswise.cache;
+
+import com.ieltswise.calendar.CalendarMirror;
+import com.ieltswise.calendar.CalendarQuery.Priority;
+import com.ieltswise.entity.TutorInfo;
+import com.ieltswise.exception.EmailNotFoundException;
+import com.ieltswise.exception.EventFetchingException;
+import com.ieltswise.repository.TutorInfoRepository;
+import com.ieltswise.service.GoogleEventsService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Computes the availability of the current and the next {@code availability.warmup.months-ahead} months of every
+ * tutor right after start and then every {@code availability.warmup.interval}, so that the months most requested
+ * are served from the caches.
+ * <p>
+ * At most {@code availability.warmup.parallelism} months are warmed at a time and their events are fetched as
+ * background requests, so the warm-up never takes the Google quota reserved for users. A month that fails is
+ * skipped until the next run. Only the months that are not cached, or were just restored from the snapshot, are
+ * loaded by the warm-up itself, the cached ones are refreshed in the background once they are stale.
+ * <p>
+ * The warm-up keeps the months cached only if it comes back to them before they expire, so the interval must be
+ * shorter than {@code calendar.cache.ttl} by at least the duration of a run. It defaults to {@code calendar.cache.ttl}
+ * minus {@code calendar.cache.soft-ttl}, which leaves the soft time to live for the run.
+ */
+@Slf4j
+@Component
+public class AvailabilityWarmer implements MeterBinder {
+
+    private final TutorInfoRepository tutorInfoRepository;
+    private final GoogleEventsService googleEventsService;
+    private final MonthEventsCache monthEventsCache;
+    private final MonthEventsRefresher monthEventsRefresher;
+    private final CalendarMirror calendarMirror;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final Clock clock;
+    private final ExecutorService executor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger warmed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final LongAdder failures = new LongAdder();
+
+    @Autowired
+    public AvailabilityWarmer(TutorInfoRepository tutorInfoRepository,
+                              GoogleEventsService googleEventsService,
+                              MonthEventsCache monthEventsCache,
+                              MonthEventsRefresher monthEventsRefresher,
+                              CalendarMirror calendarMirror,
+                              @Value("${availability.warmup.enabled:true}") boolean enabled,
+                              @Value("${availability.warmup.months-ahead:1}") int monthsAhead,
+                              @Value("${availability.warmup.parallelism:4}") int parallelism) {
+        this(tutorInfoRepository, googleEventsService, monthEventsCache, monthEventsRefresher, calendarMirror,
+                enabled, monthsAhead, parallelism, Clock.systemUTC());
+    }
+
+    AvailabilityWarmer(TutorInfoRepository tutorInfoRepository, GoogleEventsService googleEventsService,
+                       MonthEventsCache monthEventsCache, MonthEventsRefresher monthEventsRefresher,
+                       CalendarMirror calendarMirror, boolean enabled, int monthsAhead, int parallelism, Clock clock) {
+        this.tutorInfoRepository = tutorInfoRepository;
+        this.googleEventsService = googleEventsService;
+        this.monthEventsCache = monthEventsCache;
+        this.monthEventsRefresher = monthEventsRefresher;
+        this.calendarMirror = calendarMirror;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.clock = clock;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                runnable -> new Thread(runnable, "availability-warmup-" + threadNumber.incrementAndGet()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread thread = new Thread(this::warmUp, "availability-warmup");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${availability.warmup.interval:PT4M}",
+            initialDelayString = "${availability.warmup.interval:PT4M}")
+    public void warmUpIfEnabled() {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Warms the months of every tutor and returns once all of them are done, does nothing if a warm-up is running
+     */
+    public void warmUp() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            List<TutorMonth> months = months();
+            warmed.set(0);
+            failed.set(0);
+            total.set(months.size());
+            List<Future<?>> results = new ArrayList<>(months.size());
+            for (TutorMonth month : months) {
+                results.add(executor.submit(() -> warm(month)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            log.info("Warmed {} of {} tutor months in {} ms", warmed.get(), months.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("Availability warm-up failed", e);
+        } finally {
+            completed.set(true);
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return share of the months of the last or running warm-up that are done, successfully or not, from 0 to 100
+     */
+    public int progress() {
+        int months = total.get();
+        return months == 0 ? (completed.get() ? 100 : 0) : (warmed.get() + failed.get()) * 100 / months;
+    }
+
+    public boolean isCompleted() {
+        return completed.get();
+    }
+
+    public int getWarmed() {
+        return warmed.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public int getTotal() {
+        return total.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("availability.warmup.progress", this, AvailabilityWarmer::progress)
+                .description("Percentage of tutor months done by the last warm-up")
+                .register(registry);
+        FunctionCounter.builder("availability.warmup.failures", failures, LongAdder::doubleValue)
+                .register(registry);
+    }
+
+    private List<TutorMonth> months() {
+        YearMonth current = YearMonth.now(clock.withZone(ZoneOffset.UTC));
+        List<TutorMonth> months = new ArrayList<>();
+        for (TutorInfo tutor : tutorInfoRepository.findAll()) {
+            for (int ahead = 0; ahead <= monthsAhead; ahead++) {
+                months.add(new TutorMonth(tutor.getEmail(), current.plusMonths(ahead)));
+            }
+        }
+        return months;
+    }
+
+    private void warm(TutorMonth key) {
+        try {
+            if (!calendarMirror.isEnabled() && !monthEventsCache.isLoaded(key)) {
+                monthEventsRefresher.load(key, Priority.BACKGROUND);
+            }
+            googleEventsService.getEventsByYearAndMonth(key.tutorId(), key.month().getYear(),
+                    key.month().getMonthValue());
+            warmed.incrementAndGet();
+        } catch (EventFetchingException | EmailNotFoundException | RuntimeException e) {
+            failed.incrementAndGet();
+            failures.increment();
+            log.warn("Failed to warm availability of tutor {} for {}: {}", key.tutorId(), key.month(),
+                    e.getMessage());
+        }
+    }
+}
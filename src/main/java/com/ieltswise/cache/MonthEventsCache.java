@@ -0,0 +1,280 @@
+package com.ieltswise.cache;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.event.SessionBookedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process cache of the events fetched from Google Calendar for a tutor and a month.
+ * <p>
+ * Entries have a soft and a hard time to live. After the soft one an entry is still served but reported as stale,
+ * so that the caller can refresh it in the background; after the hard one it is dropped. The cache is bounded by
+ * the total number of events it holds, when the bound is exceeded the least recently used months are evicted first.
+ * Every invalidation moves the generation of the cache on, events fetched before an invalidation of their month
+ * are not cached after it. Invalidations are remembered for the hard time to live only, events whose fetch started
+ * before a forgotten invalidation are not cached at all.
+ */
+@Slf4j
+@Component
+public class MonthEventsCache implements MeterBinder {
+
+    private final Map<TutorMonth, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // in the order of invalidation, re-inserted when a month is invalidated again
+    private final Map<TutorMonth, Invalidation> invalidations = new LinkedHashMap<>();
+    private long generation;
+    private long forgottenGeneration;
+    private final Duration softTtl;
+    private final Duration ttl;
+    private final long maxEvents;
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long weight;
+
+    @Autowired
+    public MonthEventsCache(@Value("${calendar.cache.soft-ttl:PT1M}") Duration softTtl,
+                            @Value("${calendar.cache.ttl:PT5M}") Duration ttl,
+                            @Value("${calendar.cache.max-events:100000}") long maxEvents) {
+        this(softTtl, ttl, maxEvents, Clock.systemUTC());
+    }
+
+    MonthEventsCache(Duration softTtl, Duration ttl, long maxEvents, Clock clock) {
+        this.softTtl = softTtl;
+        this.ttl = ttl;
+        this.maxEvents = maxEvents;
+        this.clock = clock;
+    }
+
+    /**
+     * @param key tutor and month
+     * @return cached events or null if the month is not cached or has expired
+     */
+    public List<CalendarEvent> get(TutorMonth key) {
+        CachedEvents cached = lookup(key);
+        return cached == null ? null : cached.events();
+    }
+
+    /**
+     * @param key tutor and month
+     * @return cached events and whether they are past the soft time to live,
+     * null if the month is not cached or is past the hard time to live
+     */
+    public synchronized CachedEvents lookup(TutorMonth key) {
+        Entry entry = entries.get(key);
+        long now = clock.millis();
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= now) {
+            remove(key);
+            misses.increment();
+            return null;
+        }
+        boolean stale = entry.staleAt <= now;
+        (stale ? staleHits : hits).increment();
+        return new CachedEvents(entry.events, stale);
+    }
+
+    /**
+     * Tells whether the month has to be loaded to be served from the cache, without counting as a request to it
+     *
+     * @param key tutor and month
+     * @return true if the month is cached with events fetched since start and has not expired,
+     * false if it is missing, expired or only restored from a snapshot
+     */
+    public synchronized boolean isLoaded(TutorMonth key) {
+        Entry entry = entries.get(key);
+        return entry != null && !entry.restored && entry.expiresAt > clock.millis();
+    }
+
+    /**
+     * @param key tutor and month
+     * @return generation to be read before the events of the month are fetched and passed to
+     * {@link #put(TutorMonth, List, long)}
+     */
+    public synchronized long generation(TutorMonth key) {
+        return generation;
+    }
+
+    /**
+     * Caches events unless the month has been invalidated since they started to be fetched, so that a fetch
+     * overtaken by a booking does not cache the events from before it
+     *
+     * @param key        tutor and month
+     * @param events     fetched events
+     * @param generation generation of the month read before the fetch started
+     * @return true if the events were cached
+     */
+    public synchronized boolean put(TutorMonth key, List<CalendarEvent> events, long generation) {
+        forgetInvalidations(clock.millis());
+        Invalidation invalidation = invalidations.get(key);
+        if (generation < forgottenGeneration || invalidation != null && invalidation.generation() > generation) {
+            return false;
+        }
+        put(key, events);
+        return true;
+    }
+
+    public synchronized void put(TutorMonth key, List<CalendarEvent> events) {
+        List<CalendarEvent> value = List.copyOf(events);
+        long now = clock.millis();
+        Entry previous = entries.put(key, new Entry(value, now, now + softTtl.toMillis(), now + ttl.toMillis(),
+                false));
+        if (previous != null) {
+            weight -= weigh(previous.events);
+        }
+        weight += weigh(value);
+        evictOverflow();
+    }
+
+    /**
+     * Caches events restored from a snapshot unless the month is already cached. The restored entry is stale
+     * right away, so that it is served only until it has been refreshed.
+     *
+     * @param key       tutor and month
+     * @param events    restored events
+     * @param fetchedAt time the events were fetched from Google Calendar
+     * @return true if the events were cached
+     */
+    public synchronized boolean restore(TutorMonth key, List<CalendarEvent> events, long fetchedAt) {
+        if (entries.containsKey(key)) {
+            return false;
+        }
+        List<CalendarEvent> value = List.copyOf(events);
+        long now = clock.millis();
+        entries.put(key, new Entry(value, fetchedAt, now, now + ttl.toMillis(), true));
+        weight += weigh(value);
+        evictOverflow();
+        return true;
+    }
+
+    /**
+     * @return the cached months with the time their events were fetched, expired entries included
+     */
+    public synchronized Map<TutorMonth, FetchedEvents> snapshot() {
+        Map<TutorMonth, FetchedEvents> copy = new LinkedHashMap<>(entries.size() * 2);
+        entries.forEach((key, entry) -> copy.put(key, new FetchedEvents(entry.events, entry.fetchedAt)));
+        return copy;
+    }
+
+    public synchronized void invalidate(TutorMonth key) {
+        remove(key);
+        long now = clock.millis();
+        forgetInvalidations(now);
+        invalidations.remove(key);
+        invalidations.put(key, new Invalidation(++generation, now));
+    }
+
+    synchronized int invalidations() {
+        return invalidations.size();
+    }
+
+    /**
+     * Drops the months touched by a freshly booked lesson so that the sold slot is never shown as available
+     */
+    @EventListener
+    public void onSessionBooked(SessionBookedEvent event) {
+        YearMonth first = YearMonth.from(event.start().atOffset(ZoneOffset.UTC));
+        YearMonth last = YearMonth.from(event.end().atOffset(ZoneOffset.UTC));
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            invalidate(new TutorMonth(event.tutorEmail(), month));
+        }
+        log.info("Invalidated cached events of tutor {} from {} to {}", event.tutorEmail(), first, last);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long weight() {
+        return weight;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("calendar.cache.requests", hits, LongAdder::doubleValue)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("calendar.cache.requests", staleHits, LongAdder::doubleValue)
+                .tag("result", "stale").register(registry);
+        FunctionCounter.builder("calendar.cache.requests", misses, LongAdder::doubleValue)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("calendar.cache.evictions", evictions, LongAdder::doubleValue).register(registry);
+        Gauge.builder("calendar.cache.size", this, MonthEventsCache::size).register(registry);
+        Gauge.builder("calendar.cache.events", this, MonthEventsCache::weight).register(registry);
+    }
+
+    private void forgetInvalidations(long now) {
+        Iterator<Invalidation> oldest = invalidations.values().iterator();
+        while (oldest.hasNext()) {
+            Invalidation invalidation = oldest.next();
+            if (invalidation.at() + ttl.toMillis() > now) {
+                return;
+            }
+            forgottenGeneration = invalidation.generation();
+            oldest.remove();
+        }
+    }
+
+    private void remove(TutorMonth key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            weight -= weigh(removed.events);
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (weight > maxEvents && eldest.hasNext()) {
+            weight -= weigh(eldest.next().events);
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static long weigh(List<CalendarEvent> events) {
+        return events.size() + 1L;
+    }
+
+    /**
+     * @param events cached events
+     * @param stale  true if the events are past the soft time to live and should be refreshed
+     */
+    public record CachedEvents(List<CalendarEvent> events, boolean stale) {
+    }
+
+    /**
+     * @param events    cached events
+     * @param fetchedAt time the events were fetched from Google Calendar
+     */
+    public record FetchedEvents(List<CalendarEvent> events, long fetchedAt) {
+    }
+
+    private record Invalidation(long generation, long at) {
+    }
+
+    private record Entry(List<CalendarEvent> events, long fetchedAt, long staleAt, long expiresAt,
+                         boolean restored) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.ieltswise.cache;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.CalendarEventsFetcher;
+import com.ieltswise.calendar.CalendarQuery.Priority;
+import com.ieltswise.exception.EventFetchingException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads the events of a tutor's month into {@link MonthEventsCache}, either right away for a cache miss or
+ * in the background for a stale entry.
+ * <p>
+ * Background refreshes run on a dedicated bounded executor. A month that is already waiting for or undergoing
+ * a refresh is not queued again, and a refresh that does not fit into the queue is dropped: the stale entry keeps
+ * being served and the next request after it will try again. Events of a month booked while it was being refreshed
+ * are not cached, the next request fetches them again.
+ */
+@Slf4j
+@Component
+public class MonthEventsRefresher implements MeterBinder {
+
+    private final CalendarEventsFetcher calendarEventsFetcher;
+    private final MonthEventsCache monthEventsCache;
+    private final ThreadPoolExecutor executor;
+    private final BlockingQueue<Runnable> queue;
+    private final Set<TutorMonth> pending = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private Timer latency;
+
+    @Autowired
+    public MonthEventsRefresher(CalendarEventsFetcher calendarEventsFetcher,
+                                MonthEventsCache monthEventsCache,
+                                @Value("${calendar.refresh.threads:2}") int threads,
+                                @Value("${calendar.refresh.queue-capacity:256}") int queueCapacity) {
+        this.calendarEventsFetcher = calendarEventsFetcher;
+        this.monthEventsCache = monthEventsCache;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES, queue,
+                runnable -> new Thread(runnable, "calendar-refresh-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Fetches the events of the month from Google Calendar and caches them
+     *
+     * @param key tutor and month
+     * @return events overlapping the month
+     * @throws EventFetchingException if the events could not be fetched
+     */
+    public List<CalendarEvent> load(TutorMonth key) throws EventFetchingException {
+        return load(key, Priority.INTERACTIVE);
+    }
+
+    /**
+     * @param key      tutor and month
+     * @param priority priority of the requests to Google Calendar
+     * @return events overlapping the month
+     * @throws EventFetchingException if the events could not be fetched
+     */
+    public List<CalendarEvent> load(TutorMonth key, Priority priority) throws EventFetchingException {
+        long generation = monthEventsCache.generation(key);
+        List<CalendarEvent> events = fetch(key, priority);
+        monthEventsCache.put(key, events, generation);
+        return events;
+    }
+
+    private List<CalendarEvent> fetch(TutorMonth key, Priority priority) throws EventFetchingException {
+        Instant startOfMonth = key.month().atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant endOfMonth = key.month().plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return calendarEventsFetcher.fetch(key.tutorId(), startOfMonth, endOfMonth, priority);
+    }
+
+    /**
+     * Schedules a background {@link #load(TutorMonth)} of the month unless one is already pending
+     *
+     * @param key tutor and month
+     */
+    public void refresh(TutorMonth key) {
+        if (!pending.add(key)) {
+            deduplicated.increment();
+            return;
+        }
+        try {
+            executor.execute(() -> runRefresh(key));
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            rejected.increment();
+            log.warn("Refresh queue is full, cached events of tutor {} for {} stay stale", key.tutorId(), key.month());
+        }
+    }
+
+    private void runRefresh(TutorMonth key) {
+        long start = System.nanoTime();
+        try {
+            long generation = monthEventsCache.generation(key);
+            List<CalendarEvent> events = fetch(key, Priority.BACKGROUND);
+            if (!monthEventsCache.put(key, events, generation)) {
+                invalidated.increment();
+                log.debug("Month {} of tutor {} was booked while being refreshed, its events are not cached",
+                        key.month(), key.tutorId());
+            }
+        } catch (EventFetchingException | RuntimeException e) {
+            failures.increment();
+            log.error("Failed to refresh cached events of tutor {} for {}", key.tutorId(), key.month(), e);
+        } finally {
+            pending.remove(key);
+            if (latency != null) {
+                latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        latency = Timer.builder("calendar.refresh.latency")
+                .description("Time taken by background refreshes of cached months")
+                .register(registry);
+        Gauge.builder("calendar.refresh.queue", queue, BlockingQueue::size)
+                .description("Refreshes waiting for a thread")
+                .register(registry);
+        Gauge.builder("calendar.refresh.pending", pending, Set::size)
+                .description("Months queued or being refreshed")
+                .register(registry);
+        FunctionCounter.builder("calendar.refresh.skipped", deduplicated, LongAdder::doubleValue)
+                .tag("reason", "pending").register(registry);
+        FunctionCounter.builder("calendar.refresh.skipped", rejected, LongAdder::doubleValue)
+                .tag("reason", "rejected").register(registry);
+        FunctionCounter.builder("calendar.refresh.skipped", invalidated, LongAdder::doubleValue)
+                .tag("reason", "invalidated").register(registry);
+        FunctionCounter.builder("calendar.refresh.failures", failures, LongAdder::doubleValue).register(registry);
+    }
+}
@@ -0,0 +1,266 @@
+package com.ieltswise.cache;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.event.SessionBookedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the busy intervals of the cached months in a local file, so that the cache is warm right after a restart.
+ * <p>
+ * The cache is written to {@code calendar.snapshot.file} every {@code calendar.snapshot.interval} and on shutdown.
+ * The file is read on the first cache miss after start and its months are handed to {@link MonthEventsCache} one
+ * at a time as they are requested, already stale, so that they are served at once and refreshed in the background.
+ * Months older than {@code calendar.snapshot.max-age} are not restored. An empty file name disables the snapshot.
+ * <p>
+ * Format, all numbers big-endian: magic {@code IWSE}, format version, time of writing, number of months, then for
+ * every month the tutor's email (modified UTF-8), year, month, time of fetching, number of intervals and the start
+ * and end of every interval in epoch milliseconds. Only busy intervals are kept, they are all availability needs.
+ * A file of another version is ignored.
+ */
+@Slf4j
+@Component
+public class MonthEventsSnapshotFile implements MeterBinder {
+
+    static final int MAGIC = 0x49575345;
+    static final int VERSION = 1;
+
+    private static final String CONFIRMED = "confirmed";
+
+    private final MonthEventsCache monthEventsCache;
+    private final Path file;
+    private final long maxAgeMillis;
+    private final Clock clock;
+
+    // guarded by this, null until the file has been read
+    private Map<TutorMonth, StoredMonth> unrestored;
+
+    private final LongAdder restored = new LongAdder();
+
+    @Autowired
+    public MonthEventsSnapshotFile(MonthEventsCache monthEventsCache,
+                                   @Value("${calendar.snapshot.file:}") String file,
+                                   @Value("${calendar.snapshot.max-age:PT24H}") Duration maxAge) {
+        this(monthEventsCache, file.isBlank() ? null : Path.of(file), maxAge, Clock.systemUTC());
+    }
+
+    MonthEventsSnapshotFile(MonthEventsCache monthEventsCache, Path file, Duration maxAge, Clock clock) {
+        this.monthEventsCache = monthEventsCache;
+        this.file = file;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Moves the month from the snapshot into {@link MonthEventsCache} as a stale entry
+     *
+     * @param key tutor and month
+     * @return restored events or null if the snapshot has no recent events of the month
+     */
+    public List<CalendarEvent> restore(TutorMonth key) {
+        if (file == null) {
+            return null;
+        }
+        StoredMonth stored;
+        synchronized (this) {
+            stored = loaded().remove(key);
+        }
+        if (stored == null || stored.fetchedAt < clock.millis() - maxAgeMillis) {
+            return null;
+        }
+        List<CalendarEvent> events = stored.toEvents();
+        if (monthEventsCache.restore(key, events, stored.fetchedAt)) {
+            restored.increment();
+        }
+        return events;
+    }
+
+    /**
+     * Drops the saved months touched by a freshly booked lesson, they do not have the lesson yet
+     */
+    @EventListener
+    public void onSessionBooked(SessionBookedEvent event) {
+        if (file == null) {
+            return;
+        }
+        YearMonth first = YearMonth.from(event.start().atOffset(ZoneOffset.UTC));
+        YearMonth last = YearMonth.from(event.end().atOffset(ZoneOffset.UTC));
+        synchronized (this) {
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                loaded().remove(new TutorMonth(event.tutorEmail(), month));
+            }
+        }
+    }
+
+    /**
+     * Writes the cached months, together with the ones read from the file and not restored yet, to a temporary
+     * file which then replaces the snapshot
+     */
+    @Scheduled(fixedDelayString = "${calendar.snapshot.interval:PT1M}")
+    @PreDestroy
+    public void write() {
+        if (file == null) {
+            return;
+        }
+        long oldest = clock.millis() - maxAgeMillis;
+        Map<TutorMonth, StoredMonth> months = new HashMap<>();
+        synchronized (this) {
+            loaded().forEach((key, stored) -> {
+                if (stored.fetchedAt >= oldest) {
+                    months.put(key, stored);
+                }
+            });
+        }
+        monthEventsCache.snapshot().forEach((key, cached) -> months.put(key, StoredMonth.of(cached)));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                writeTo(temporary, months);
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+            log.debug("Saved {} months of events to {}", months.size(), file);
+        } catch (IOException e) {
+            log.error("Failed to save cached events to {}", file, e);
+        }
+    }
+
+    // must be called while holding the lock
+    private Map<TutorMonth, StoredMonth> loaded() {
+        if (unrestored == null) {
+            unrestored = read();
+        }
+        return unrestored;
+    }
+
+    private Map<TutorMonth, StoredMonth> read() {
+        Map<TutorMonth, StoredMonth> months = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("{} is not a snapshot of cached events, ignoring it", file);
+                return months;
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                log.warn("Snapshot {} has format version {} instead of {}, ignoring it", file, version, VERSION);
+                return months;
+            }
+            long writtenAt = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String tutorId = in.readUTF();
+                YearMonth month = YearMonth.of(in.readInt(), in.readByte());
+                long fetchedAt = in.readLong();
+                long[] intervals = new long[in.readInt() * 2];
+                for (int j = 0; j < intervals.length; j++) {
+                    intervals[j] = in.readLong();
+                }
+                months.put(new TutorMonth(tutorId, month), new StoredMonth(fetchedAt, intervals));
+            }
+            log.info("Read {} months of events saved at {} from {}", count, Instant.ofEpochMilli(writtenAt), file);
+        } catch (NoSuchFileException e) {
+            log.info("No snapshot of cached events at {}, starting cold", file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read snapshot {}, starting cold", file, e);
+            months.clear();
+        }
+        return months;
+    }
+
+    private void writeTo(Path target, Map<TutorMonth, StoredMonth> months) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(clock.millis());
+            out.writeInt(months.size());
+            for (Map.Entry<TutorMonth, StoredMonth> month : months.entrySet()) {
+                out.writeUTF(month.getKey().tutorId());
+                out.writeInt(month.getKey().month().getYear());
+                out.writeByte(month.getKey().month().getMonthValue());
+                out.writeLong(month.getValue().fetchedAt);
+                long[] intervals = month.getValue().intervals;
+                out.writeInt(intervals.length / 2);
+                for (long bound : intervals) {
+                    out.writeLong(bound);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("calendar.snapshot.restored", restored, LongAdder::doubleValue)
+                .description("Months restored into the cache from the snapshot file")
+                .register(registry);
+        Gauge.builder("calendar.snapshot.unrestored", this, snapshot -> snapshot.unrestoredCount())
+                .description("Months read from the snapshot file and not requested yet")
+                .register(registry);
+    }
+
+    private synchronized int unrestoredCount() {
+        return unrestored == null ? 0 : unrestored.size();
+    }
+
+    /**
+     * @param fetchedAt time the events were fetched from Google Calendar
+     * @param intervals start and end of every busy interval one after another
+     */
+    private record StoredMonth(long fetchedAt, long[] intervals) {
+
+        static StoredMonth of(MonthEventsCache.FetchedEvents cached) {
+            long[] intervals = new long[cached.events().size() * 2];
+            int length = 0;
+            for (CalendarEvent event : cached.events()) {
+                if (!event.isCancelled()) {
+                    intervals[length++] = event.startMillis();
+                    intervals[length++] = event.endMillis();
+                }
+            }
+            return new StoredMonth(cached.fetchedAt(), length == intervals.length
+                    ? intervals : Arrays.copyOf(intervals, length));
+        }
+
+        List<CalendarEvent> toEvents() {
+            List<CalendarEvent> events = new ArrayList<>(intervals.length / 2);
+            for (int i = 0; i < intervals.length; i += 2) {
+                events.add(new CalendarEvent(null, CONFIRMED,
+                        Instant.ofEpochMilli(intervals[i]).atZone(ZoneOffset.UTC),
+                        Instant.ofEpochMilli(intervals[i + 1]).atZone(ZoneOffset.UTC)));
+            }
+            return events;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ieltswise.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collapses concurrent calls for the same key into one.
+ * <p>
+ * The first caller for a key runs the computation, the callers arriving while it is in flight wait for it and get
+ * the same result or the same exception. Nothing is kept once the computation is over, the next call for the key
+ * runs it again.
+ *
+ * @param <K> key of a computation
+ * @param <V> result of a computation
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    /**
+     * @param name value of the {@code name} tag of the metrics
+     */
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param key  key of the computation
+     * @param call computation to run if no call for the key is in flight
+     * @return result of the computation
+     * @throws Exception the exception thrown by the computation
+     */
+    public V execute(K key, Call<V> call) throws Exception {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            collapsed.increment();
+            return await(existing);
+        }
+        executed.increment();
+        try {
+            V value = call.call();
+            flight.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(CompletableFuture<V> flight) throws Exception {
+        try {
+            return flight.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (Exception) e.getCause();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("singleflight.calls", executed, LongAdder::sum)
+                .description("Calls that ran the computation")
+                .tags("name", name, "result", "executed")
+                .register(registry);
+        FunctionCounter.builder("singleflight.calls", collapsed, LongAdder::sum)
+                .description("Calls that waited for a computation already in flight")
+                .tags("name", name, "result", "collapsed")
+                .register(registry);
+        Gauge.builder("singleflight.in-flight", inFlight, Map::size)
+                .description("Computations in flight")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    public interface Call<V> {
+
+        V call() throws Exception;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ieltswise.cache;
+
+import java.time.YearMonth;
+
+/**
+ * Key of the per-tutor, per-month caches
+ *
+ * @param tutorId tutor's email
+ * @param month   year and month
+ */
+public record TutorMonth(String tutorId, YearMonth month) {
+
+    public static TutorMonth of(String tutorId, int year, int month) {
+        return new TutorMonth(tutorId, YearMonth.of(year, month));
+    }
+}
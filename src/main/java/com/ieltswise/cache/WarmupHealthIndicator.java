@@ -0,0 +1,39 @@
+package com.ieltswise.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the node as out of service until the first availability warm-up has done
+ * {@code availability.warmup.readiness-percent} of the tutor months. Included in the readiness group,
+ * it keeps the load balancer from routing users to a cold node; 0 turns the wait off.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final AvailabilityWarmer availabilityWarmer;
+    private final int readinessPercent;
+
+    @Autowired
+    public WarmupHealthIndicator(AvailabilityWarmer availabilityWarmer,
+                                 @Value("${availability.warmup.readiness-percent:0}") int readinessPercent) {
+        this.availabilityWarmer = availabilityWarmer;
+        this.readinessPercent = readinessPercent;
+    }
+
+    @Override
+    public Health health() {
+        int progress = availabilityWarmer.progress();
+        Health.Builder health = readinessPercent == 0 || availabilityWarmer.isCompleted()
+                || progress >= readinessPercent ? Health.up() : Health.outOfService();
+        return health
+                .withDetail("progress", progress)
+                .withDetail("warmed", availabilityWarmer.getWarmed())
+                .withDetail("failed", availabilityWarmer.getFailed())
+                .withDetail("total", availabilityWarmer.getTotal())
+                .build();
+    }
+}
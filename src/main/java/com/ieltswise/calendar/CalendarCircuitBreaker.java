@@ -0,0 +1,219 @@
+package com.ieltswise.calendar;
+
+import com.ieltswise.exception.CalendarResponseException;
+import com.ieltswise.exception.CalendarUnavailableException;
+import com.ieltswise.exception.EventFetchingException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker around the requests to Google Calendar.
+ * <p>
+ * The outcomes of the last {@code window-size} calls are kept. Once at least {@code minimum-calls} of them are
+ * recorded and the share of failed or of slow calls reaches its threshold, the breaker opens and rejects calls
+ * right away for {@code open-duration}. After that a few trial calls are let through: if all of them succeed in time
+ * the breaker closes, otherwise it opens again. Only server errors, rate limiting and I/O failures count as
+ * failures, other error statuses say nothing about the health of Google.
+ */
+@Slf4j
+@Component
+public class CalendarCircuitBreaker implements MeterBinder {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR = 500;
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final int slowCallRateThreshold;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final Clock clock;
+
+    // guarded by this
+    private State state = State.CLOSED;
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int recorded;
+    private int next;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSucceeded;
+
+    private final Map<State, LongAdder> transitions = new EnumMap<>(State.class);
+    private final LongAdder successful = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public CalendarCircuitBreaker(@Value("${calendar.breaker.window-size:20}") int windowSize,
+                                  @Value("${calendar.breaker.minimum-calls:10}") int minimumCalls,
+                                  @Value("${calendar.breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                                  @Value("${calendar.breaker.slow-call-duration:PT2S}") Duration slowCallDuration,
+                                  @Value("${calendar.breaker.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+                                  @Value("${calendar.breaker.open-duration:PT30S}") Duration openDuration,
+                                  @Value("${calendar.breaker.half-open-calls:3}") int halfOpenCalls) {
+        this(windowSize, minimumCalls, failureRateThreshold, slowCallDuration, slowCallRateThreshold, openDuration,
+                halfOpenCalls, Clock.systemUTC());
+    }
+
+    CalendarCircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, Duration slowCallDuration,
+                           int slowCallRateThreshold, Duration openDuration, int halfOpenCalls, Clock clock) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+        for (State value : State.values()) {
+            transitions.put(value, new LongAdder());
+        }
+    }
+
+    /**
+     * @param call request to Google Calendar
+     * @return result of the request
+     * @throws CalendarUnavailableException if the breaker is open
+     * @throws EventFetchingException       the exception thrown by the request
+     */
+    public <T> T execute(Call<T> call) throws EventFetchingException {
+        if (!tryAcquire()) {
+            rejected.increment();
+            throw new CalendarUnavailableException("Google Calendar is unavailable, try again later");
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            onResult(System.nanoTime() - start, false);
+            return result;
+        } catch (EventFetchingException e) {
+            onResult(System.nanoTime() - start, isFailure(e));
+            throw e;
+        } catch (RuntimeException e) {
+            onResult(System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.millis() - openedAt < openMillis) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    private synchronized void onResult(long nanos, boolean failure) {
+        (failure ? failedCalls : successful).increment();
+        boolean slowCall = nanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (failure || slowCall) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenSucceeded == halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(failure, slowCall);
+            if (recorded >= minimumCalls && (failures * 100 >= failureRateThreshold * recorded
+                    || slowCalls * 100 >= slowCallRateThreshold * recorded)) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    private void record(boolean failure, boolean slowCall) {
+        if (recorded == windowSize) {
+            failures -= failed[next] ? 1 : 0;
+            slowCalls -= slow[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[next] = failure;
+        slow[next] = slowCall;
+        failures += failure ? 1 : 0;
+        slowCalls += slowCall ? 1 : 0;
+        next = (next + 1) % windowSize;
+    }
+
+    private void transitionTo(State newState) {
+        log.warn("Google Calendar circuit breaker: {} -> {}", state, newState);
+        state = newState;
+        transitions.get(newState).increment();
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+        if (newState == State.OPEN) {
+            openedAt = clock.millis();
+        } else if (newState == State.HALF_OPEN) {
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSucceeded = 0;
+        }
+    }
+
+    private static boolean isFailure(EventFetchingException e) {
+        if (e instanceof CalendarResponseException response) {
+            return response.getStatusCode() >= SERVER_ERROR || response.getStatusCode() == TOO_MANY_REQUESTS;
+        }
+        return true;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("calendar.breaker.state", this, breaker -> breaker.getState().ordinal())
+                .description("0 closed, 1 open, 2 half open")
+                .register(registry);
+        for (Map.Entry<State, LongAdder> transition : transitions.entrySet()) {
+            FunctionCounter.builder("calendar.breaker.transitions", transition.getValue(), LongAdder::doubleValue)
+                    .tag("to", transition.getKey().name().toLowerCase())
+                    .register(registry);
+        }
+        FunctionCounter.builder("calendar.breaker.calls", successful, LongAdder::doubleValue)
+                .tag("result", "success").register(registry);
+        FunctionCounter.builder("calendar.breaker.calls", failedCalls, LongAdder::doubleValue)
+                .tag("result", "failure").register(registry);
+        FunctionCounter.builder("calendar.breaker.calls", rejected, LongAdder::doubleValue)
+                .tag("result", "rejected").register(registry);
+    }
+
+    @FunctionalInterface
+    public interface Call<T> {
+
+        T call() throws EventFetchingException;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ieltswise.calendar;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Compact representation of a Google Calendar event holding only the fields required to compute availability
+ *
+ * @param id               event identifier
+ * @param status           event status: confirmed, tentative or cancelled
+ * @param start            event start, may be absent for a cancelled event received during incremental sync
+ * @param end              event end, may be absent for a cancelled event received during incremental sync
+ * @param recurrence       recurrence of a recurring event, null for a single event
+ * @param recurringEventId identifier of the recurring event a moved or cancelled instance belongs to, null otherwise
+ * @param originalStart    start the moved or cancelled instance would have had, null otherwise
+ */
+public record CalendarEvent(String id, String status, ZonedDateTime start, ZonedDateTime end, Recurrence recurrence,
+                            String recurringEventId, ZonedDateTime originalStart) {
+
+    public static final String STATUS_CANCELLED = "cancelled";
+
+    public CalendarEvent(String id, String status, ZonedDateTime start, ZonedDateTime end) {
+        this(id, status, start, end, null, null, null);
+    }
+
+    public boolean isCancelled() {
+        return STATUS_CANCELLED.equals(status);
+    }
+
+    /**
+     * @return true if the event is not cancelled and overlaps the interval {@code [fromMillis, toMillis)}
+     */
+    public boolean isBusyBetween(long fromMillis, long toMillis) {
+        return !isCancelled() && startMillis() < toMillis && endMillis() > fromMillis;
+    }
+
+    public long startMillis() {
+        return start.toInstant().toEpochMilli();
+    }
+
+    public long endMillis() {
+        return end.toInstant().toEpochMilli();
+    }
+}
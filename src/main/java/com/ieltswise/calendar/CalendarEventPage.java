@@ -0,0 +1,13 @@
+package com.ieltswise.calendar;
+
+import java.util.List;
+
+/**
+ * One page of the Google Calendar events list response
+ *
+ * @param events        events of the page
+ * @param nextPageToken token of the next page, null on the last page
+ * @param nextSyncToken token for the next incremental sync, present only on the last page
+ */
+public record CalendarEventPage(List<CalendarEvent> events, String nextPageToken, String nextSyncToken) {
+}
@@ -0,0 +1,178 @@
+package com.ieltswise.calendar;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.format.DateTimeFormatter.ISO_DATE_TIME;
+
+/**
+ * Streaming reader of the Google Calendar events list response.
+ * <p>
+ * The response is consumed token by token straight from the input stream: only {@code id}, {@code status},
+ * {@code start}, {@code end}, the recurrence fields of every item and the paging tokens are kept, everything else
+ * is skipped without being materialised.
+ */
+public final class CalendarEventReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    private static final String ITEMS = "items";
+    private static final String NEXT_PAGE_TOKEN = "nextPageToken";
+    private static final String NEXT_SYNC_TOKEN = "nextSyncToken";
+    private static final String ID = "id";
+    private static final String STATUS = "status";
+    private static final String START = "start";
+    private static final String END = "end";
+    private static final String DATE_TIME = "dateTime";
+    private static final String DATE = "date";
+    private static final String TIME_ZONE = "timeZone";
+    private static final String RECURRENCE = "recurrence";
+    private static final String RECURRING_EVENT_ID = "recurringEventId";
+    private static final String ORIGINAL_START_TIME = "originalStartTime";
+
+    private CalendarEventReader() {
+    }
+
+    /**
+     * @param in events list response body, the stream is not closed
+     * @return events of the response in the order they were received together with the paging tokens
+     * @throws IOException if the response could not be read or is not a valid events list
+     */
+    public static CalendarEventPage read(InputStream in) throws IOException {
+        List<CalendarEvent> events = new ArrayList<>();
+        String nextPageToken = null;
+        String nextSyncToken = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (ITEMS.equals(field) && value == JsonToken.START_ARRAY) {
+                    readItems(parser, events);
+                } else if (NEXT_PAGE_TOKEN.equals(field)) {
+                    nextPageToken = parser.getText();
+                } else if (NEXT_SYNC_TOKEN.equals(field)) {
+                    nextSyncToken = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new CalendarEventPage(events, nextPageToken, nextSyncToken);
+    }
+
+    private static void readItems(JsonParser parser, List<CalendarEvent> events) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            CalendarEvent event = readItem(parser);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+    }
+
+    private static CalendarEvent readItem(JsonParser parser) throws IOException {
+        String id = null;
+        String status = null;
+        EventTime start = null;
+        EventTime end = null;
+        List<String> recurrence = null;
+        String recurringEventId = null;
+        EventTime originalStart = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (ID.equals(field)) {
+                id = parser.getText();
+            } else if (STATUS.equals(field)) {
+                status = parser.getText();
+            } else if (START.equals(field) && value == JsonToken.START_OBJECT) {
+                start = readDate(parser);
+            } else if (END.equals(field) && value == JsonToken.START_OBJECT) {
+                end = readDate(parser);
+            } else if (RECURRENCE.equals(field) && value == JsonToken.START_ARRAY) {
+                recurrence = readStrings(parser);
+            } else if (RECURRING_EVENT_ID.equals(field)) {
+                recurringEventId = parser.getText();
+            } else if (ORIGINAL_START_TIME.equals(field) && value == JsonToken.START_OBJECT) {
+                originalStart = readDate(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        ZonedDateTime startValue = start == null ? null : start.value();
+        CalendarEvent event = new CalendarEvent(id, status, startValue, end == null ? null : end.value(),
+                recurrence == null || startValue == null ? null : new Recurrence(recurrence, start.zone()),
+                recurringEventId, originalStart == null ? null : originalStart.value());
+        if (start != null && end != null || event.isCancelled() && id != null) {
+            return event;
+        }
+        return null;
+    }
+
+    private static List<String> readStrings(JsonParser parser) throws IOException {
+        List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                values.add(parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return values;
+    }
+
+    private static EventTime readDate(JsonParser parser) throws IOException {
+        String dateTime = null;
+        String date = null;
+        String timeZone = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (DATE_TIME.equals(field)) {
+                dateTime = parser.getText();
+            } else if (DATE.equals(field)) {
+                date = parser.getText();
+            } else if (TIME_ZONE.equals(field)) {
+                timeZone = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (dateTime != null) {
+            ZonedDateTime value = ZonedDateTime.parse(dateTime, ISO_DATE_TIME);
+            return new EventTime(value, timeZone == null ? value.getZone() : zone(timeZone, value.getZone()));
+        } else if (date != null) {
+            return new EventTime(LocalDate.parse(date).atStartOfDay(UTC), UTC);
+        }
+        return null;
+    }
+
+    private static ZoneId zone(String timeZone, ZoneId fallback) {
+        try {
+            return ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            return fallback;
+        }
+    }
+
+    private record EventTime(ZonedDateTime value, ZoneId zone) {
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, JsonParser parser) throws IOException {
+        if (actual != expected) {
+            throw new IOException(String.format("Unexpected token %s at %s, expected %s", actual,
+                    parser.currentLocation(), expected));
+        }
+    }
+}
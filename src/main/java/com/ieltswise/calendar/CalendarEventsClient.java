@@ -0,0 +1,95 @@
+package com.ieltswise.calendar;
+
+import com.ieltswise.exception.CalendarRateLimitException;
+import com.ieltswise.exception.CalendarResponseException;
+import com.ieltswise.exception.CalendarUnavailableException;
+import com.ieltswise.exception.EventFetchingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reads events of a tutor's calendar through the Google Calendar events list API
+ */
+@Slf4j
+@Component
+public class CalendarEventsClient {
+
+    private static final int MAX_RESULTS = 2500;
+
+    private final GoogleHttpClient googleHttpClient;
+    private final CalendarRateLimiter rateLimiter;
+    private final CalendarCircuitBreaker circuitBreaker;
+    private final String baseUrl;
+    private final String googleCredentialKey;
+
+    @Autowired
+    public CalendarEventsClient(GoogleHttpClient googleHttpClient,
+                                CalendarRateLimiter rateLimiter,
+                                CalendarCircuitBreaker circuitBreaker,
+                                @Value("${google.calendar.base-url:https://www.googleapis.com/calendar/v3/calendars/}")
+                                String baseUrl,
+                                @Value("${google.credentials.key}") String googleCredentialKey) {
+        this.googleHttpClient = googleHttpClient;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.baseUrl = baseUrl;
+        this.googleCredentialKey = googleCredentialKey;
+    }
+
+    /**
+     * @param query parameters of the request
+     * @return requested page of events
+     * @throws CalendarResponseException    if Google responded with an error status
+     * @throws CalendarRateLimitException   if no permit to call Google was available in time
+     * @throws CalendarUnavailableException if the circuit breaker is open
+     * @throws EventFetchingException       if the events could not be read
+     */
+    public CalendarEventPage fetchPage(CalendarQuery query) throws EventFetchingException {
+        rateLimiter.acquire(query);
+        return circuitBreaker.execute(() -> readPage(query));
+    }
+
+    private CalendarEventPage readPage(CalendarQuery query) throws EventFetchingException {
+        try (InputStream in = googleHttpClient.get(URI.create(createUrl(query)))) {
+            return CalendarEventReader.read(in);
+        } catch (EventFetchingException e) {
+            throw e;
+        } catch (IOException e) {
+            log.error("Failed to fetch events for tutor ID: {}", query.tutorId(), e);
+            throw new EventFetchingException(e.getMessage());
+        }
+    }
+
+    private String createUrl(CalendarQuery query) {
+        StringBuilder url = new StringBuilder(baseUrl).append(query.tutorId()).append("/events?key=")
+                .append(googleCredentialKey).append("&maxResults=").append(MAX_RESULTS);
+        appendTime(url, "timeMin", query.timeMin());
+        appendTime(url, "timeMax", query.timeMax());
+        appendParameter(url, "syncToken", query.syncToken());
+        appendParameter(url, "pageToken", query.pageToken());
+        return url.toString();
+    }
+
+    private void appendTime(StringBuilder url, String name, Instant value) {
+        if (value != null) {
+            appendParameter(url, name, DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value.atOffset(ZoneOffset.UTC)));
+        }
+    }
+
+    private void appendParameter(StringBuilder url, String name, String value) {
+        if (value != null) {
+            url.append('&').append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        }
+    }
+}
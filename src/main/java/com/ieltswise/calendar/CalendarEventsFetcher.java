@@ -0,0 +1,188 @@
+package com.ieltswise.calendar;
+
+import com.ieltswise.calendar.CalendarQuery.Priority;
+import com.ieltswise.exception.EventFetchingException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches all events of a tutor's calendar for an interval.
+ * <p>
+ * Every request follows {@code nextPageToken} until the last page. Intervals longer than a month are split at month
+ * boundaries into windows which are fetched concurrently, at most {@code calendar.fetch.per-tutor-concurrency}
+ * windows of the same tutor at a time, and merged back in order. The first window that fails cancels the others.
+ * Recurring events are expanded into their instances of the interval locally, see {@link RecurrenceExpander}.
+ */
+@Slf4j
+@Component
+public class CalendarEventsFetcher {
+
+    private final CalendarEventsClient calendarEventsClient;
+    private final int perTutorConcurrency;
+    private final ExecutorService executor;
+    private final Map<String, Semaphore> tutorPermits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CalendarEventsFetcher(CalendarEventsClient calendarEventsClient,
+                                 @Value("${calendar.fetch.threads:8}") int threads,
+                                 @Value("${calendar.fetch.per-tutor-concurrency:3}") int perTutorConcurrency) {
+        this.calendarEventsClient = calendarEventsClient;
+        this.perTutorConcurrency = perTutorConcurrency;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(threads * 16),
+                runnable -> new Thread(runnable, "calendar-fetch-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * @param tutorId tutor's email
+     * @param from    start of the interval
+     * @param to      end of the interval, null for no upper bound
+     * @return events overlapping the interval ordered by window, each event is returned once
+     * @throws EventFetchingException if any of the windows could not be fetched
+     */
+    public List<CalendarEvent> fetch(String tutorId, Instant from, Instant to) throws EventFetchingException {
+        return fetch(tutorId, from, to, Priority.INTERACTIVE);
+    }
+
+    /**
+     * @param tutorId  tutor's email
+     * @param from     start of the interval
+     * @param to       end of the interval, null for no upper bound
+     * @param priority priority of the requests to Google Calendar
+     * @return events overlapping the interval ordered by window, each event is returned once
+     * @throws EventFetchingException if any of the windows could not be fetched
+     */
+    public List<CalendarEvent> fetch(String tutorId, Instant from, Instant to, Priority priority)
+            throws EventFetchingException {
+        return RecurrenceExpander.expand(fetchWindows(tutorId, from, to, priority), from.toEpochMilli(),
+                to == null ? Long.MAX_VALUE : to.toEpochMilli());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<CalendarEvent> fetchWindows(String tutorId, Instant from, Instant to, Priority priority)
+            throws EventFetchingException {
+        List<CalendarQuery> windows = split(tutorId, from, to, priority);
+        if (windows.size() == 1) {
+            return fetchAllPages(windows.get(0));
+        }
+
+        Semaphore permits = tutorPermits.computeIfAbsent(tutorId, id -> new Semaphore(perTutorConcurrency));
+        CompletionService<List<CalendarEvent>> completion = new ExecutorCompletionService<>(executor);
+        List<Future<List<CalendarEvent>>> results = new ArrayList<>(windows.size());
+        AtomicBoolean failed = new AtomicBoolean();
+        try {
+            for (CalendarQuery window : windows) {
+                permits.acquire();
+                if (failed.get()) {
+                    permits.release();
+                    break;
+                }
+                try {
+                    results.add(completion.submit(() -> {
+                        try {
+                            return fetchAllPages(window);
+                        } catch (EventFetchingException | RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+            // waits in the order the windows complete, so that the first failure is seen right away
+            for (int completed = 0; completed < results.size(); completed++) {
+                completion.take().get();
+            }
+            return merge(results);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof EventFetchingException fetchingException) {
+                throw fetchingException;
+            }
+            throw new EventFetchingException(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EventFetchingException(String.format("Interrupted while fetching events for tutor ID: %s",
+                    tutorId));
+        } finally {
+            // the other windows are of no use once one has failed
+            results.forEach(result -> result.cancel(true));
+        }
+    }
+
+    private List<CalendarEvent> fetchAllPages(CalendarQuery query) throws EventFetchingException {
+        CalendarEventPage page = calendarEventsClient.fetchPage(query);
+        if (page.nextPageToken() == null) {
+            return page.events();
+        }
+        List<CalendarEvent> events = new ArrayList<>(page.events());
+        while (page.nextPageToken() != null) {
+            page = calendarEventsClient.fetchPage(query.withPageToken(page.nextPageToken()));
+            events.addAll(page.events());
+        }
+        return events;
+    }
+
+    private static List<CalendarEvent> merge(List<Future<List<CalendarEvent>>> results)
+            throws InterruptedException, ExecutionException {
+        Map<Object, CalendarEvent> events = new LinkedHashMap<>();
+        for (Future<List<CalendarEvent>> result : results) {
+            for (CalendarEvent event : result.get()) {
+                events.putIfAbsent(event.id() == null ? event : event.id(), event);
+            }
+        }
+        return new ArrayList<>(events.values());
+    }
+
+    private static List<CalendarQuery> split(String tutorId, Instant from, Instant to, Priority priority) {
+        List<CalendarQuery> windows = new ArrayList<>();
+        if (to == null) {
+            windows.add(CalendarQuery.between(tutorId, from, null).withPriority(priority));
+            return windows;
+        }
+        Instant windowStart = from;
+        while (windowStart.isBefore(to)) {
+            Instant nextMonth = YearMonth.from(windowStart.atOffset(ZoneOffset.UTC)).plusMonths(1).atDay(1)
+                    .atStartOfDay(ZoneOffset.UTC).toInstant();
+            Instant windowEnd = nextMonth.isBefore(to) ? nextMonth : to;
+            windows.add(CalendarQuery.between(tutorId, windowStart, windowEnd).withPriority(priority));
+            windowStart = windowEnd;
+        }
+        if (windows.isEmpty()) {
+            windows.add(CalendarQuery.between(tutorId, from, to).withPriority(priority));
+        }
+        return windows;
+    }
+}
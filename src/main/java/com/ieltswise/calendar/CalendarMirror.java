@@ -0,0 +1,177 @@
+package com.ieltswise.calendar;
+
+import com.ieltswise.calendar.CalendarQuery.Priority;
+import com.ieltswise.event.SessionBookedEvent;
+import com.ieltswise.exception.CalendarResponseException;
+import com.ieltswise.exception.EventFetchingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.HttpURLConnection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local mirror of the tutors' calendars kept up to date with Google Calendar incremental sync.
+ * <p>
+ * A tutor's calendar is downloaded in full on the first request, after that only the changes since the last sync
+ * are pulled using the sync token returned by Google. When Google invalidates the token (410 Gone) the calendar is
+ * downloaded in full again. Recurring events are kept as Google returns them, together with their moved and
+ * cancelled instances, and are expanded for every request.
+ */
+@Slf4j
+@Component
+public class CalendarMirror {
+
+    private final CalendarEventsClient calendarEventsClient;
+    private final boolean enabled;
+    private final Map<String, TutorCalendar> calendars = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CalendarMirror(CalendarEventsClient calendarEventsClient,
+                          @Value("${calendar.sync.enabled:false}") boolean enabled) {
+        this.calendarEventsClient = calendarEventsClient;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param tutorId tutor's email
+     * @param from    start of the interval, null for no lower bound
+     * @param to      end of the interval, null for no upper bound
+     * @return not cancelled events of the tutor overlapping the interval
+     * @throws EventFetchingException if the tutor's calendar has never been synced and the sync failed
+     */
+    public List<CalendarEvent> getEvents(String tutorId, Instant from, Instant to) throws EventFetchingException {
+        TutorCalendar calendar = calendars.computeIfAbsent(tutorId, TutorCalendar::new);
+        if (calendar.syncToken == null || calendar.dirty) {
+            sync(calendar, Priority.INTERACTIVE);
+        }
+        long fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        List<CalendarEvent> events = new ArrayList<>();
+        for (CalendarEvent event : RecurrenceExpander.expand(List.copyOf(calendar.events.values()), fromMillis,
+                toMillis)) {
+            if (event.isBusyBetween(fromMillis, toMillis)) {
+                events.add(event);
+            }
+        }
+        events.sort((first, second) -> Long.compare(first.startMillis(), second.startMillis()));
+        return events;
+    }
+
+    @Scheduled(fixedDelayString = "${calendar.sync.interval:PT1M}")
+    public void syncAll() {
+        if (!enabled) {
+            return;
+        }
+        for (TutorCalendar calendar : calendars.values()) {
+            try {
+                sync(calendar, Priority.BACKGROUND);
+            } catch (EventFetchingException e) {
+                log.error("Failed to sync calendar of tutor ID: {}", calendar.tutorId, e);
+            }
+        }
+    }
+
+    /**
+     * Makes the next request for the tutor's events pull the changes first so that a just booked lesson is visible
+     */
+    @EventListener
+    public void onSessionBooked(SessionBookedEvent event) {
+        TutorCalendar calendar = calendars.get(event.tutorEmail());
+        if (calendar != null) {
+            calendar.dirty = true;
+        }
+    }
+
+    private void sync(TutorCalendar calendar, Priority priority) throws EventFetchingException {
+        synchronized (calendar) {
+            // cleared before the fetch, a lesson booked while it runs makes the next request sync again
+            calendar.dirty = false;
+            try {
+                pullChanges(calendar, priority);
+            } catch (EventFetchingException | RuntimeException e) {
+                calendar.dirty = true;
+                throw e;
+            }
+        }
+    }
+
+    private void pullChanges(TutorCalendar calendar, Priority priority) throws EventFetchingException {
+        if (calendar.syncToken == null) {
+            fullSync(calendar, priority);
+            return;
+        }
+        try {
+            incrementalSync(calendar, priority);
+        } catch (CalendarResponseException e) {
+            if (e.getStatusCode() != HttpURLConnection.HTTP_GONE) {
+                throw e;
+            }
+            log.info("Sync token of tutor ID: {} has expired, downloading the calendar again", calendar.tutorId);
+            fullSync(calendar, priority);
+        }
+    }
+
+    private void fullSync(TutorCalendar calendar, Priority priority) throws EventFetchingException {
+        Map<String, CalendarEvent> events = new HashMap<>();
+        CalendarEventPage page = fetchAllPages(
+                CalendarQuery.between(calendar.tutorId, null, null).withPriority(priority), events);
+        // cancelled instances stay, they hide their occurrence of the recurring event
+        events.values().removeIf(event -> event.isCancelled() && event.recurringEventId() == null);
+        calendar.events = new ConcurrentHashMap<>(events);
+        calendar.syncToken = page.nextSyncToken();
+        log.info("Downloaded {} events of tutor ID: {}", events.size(), calendar.tutorId);
+    }
+
+    private void incrementalSync(TutorCalendar calendar, Priority priority) throws EventFetchingException {
+        Map<String, CalendarEvent> changes = new HashMap<>();
+        CalendarEventPage page = fetchAllPages(
+                CalendarQuery.sync(calendar.tutorId, calendar.syncToken).withPriority(priority), changes);
+        for (CalendarEvent change : changes.values()) {
+            if (change.isCancelled() && change.recurringEventId() == null) {
+                calendar.events.remove(change.id());
+                calendar.events.values().removeIf(event -> change.id().equals(event.recurringEventId()));
+            } else {
+                calendar.events.put(change.id(), change);
+            }
+        }
+        calendar.syncToken = page.nextSyncToken();
+        log.debug("Applied {} changes to the calendar of tutor ID: {}", changes.size(), calendar.tutorId);
+    }
+
+    private CalendarEventPage fetchAllPages(CalendarQuery query, Map<String, CalendarEvent> events)
+            throws EventFetchingException {
+        CalendarEventPage page = calendarEventsClient.fetchPage(query);
+        page.events().forEach(event -> events.put(event.id(), event));
+        while (page.nextPageToken() != null) {
+            page = calendarEventsClient.fetchPage(query.withPageToken(page.nextPageToken()));
+            page.events().forEach(event -> events.put(event.id(), event));
+        }
+        return page;
+    }
+
+    private static final class TutorCalendar {
+
+        private final String tutorId;
+        private volatile Map<String, CalendarEvent> events = new ConcurrentHashMap<>();
+        private volatile String syncToken;
+        private volatile boolean dirty;
+
+        private TutorCalendar(String tutorId) {
+            this.tutorId = tutorId;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ieltswise.calendar;
+
+import java.time.Instant;
+
+/**
+ * Parameters of a Google Calendar events list request
+ *
+ * @param tutorId   tutor's email which is also the identifier of the tutor's calendar
+ * @param timeMin   lower bound (exclusive) for an event's end time, may be null
+ * @param timeMax   upper bound (exclusive) for an event's start time, may be null
+ * @param syncToken token obtained from the last page of the previous sync, may be null
+ * @param pageToken token of the page to fetch, may be null
+ * @param priority  whether a user is waiting for the request
+ */
+public record CalendarQuery(String tutorId, Instant timeMin, Instant timeMax, String syncToken, String pageToken,
+                            Priority priority) {
+
+    public enum Priority {
+        /**
+         * A user is waiting for the response
+         */
+        INTERACTIVE,
+        /**
+         * Cache refreshes, index rebuilds and syncs which can wait or be retried later
+         */
+        BACKGROUND
+    }
+
+    public static CalendarQuery between(String tutorId, Instant timeMin, Instant timeMax) {
+        return new CalendarQuery(tutorId, timeMin, timeMax, null, null, Priority.INTERACTIVE);
+    }
+
+    public static CalendarQuery sync(String tutorId, String syncToken) {
+        return new CalendarQuery(tutorId, null, null, syncToken, null, Priority.INTERACTIVE);
+    }
+
+    public CalendarQuery withPageToken(String nextPageToken) {
+        return new CalendarQuery(tutorId, timeMin, timeMax, syncToken, nextPageToken, priority);
+    }
+
+    public CalendarQuery withPriority(Priority newPriority) {
+        return new CalendarQuery(tutorId, timeMin, timeMax, syncToken, pageToken, newPriority);
+    }
+}
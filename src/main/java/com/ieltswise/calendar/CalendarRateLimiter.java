@@ -0,0 +1,213 @@
+package com.ieltswise.calendar;
+
+import com.ieltswise.calendar.CalendarQuery.Priority;
+import com.ieltswise.exception.CalendarRateLimitException;
+import com.ieltswise.exception.EventFetchingException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the rate of the requests sent to Google Calendar, all of which share the quota of one API key.
+ * <p>
+ * Every request takes a permit from a global token bucket and from the bucket of its tutor, so a single tutor
+ * cannot use up the whole quota. Background requests must leave {@code interactive-reserve} global permits
+ * for the requests a user is waiting for. When no permit is available the caller waits for the next one, unless
+ * the wait would exceed {@code max-wait} ({@code background-max-wait} for background requests), in which case
+ * the request is rejected right away.
+ * <p>
+ * A range request for a tutor whose months are not cached sends one request per UTC month at once, so
+ * {@code tutor-burst} must cover {@code calendar.range.max-months} plus the month the time zone may add.
+ */
+@Component
+public class CalendarRateLimiter implements MeterBinder {
+
+    private static final int TUTOR_BUCKETS_CLEANUP_THRESHOLD = 4096;
+
+    private final double tutorPermitsPerSecond;
+    private final int tutorBurst;
+    private final int interactiveReserve;
+    private final long maxWaitMillis;
+    private final long backgroundMaxWaitMillis;
+    private final Clock clock;
+    private final TokenBucket globalBucket;
+    private final Map<String, TokenBucket> tutorBuckets = new ConcurrentHashMap<>();
+
+    private final Map<Priority, LongAdder> permits = new EnumMap<>(Priority.class);
+    private final Map<Priority, LongAdder> globalRejections = new EnumMap<>(Priority.class);
+    private final Map<Priority, LongAdder> tutorRejections = new EnumMap<>(Priority.class);
+    private final Map<Priority, Timer> waits = new EnumMap<>(Priority.class);
+
+    @Autowired
+    public CalendarRateLimiter(@Value("${calendar.rate-limit.permits-per-second:10}") double permitsPerSecond,
+                               @Value("${calendar.rate-limit.burst:20}") int burst,
+                               @Value("${calendar.rate-limit.tutor-permits-per-second:2}") double tutorPermitsPerSecond,
+                               @Value("${calendar.rate-limit.tutor-burst:16}") int tutorBurst,
+                               @Value("${calendar.rate-limit.interactive-reserve:5}") int interactiveReserve,
+                               @Value("${calendar.rate-limit.max-wait:PT1S}") Duration maxWait,
+                               @Value("${calendar.rate-limit.background-max-wait:PT10S}") Duration backgroundMaxWait) {
+        this(permitsPerSecond, burst, tutorPermitsPerSecond, tutorBurst, interactiveReserve, maxWait,
+                backgroundMaxWait, Clock.systemUTC());
+    }
+
+    CalendarRateLimiter(double permitsPerSecond, int burst, double tutorPermitsPerSecond, int tutorBurst,
+                        int interactiveReserve, Duration maxWait, Duration backgroundMaxWait, Clock clock) {
+        this.tutorPermitsPerSecond = tutorPermitsPerSecond;
+        this.tutorBurst = tutorBurst;
+        this.interactiveReserve = interactiveReserve;
+        this.maxWaitMillis = maxWait.toMillis();
+        this.backgroundMaxWaitMillis = backgroundMaxWait.toMillis();
+        this.clock = clock;
+        this.globalBucket = new TokenBucket(burst, permitsPerSecond, clock.millis());
+        for (Priority priority : Priority.values()) {
+            permits.put(priority, new LongAdder());
+            globalRejections.put(priority, new LongAdder());
+            tutorRejections.put(priority, new LongAdder());
+        }
+    }
+
+    /**
+     * Takes a permit for the request, waiting for it if necessary
+     *
+     * @param query request to Google Calendar
+     * @throws CalendarRateLimitException if no permit becomes available within the allowed wait
+     * @throws EventFetchingException     if the thread was interrupted while waiting
+     */
+    public void acquire(CalendarQuery query) throws EventFetchingException {
+        Priority priority = query.priority();
+        boolean interactive = priority == Priority.INTERACTIVE;
+        long maxWait = interactive ? maxWaitMillis : backgroundMaxWaitMillis;
+        long now = clock.millis();
+
+        TokenBucket tutorBucket = tutorBucket(query.tutorId(), now);
+        long tutorWait = tutorBucket.reserve(now, 0, maxWait);
+        if (tutorWait < 0) {
+            tutorRejections.get(priority).increment();
+            throw new CalendarRateLimitException(String.format(
+                    "Too many requests to Google Calendar for tutor ID: %s, try again later", query.tutorId()));
+        }
+        long globalWait = globalBucket.reserve(now, interactive ? 0 : interactiveReserve, maxWait);
+        if (globalWait < 0) {
+            tutorBucket.refund(now);
+            globalRejections.get(priority).increment();
+            throw new CalendarRateLimitException("Too many requests to Google Calendar, try again later");
+        }
+
+        long wait = Math.max(tutorWait, globalWait);
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EventFetchingException(String.format(
+                        "Interrupted while waiting for a Google Calendar permit for tutor ID: %s", query.tutorId()));
+            }
+        }
+        permits.get(priority).increment();
+        Timer timer = waits.get(priority);
+        if (timer != null) {
+            timer.record(wait, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private TokenBucket tutorBucket(String tutorId, long now) {
+        if (tutorBuckets.size() >= TUTOR_BUCKETS_CLEANUP_THRESHOLD) {
+            // a full bucket behaves exactly like a new one
+            tutorBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+        return tutorBuckets.computeIfAbsent(tutorId, id -> new TokenBucket(tutorBurst, tutorPermitsPerSecond, now));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("calendar.ratelimit.tokens", globalBucket, bucket -> bucket.available(clock.millis()))
+                .description("Permits left in the global bucket")
+                .register(registry);
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            FunctionCounter.builder("calendar.ratelimit.permits", permits.get(priority), LongAdder::doubleValue)
+                    .tag("priority", tag).register(registry);
+            FunctionCounter.builder("calendar.ratelimit.rejected", globalRejections.get(priority),
+                    LongAdder::doubleValue).tag("priority", tag).tag("bucket", "global").register(registry);
+            FunctionCounter.builder("calendar.ratelimit.rejected", tutorRejections.get(priority),
+                    LongAdder::doubleValue).tag("priority", tag).tag("bucket", "tutor").register(registry);
+            waits.put(priority, Timer.builder("calendar.ratelimit.wait")
+                    .description("Time spent waiting for a permit")
+                    .tag("priority", tag)
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Token bucket which hands out permits in advance: a caller that has to wait takes its permit right away,
+     * which makes the callers after it wait longer, so the permits are granted in the order of the requests
+     */
+    private static final class TokenBucket {
+
+        private final double capacity;
+        private final double permitsPerMilli;
+
+        // guarded by this
+        private double tokens;
+        private long updatedAt;
+
+        private TokenBucket(int capacity, double permitsPerSecond, long now) {
+            this.capacity = capacity;
+            this.permitsPerMilli = permitsPerSecond / 1000;
+            this.tokens = capacity;
+            this.updatedAt = now;
+        }
+
+        /**
+         * @param now     current time in milliseconds
+         * @param reserve permits which must be left in the bucket
+         * @param maxWait the longest acceptable wait in milliseconds
+         * @return milliseconds to wait before using the permit, -1 if the wait would be too long
+         */
+        synchronized long reserve(long now, int reserve, long maxWait) {
+            refill(now);
+            double missing = reserve + 1 - tokens;
+            long wait = missing <= 0 ? 0 : (long) Math.ceil(missing / permitsPerMilli);
+            if (wait > maxWait) {
+                return -1;
+            }
+            tokens--;
+            return wait;
+        }
+
+        synchronized void refund(long now) {
+            refill(now);
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        synchronized double available(long now) {
+            refill(now);
+            return tokens;
+        }
+
+        private void refill(long now) {
+            if (now > updatedAt) {
+                tokens = Math.min(capacity, tokens + (now - updatedAt) * permitsPerMilli);
+                updatedAt = now;
+            }
+        }
+    }
+}
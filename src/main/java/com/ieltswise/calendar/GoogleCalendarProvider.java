@@ -0,0 +1,136 @@
+package com.ieltswise.calendar;
+
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInstalledApp;
+import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
+import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
+import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.util.store.FileDataStoreFactory;
+import com.google.api.services.calendar.Calendar;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.List;
+
+import static com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets.load;
+import static com.google.api.client.googleapis.javanet.GoogleNetHttpTransport.newTrustedTransport;
+import static com.google.api.client.json.gson.GsonFactory.getDefaultInstance;
+import static com.google.api.services.calendar.CalendarScopes.CALENDAR;
+import static java.util.Collections.singletonList;
+
+/**
+ * Authorised Google Calendar client used to create the lessons' events.
+ * <p>
+ * The client, its HTTP transport and the OAuth credential are created on the first request and shared by all the
+ * following ones, the client is thread-safe. The access token is refreshed in the background shortly before it
+ * expires, so that a booking does not wait for the token endpoint.
+ */
+@Slf4j
+@Component
+public class GoogleCalendarProvider {
+
+    private static final JsonFactory JSON_FACTORY = getDefaultInstance();
+    private static final List<String> SCOPES = singletonList(CALENDAR);
+    private static final String TOKENS_DIRECTORY_PATH = "src/main/resources/tokens";
+    private static final String CREDENTIALS_FILE_PATH = "/credentials.json";
+    private static final String APPLICATION_NAME = "IELTSWise Google API";
+
+    private final CredentialLoader credentialLoader;
+    private final long refreshMarginSeconds;
+
+    private volatile Calendar calendar;
+    private volatile Credential credential;
+
+    @Autowired
+    public GoogleCalendarProvider(@Value("${google.calendar.token-refresh-margin:PT5M}") Duration refreshMargin) {
+        this(GoogleCalendarProvider::authorize, refreshMargin);
+    }
+
+    GoogleCalendarProvider(CredentialLoader credentialLoader, Duration refreshMargin) {
+        this.credentialLoader = credentialLoader;
+        this.refreshMarginSeconds = refreshMargin.toSeconds();
+    }
+
+    /**
+     * @return the shared client, created on the first call
+     * @throws IOException              if the credentials could not be read or authorised
+     * @throws GeneralSecurityException if the trusted HTTP transport could not be created
+     */
+    public Calendar get() throws IOException, GeneralSecurityException {
+        Calendar current = calendar;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (calendar == null) {
+                NetHttpTransport httpTransport = newTrustedTransport();
+                Credential authorised = credentialLoader.load(httpTransport);
+                calendar = new Calendar.Builder(httpTransport, JSON_FACTORY, authorised)
+                        .setApplicationName(APPLICATION_NAME)
+                        .build();
+                credential = authorised;
+                log.info("Google Calendar client created");
+            }
+            return calendar;
+        }
+    }
+
+    /**
+     * Refreshes the access token if it expires within {@code google.calendar.token-refresh-margin}
+     */
+    @Scheduled(fixedDelayString = "${google.calendar.token-refresh-interval:PT1M}")
+    public void refreshTokenIfExpiring() {
+        Credential current = credential;
+        if (current == null) {
+            return;
+        }
+        Long expiresInSeconds = current.getExpiresInSeconds();
+        if (expiresInSeconds != null && expiresInSeconds > refreshMarginSeconds) {
+            return;
+        }
+        try {
+            if (!current.refreshToken()) {
+                log.warn("Google Calendar access token was not refreshed");
+            }
+        } catch (IOException e) {
+            log.error("Failed to refresh Google Calendar access token", e);
+        }
+    }
+
+    private static Credential authorize(NetHttpTransport httpTransport) throws IOException {
+        final InputStream in = GoogleCalendarProvider.class.getResourceAsStream(CREDENTIALS_FILE_PATH);
+        if (in == null) {
+            String errorMessage = "Resource not found: " + CREDENTIALS_FILE_PATH;
+            log.error(errorMessage);
+            throw new FileNotFoundException(errorMessage);
+        }
+        final GoogleClientSecrets clientSecrets = load(JSON_FACTORY, new InputStreamReader(in));
+
+        final GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
+                httpTransport, JSON_FACTORY, clientSecrets, SCOPES)
+                .setDataStoreFactory(new FileDataStoreFactory(new File(TOKENS_DIRECTORY_PATH)))
+                .setAccessType("offline")
+                .setApprovalPrompt("force")
+                .build();
+        final LocalServerReceiver receiver = new LocalServerReceiver.Builder().setPort(8888).build();
+        return new AuthorizationCodeInstalledApp(flow, receiver).authorize("user");
+    }
+
+    @FunctionalInterface
+    interface CredentialLoader {
+
+        Credential load(NetHttpTransport httpTransport) throws IOException;
+    }
+}
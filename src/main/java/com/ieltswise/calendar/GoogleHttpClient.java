@@ -0,0 +1,148 @@
+package com.ieltswise.calendar;
+
+import com.ieltswise.exception.CalendarResponseException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Shared outbound HTTP client for the reads from Google APIs.
+ * <p>
+ * One {@link HttpClient} is kept for the whole application, so connections and TLS sessions are reused and
+ * requests are multiplexed over HTTP/2 where the server supports it. Responses are requested gzip compressed.
+ * The number of requests in flight to one host is bounded, a request waits for a free permit no longer than
+ * its read timeout.
+ */
+@Component
+public class GoogleHttpClient {
+
+    // Google only compresses the responses of the clients whose user agent contains "gzip"
+    private static final String USER_AGENT = "ieltswise (gzip)";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final int maxConnectionsPerHost;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GoogleHttpClient(@Value("${google.http.connect-timeout:PT5S}") Duration connectTimeout,
+                            @Value("${google.http.read-timeout:PT10S}") Duration readTimeout,
+                            @Value("${google.http.max-connections-per-host:16}") int maxConnectionsPerHost) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.readTimeout = readTimeout;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    /**
+     * Sends a GET request and returns the decoded body of a successful response. The caller must close the stream,
+     * closing it gives the host permit back.
+     *
+     * @param uri requested resource
+     * @return body of the response
+     * @throws CalendarResponseException if the server responded with a status other than 200
+     * @throws IOException               if the request failed, timed out or was interrupted
+     */
+    public InputStream get(URI uri) throws IOException, CalendarResponseException {
+        Semaphore permits = hostPermits.computeIfAbsent(uri.getHost(), host -> new Semaphore(maxConnectionsPerHost));
+        acquire(permits, uri);
+        boolean handedOver = false;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .GET()
+                    .timeout(readTimeout)
+                    .header("Accept-Encoding", "gzip")
+                    .header("User-Agent", USER_AGENT)
+                    .build();
+            HttpResponse<InputStream> response = send(request);
+            InputStream body = decode(response);
+            if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+                try (body) {
+                    throw new CalendarResponseException(response.statusCode(), readError(body));
+                }
+            }
+            handedOver = true;
+            return new PermitReleasingInputStream(body, permits);
+        } finally {
+            if (!handedOver) {
+                permits.release();
+            }
+        }
+    }
+
+    private void acquire(Semaphore permits, URI uri) throws IOException {
+        try {
+            if (!permits.tryAcquire(readTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new InterruptedIOException("Timed out waiting for a connection to " + uri.getHost());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection to " + uri.getHost());
+        }
+    }
+
+    private HttpResponse<InputStream> send(HttpRequest request) throws IOException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while requesting " + request.uri().getHost());
+        }
+    }
+
+    private static InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzip ? new GZIPInputStream(response.body()) : response.body();
+    }
+
+    private static String readError(InputStream body) throws IOException {
+        String error = new String(body.readNBytes(MAX_ERROR_LENGTH), StandardCharsets.UTF_8);
+        return error.isBlank() ? "no details" : error.strip();
+    }
+
+    private static final class PermitReleasingInputStream extends FilterInputStream {
+
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingInputStream(InputStream in, Semaphore permits) {
+            super(in);
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
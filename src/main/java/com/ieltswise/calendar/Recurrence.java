@@ -0,0 +1,13 @@
+package com.ieltswise.calendar;
+
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Recurrence of a recurring Google Calendar event
+ *
+ * @param rules {@code RRULE}, {@code EXDATE} and other lines of the event as RFC 5545 defines them
+ * @param zone  time zone the instances are generated in, so that they keep their local time across DST changes
+ */
+public record Recurrence(List<String> rules, ZoneId zone) {
+}
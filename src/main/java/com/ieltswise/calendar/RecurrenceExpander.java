@@ -0,0 +1,293 @@
+package com.ieltswise.calendar;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Expands recurring events into their instances locally.
+ * <p>
+ * Events are listed without {@code singleEvents}, so Google returns a recurring event once with its recurrence
+ * together with its moved and cancelled instances, instead of every instance of the interval. The instances are
+ * generated here from an {@code RRULE} with {@code FREQ} DAILY or WEEKLY and {@code INTERVAL}, {@code COUNT},
+ * {@code UNTIL} and {@code BYDAY}, leaving out the {@code EXDATE}s and the instances that were moved or cancelled.
+ * An event with any other recurrence is kept as a single event.
+ */
+@Slf4j
+public final class RecurrenceExpander {
+
+    private static final int MAX_INSTANCES = 1000;
+    private static final String RRULE = "RRULE:";
+    private static final String EXDATE = "EXDATE";
+    private static final DateTimeFormatter INSTANCE_ID = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter BASIC_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private RecurrenceExpander() {
+    }
+
+    /**
+     * @param events     events of a calendar as Google lists them
+     * @param fromMillis start of the interval
+     * @param toMillis   end of the interval
+     * @return single events as they are, moved instances and the instances of every recurring event that overlap
+     * the interval {@code [fromMillis, toMillis)}; the list itself if there is nothing to expand
+     */
+    public static List<CalendarEvent> expand(List<CalendarEvent> events, long fromMillis, long toMillis) {
+        Set<String> exceptions = null;
+        for (CalendarEvent event : events) {
+            if (event.recurringEventId() != null && event.originalStart() != null) {
+                if (exceptions == null) {
+                    exceptions = new HashSet<>();
+                }
+                exceptions.add(exceptionKey(event.recurringEventId(),
+                        event.originalStart().toInstant().toEpochMilli()));
+            } else if (event.recurrence() != null && exceptions == null) {
+                exceptions = new HashSet<>();
+            }
+        }
+        if (exceptions == null) {
+            return events;
+        }
+        List<CalendarEvent> expanded = new ArrayList<>(events.size());
+        for (CalendarEvent event : events) {
+            if (event.recurrence() != null) {
+                if (!event.isCancelled()) {
+                    expandInto(event, fromMillis, toMillis, exceptions, expanded);
+                }
+            } else if (event.recurringEventId() == null || !event.isCancelled()) {
+                expanded.add(event);
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * @param event      recurring event
+     * @param fromMillis start of the interval
+     * @param toMillis   end of the interval
+     * @return instances of the event overlapping the interval {@code [fromMillis, toMillis)}, at most
+     * {@value #MAX_INSTANCES}
+     */
+    public static List<CalendarEvent> instances(CalendarEvent event, long fromMillis, long toMillis) {
+        List<CalendarEvent> instances = new ArrayList<>();
+        expandInto(event, fromMillis, toMillis, Set.of(), instances);
+        return instances;
+    }
+
+    private static void expandInto(CalendarEvent master, long fromMillis, long toMillis, Set<String> exceptions,
+                                   List<CalendarEvent> instances) {
+        ZoneId zone = master.recurrence().zone() == null ? master.start().getZone() : master.recurrence().zone();
+        ZonedDateTime start = master.start().withZoneSameInstant(zone);
+        Rule rule = Rule.parse(master.recurrence().rules(), start);
+        if (rule == null) {
+            log.debug("Recurrence {} of event {} is not supported, keeping it as a single event",
+                    master.recurrence().rules(), master.id());
+            instances.add(master);
+            return;
+        }
+        Duration duration = Duration.between(master.start(), master.end());
+        LocalDate firstDate = start.toLocalDate();
+        LocalTime time = start.toLocalTime();
+        LocalDate periodStart = rule.weekly()
+                ? firstDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : firstDate;
+        int periodDays = rule.weekly() ? 7 * rule.interval() : rule.interval();
+
+        long period = 0;
+        if (rule.count() == null && fromMillis != Long.MIN_VALUE) {
+            // without COUNT nothing before the interval has to be generated, one extra period covers long events
+            long fromDay = Instant.ofEpochMilli(fromMillis).minus(duration).atZone(zone).toLocalDate().toEpochDay();
+            period = Math.max(0, (fromDay - periodStart.toEpochDay()) / periodDays - 1);
+        }
+        int generated = 0;
+        int added = 0;
+        for (; ; period++) {
+            LocalDate base = periodStart.plusDays(period * periodDays);
+            for (int offset = 0; offset < (rule.weekly() ? 7 : 1); offset++) {
+                LocalDate date = base.plusDays(offset);
+                if (date.isBefore(firstDate) || rule.days() != null && !rule.days().contains(date.getDayOfWeek())) {
+                    continue;
+                }
+                ZonedDateTime instanceStart = ZonedDateTime.of(date, time, zone);
+                long startMillis = instanceStart.toInstant().toEpochMilli();
+                if (rule.until() != null && startMillis > rule.until()
+                        || rule.count() != null && generated >= rule.count()
+                        || startMillis >= toMillis) {
+                    return;
+                }
+                generated++;
+                ZonedDateTime instanceEnd = instanceStart.plus(duration);
+                if (instanceEnd.toInstant().toEpochMilli() <= fromMillis || rule.exdates().contains(startMillis)
+                        || exceptions.contains(exceptionKey(master.id(), startMillis))) {
+                    continue;
+                }
+                instances.add(new CalendarEvent(master.id() + "_" + INSTANCE_ID.format(instanceStart),
+                        master.status(), instanceStart, instanceEnd));
+                if (++added >= MAX_INSTANCES) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static String exceptionKey(String recurringEventId, long originalStartMillis) {
+        return recurringEventId + '@' + originalStartMillis;
+    }
+
+    /**
+     * Supported part of a recurrence
+     *
+     * @param weekly   true for FREQ=WEEKLY, false for FREQ=DAILY
+     * @param interval number of days or weeks between the periods
+     * @param count    number of instances, null if not limited
+     * @param until    last possible start of an instance, null if not limited
+     * @param days     days of the week the instances fall on, null for every day of a daily rule
+     * @param exdates  starts of the excluded instances
+     */
+    private record Rule(boolean weekly, int interval, Integer count, Long until, Set<DayOfWeek> days,
+                        Set<Long> exdates) {
+
+        private static Rule parse(List<String> lines, ZonedDateTime start) {
+            String rrule = null;
+            Set<Long> exdates = new HashSet<>();
+            for (String line : lines) {
+                if (line.startsWith(RRULE) && rrule == null) {
+                    rrule = line.substring(RRULE.length());
+                } else if (line.startsWith(EXDATE)) {
+                    if (!parseExdate(line, start, exdates)) {
+                        return null;
+                    }
+                } else {
+                    return null;
+                }
+            }
+            return rrule == null ? null : parseRule(rrule, start, exdates);
+        }
+
+        private static Rule parseRule(String rrule, ZonedDateTime start, Set<Long> exdates) {
+            Boolean weekly = null;
+            int interval = 1;
+            Integer count = null;
+            Long until = null;
+            Set<DayOfWeek> days = null;
+            try {
+                for (String part : rrule.split(";")) {
+                    int separator = part.indexOf('=');
+                    String name = separator < 0 ? part : part.substring(0, separator);
+                    String value = separator < 0 ? "" : part.substring(separator + 1);
+                    switch (name) {
+                        case "FREQ" -> weekly = switch (value) {
+                            case "WEEKLY" -> true;
+                            case "DAILY" -> false;
+                            default -> null;
+                        };
+                        case "INTERVAL" -> interval = Integer.parseInt(value);
+                        case "COUNT" -> count = Integer.parseInt(value);
+                        case "UNTIL" -> until = parseUntil(value, start.getZone());
+                        case "BYDAY" -> days = parseDays(value);
+                        case "WKST" -> {
+                            if (!"MO".equals(value)) {
+                                return null;
+                            }
+                        }
+                        default -> {
+                            return null;
+                        }
+                    }
+                }
+            } catch (NumberFormatException | DateTimeException e) {
+                return null;
+            }
+            if (weekly == null || interval < 1 || days != null && days.isEmpty()) {
+                return null;
+            }
+            if (weekly && days == null) {
+                days = EnumSet.of(start.getDayOfWeek());
+            }
+            return new Rule(weekly, interval, count, until, days, exdates);
+        }
+
+        private static long parseUntil(String value, ZoneId zone) {
+            if (value.endsWith("Z")) {
+                return LocalDateTime.parse(value.substring(0, value.length() - 1), BASIC_DATE_TIME)
+                        .toInstant(ZoneOffset.UTC).toEpochMilli();
+            } else if (value.indexOf('T') > 0) {
+                return LocalDateTime.parse(value, BASIC_DATE_TIME).atZone(zone).toInstant().toEpochMilli();
+            }
+            // a date includes the whole day
+            return LocalDate.parse(value, DateTimeFormatter.BASIC_ISO_DATE).plusDays(1).atStartOfDay(zone)
+                    .toInstant().toEpochMilli() - 1;
+        }
+
+        private static Set<DayOfWeek> parseDays(String value) {
+            Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+            for (String day : value.split(",")) {
+                switch (day) {
+                    case "MO" -> days.add(DayOfWeek.MONDAY);
+                    case "TU" -> days.add(DayOfWeek.TUESDAY);
+                    case "WE" -> days.add(DayOfWeek.WEDNESDAY);
+                    case "TH" -> days.add(DayOfWeek.THURSDAY);
+                    case "FR" -> days.add(DayOfWeek.FRIDAY);
+                    case "SA" -> days.add(DayOfWeek.SATURDAY);
+                    case "SU" -> days.add(DayOfWeek.SUNDAY);
+                    // an ordinal such as 1MO only makes sense for monthly and yearly rules
+                    default -> {
+                        return Set.of();
+                    }
+                }
+            }
+            return days;
+        }
+
+        private static boolean parseExdate(String line, ZonedDateTime start, Set<Long> exdates) {
+            int separator = line.indexOf(':');
+            if (separator < 0) {
+                return false;
+            }
+            ZoneId zone = start.getZone();
+            for (String parameter : line.substring(0, separator).split(";")) {
+                if (parameter.startsWith("TZID=")) {
+                    try {
+                        zone = ZoneId.of(parameter.substring("TZID=".length()));
+                    } catch (DateTimeException e) {
+                        return false;
+                    }
+                }
+            }
+            try {
+                for (String value : line.substring(separator + 1).split(",")) {
+                    if (value.endsWith("Z")) {
+                        exdates.add(LocalDateTime.parse(value.substring(0, value.length() - 1), BASIC_DATE_TIME)
+                                .toInstant(ZoneOffset.UTC).toEpochMilli());
+                    } else if (value.indexOf('T') > 0) {
+                        exdates.add(LocalDateTime.parse(value, BASIC_DATE_TIME).atZone(zone).toInstant()
+                                .toEpochMilli());
+                    } else {
+                        exdates.add(ZonedDateTime.of(LocalDate.parse(value, DateTimeFormatter.BASIC_ISO_DATE),
+                                start.toLocalTime(), start.getZone()).toInstant().toEpochMilli());
+                    }
+                }
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ieltswise.calendar.standin;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Starts the Google Calendar stand-in inside the application for the {@code bench} profile,
+ * {@code google.calendar.base-url} of the profile points to it
+ */
+@Configuration
+@Profile("bench")
+public class StandInCalendarConfig {
+
+    @Bean(destroyMethod = "close")
+    public StandInCalendarServer standInCalendarServer(
+            @Value("${calendar.stand-in.port:8089}") int port,
+            @Value("${calendar.stand-in.latency:PT0S}") Duration latency,
+            @Value("${calendar.stand-in.latency-jitter:PT0S}") Duration latencyJitter,
+            @Value("${calendar.stand-in.error-rate:0}") double errorRate,
+            @Value("${calendar.stand-in.page-size:250}") int pageSize,
+            @Value("${calendar.stand-in.events-per-day:3}") int eventsPerDay,
+            @Value("${calendar.stand-in.seed:67}") long seed,
+            @Value("${calendar.stand-in.events-file:}") String eventsFile,
+            @Value("${calendar.stand-in.threads:32}") int threads) throws IOException {
+        StandInCalendarServer server = new StandInCalendarServer(port, new StandInCalendarServer.Settings(
+                latency, latencyJitter, errorRate, pageSize, eventsPerDay, seed,
+                eventsFile.isBlank() ? null : Path.of(eventsFile), threads));
+        server.start();
+        return server;
+    }
+}
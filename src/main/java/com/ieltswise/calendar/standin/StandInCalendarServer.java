@@ -0,0 +1,296 @@
+package com.ieltswise.calendar.standin;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.CalendarEventReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static com.ieltswise.availability.MonthAvailability.DAY_MILLIS;
+import static com.ieltswise.availability.MonthAvailability.HOUR_MILLIS;
+
+/**
+ * Stand-in for the Google Calendar events list API, used to load test the application without calling Google.
+ * <p>
+ * Serves {@code GET /calendar/v3/calendars/{calendarId}/events} with {@code timeMin}, {@code timeMax},
+ * {@code maxResults}, {@code pageToken} and {@code syncToken}. Events either come from a file in the format of
+ * the Google {@code items} array, the same for every calendar, or are generated: a fixed number of one hour events
+ * per day placed at random hours, reproducible for the same seed, calendar and day. Every response is delayed by
+ * the configured latency plus a random jitter and fails with 503 at the configured rate.
+ */
+@Slf4j
+public class StandInCalendarServer implements Closeable {
+
+    public static final String BASE_PATH = "/calendar/v3/calendars/";
+
+    private static final String EVENTS_PATH = "/events";
+    private static final String SYNC_TOKEN = "stand-in-sync";
+    private static final int GENERATED_DAYS_BACK = 30;
+    private static final int GENERATED_DAYS_AHEAD = 365;
+
+    private final Settings settings;
+    private final List<CalendarEvent> fileEvents;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * @param port     port to listen on, 0 for any free port
+     * @param settings behaviour of the server
+     * @throws IOException if the events file could not be read or the port could not be bound
+     */
+    public StandInCalendarServer(int port, Settings settings) throws IOException {
+        this.settings = settings;
+        this.fileEvents = settings.eventsFile() == null ? null : readEvents(settings.eventsFile());
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(settings.threads(),
+                runnable -> new Thread(runnable, "calendar-stand-in-" + threadNumber.incrementAndGet()));
+        server.setExecutor(executor);
+        server.createContext(BASE_PATH, this::handle);
+    }
+
+    public void start() {
+        server.start();
+        log.info("Calendar stand-in is listening on {}", baseUrl());
+    }
+
+    /**
+     * @return value for {@code google.calendar.base-url} that points to this server
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            delay();
+            String path = exchange.getRequestURI().getRawPath();
+            if (!"GET".equals(exchange.getRequestMethod()) || !path.endsWith(EVENTS_PATH)) {
+                respond(exchange, 404, error(404, "Not Found"));
+                return;
+            }
+            if (ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                respond(exchange, 503, error(503, "Backend Error"));
+                return;
+            }
+            String calendarId = URLDecoder.decode(
+                    path.substring(BASE_PATH.length(), path.length() - EVENTS_PATH.length()), StandardCharsets.UTF_8);
+            respond(exchange, 200, page(calendarId, parameters(exchange.getRequestURI().getRawQuery())));
+        } catch (RuntimeException e) {
+            log.error("Calendar stand-in failed to handle {}", exchange.getRequestURI(), e);
+        }
+    }
+
+    private byte[] page(String calendarId, Map<String, String> parameters) throws IOException {
+        List<CalendarEvent> events;
+        if (parameters.containsKey("syncToken")) {
+            events = Collections.emptyList();
+        } else {
+            long from = parameters.containsKey("timeMin") ? parseTime(parameters.get("timeMin")) : Long.MIN_VALUE;
+            long to = parameters.containsKey("timeMax") ? parseTime(parameters.get("timeMax")) : Long.MAX_VALUE;
+            events = events(calendarId, from, to);
+        }
+        int pageSize = Math.min(settings.pageSize(),
+                Integer.parseInt(parameters.getOrDefault("maxResults", String.valueOf(settings.pageSize()))));
+        int offset = Integer.parseInt(parameters.getOrDefault("pageToken", "0"));
+        int end = Math.min(events.size(), offset + pageSize);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (JsonGenerator json = jsonFactory.createGenerator(body)) {
+            json.writeStartObject();
+            json.writeStringField("kind", "calendar#events");
+            json.writeArrayFieldStart("items");
+            for (CalendarEvent event : events.subList(Math.min(offset, end), end)) {
+                json.writeStartObject();
+                json.writeStringField("id", event.id());
+                json.writeStringField("status", event.status());
+                writeTime(json, "start", event.start());
+                writeTime(json, "end", event.end());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            if (end < events.size()) {
+                json.writeStringField("nextPageToken", String.valueOf(end));
+            } else {
+                json.writeStringField("nextSyncToken", SYNC_TOKEN);
+            }
+            json.writeEndObject();
+        }
+        return body.toByteArray();
+    }
+
+    private List<CalendarEvent> events(String calendarId, long from, long to) {
+        List<CalendarEvent> events = new ArrayList<>();
+        if (fileEvents != null) {
+            for (CalendarEvent event : fileEvents) {
+                if (event.isBusyBetween(from, to)) {
+                    events.add(event);
+                }
+            }
+            return events;
+        }
+        long today = Math.floorDiv(System.currentTimeMillis(), DAY_MILLIS);
+        long firstDay = from == Long.MIN_VALUE ? today - GENERATED_DAYS_BACK : Math.floorDiv(from, DAY_MILLIS);
+        long lastDay = to == Long.MAX_VALUE ? firstDay + GENERATED_DAYS_AHEAD : Math.floorDiv(to - 1, DAY_MILLIS);
+        for (long day = firstDay; day <= lastDay; day++) {
+            for (CalendarEvent event : generate(calendarId, day)) {
+                if (event.isBusyBetween(from, to)) {
+                    events.add(event);
+                }
+            }
+        }
+        return events;
+    }
+
+    private List<CalendarEvent> generate(String calendarId, long epochDay) {
+        Random random = new Random(settings.seed() * 31 + calendarId.hashCode() * 17L + epochDay);
+        List<Integer> hours = new ArrayList<>(24);
+        for (int hour = 0; hour < 24; hour++) {
+            hours.add(hour);
+        }
+        Collections.shuffle(hours, random);
+        List<Integer> eventHours = new ArrayList<>(hours.subList(0, Math.min(24, settings.eventsPerDay())));
+        Collections.sort(eventHours);
+
+        List<CalendarEvent> events = new ArrayList<>(eventHours.size());
+        long dayStart = epochDay * DAY_MILLIS;
+        for (int hour : eventHours) {
+            long start = dayStart + hour * HOUR_MILLIS;
+            events.add(new CalendarEvent(LocalDate.ofEpochDay(epochDay) + "-" + hour, "confirmed",
+                    Instant.ofEpochMilli(start).atZone(ZoneOffset.UTC),
+                    Instant.ofEpochMilli(start + HOUR_MILLIS).atZone(ZoneOffset.UTC)));
+        }
+        return events;
+    }
+
+    private void delay() {
+        long millis = settings.latency().toMillis();
+        if (settings.latencyJitter().toMillis() > 0) {
+            millis += ThreadLocalRandom.current().nextLong(settings.latencyJitter().toMillis() + 1);
+        }
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(status, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                out.write(body);
+            }
+        } else {
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static byte[] error(int code, String message) {
+        return String.format("{\"error\": {\"code\": %d, \"message\": \"%s\"}}", code, message)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeTime(JsonGenerator json, String name, ZonedDateTime time) throws IOException {
+        json.writeObjectFieldStart(name);
+        json.writeStringField("dateTime", DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time));
+        json.writeEndObject();
+    }
+
+    private static long parseTime(String value) {
+        return ZonedDateTime.parse(value, DateTimeFormatter.ISO_DATE_TIME).toInstant().toEpochMilli();
+    }
+
+    private static Map<String, String> parameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static List<CalendarEvent> readEvents(Path file) throws IOException {
+        try (InputStream in = new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream("{\"items\": ".getBytes(StandardCharsets.UTF_8)),
+                Files.newInputStream(file),
+                new ByteArrayInputStream("}".getBytes(StandardCharsets.UTF_8)))))) {
+            List<CalendarEvent> events = new ArrayList<>(CalendarEventReader.read(in).events());
+            for (int i = 0; i < events.size(); i++) {
+                CalendarEvent event = events.get(i);
+                if (event.id() == null) {
+                    events.set(i, new CalendarEvent("file-" + i, event.status(), event.start(), event.end()));
+                }
+            }
+            events.sort((first, second) -> Long.compare(first.startMillis(), second.startMillis()));
+            return List.copyOf(events);
+        }
+    }
+
+    /**
+     * @param latency       fixed delay of every response
+     * @param latencyJitter upper bound of a random delay added to the fixed one
+     * @param errorRate     share of requests answered with 503, from 0 to 1
+     * @param pageSize      maximum number of events in a page
+     * @param eventsPerDay  number of generated one hour events per day
+     * @param seed          seed of the generated events
+     * @param eventsFile    file with the events to serve instead of generated ones, may be null
+     * @param threads       number of threads handling requests
+     */
+    public record Settings(Duration latency, Duration latencyJitter, double errorRate, int pageSize,
+                           int eventsPerDay, long seed, Path eventsFile, int threads) {
+    }
+}
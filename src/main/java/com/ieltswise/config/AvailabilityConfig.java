@@ -0,0 +1,18 @@
+package com.ieltswise.config;
+
+import com.ieltswise.cache.AvailabilityKey;
+import com.ieltswise.cache.SingleFlight;
+import com.ieltswise.dto.FreeAndBusyHoursOfTheDay;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class AvailabilityConfig {
+
+    @Bean
+    public SingleFlight<AvailabilityKey, List<FreeAndBusyHoursOfTheDay>> monthAvailabilityFlight() {
+        return new SingleFlight<>("availability.month");
+    }
+}
@@ -0,0 +1,24 @@
+package com.ieltswise.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ieltswise.idempotency.IdempotencyFilter;
+import com.ieltswise.idempotency.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+            @Value("${idempotency.paths:/student/bookTrialSession,/student/bookRegularSession,"
+                    + "/student/bookRegularSessions,/student/bookRecurringSession}") String[] paths) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyStore, objectMapper));
+        registration.addUrlPatterns(paths);
+        return registration;
+    }
+}
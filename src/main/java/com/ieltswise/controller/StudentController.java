@@ -1,8 +1,13 @@
 package com.ieltswise.controller;
 
+import com.ieltswise.controller.request.BatchSessionDataRequest;
+import com.ieltswise.controller.request.RecurringSessionDataRequest;
 import com.ieltswise.controller.request.RegularSessionDataRequest;
 import com.ieltswise.controller.request.SessionDataRequest;
+import com.ieltswise.controller.request.SlotHoldRequest;
 import com.ieltswise.controller.response.SessionDataResponse;
+import com.ieltswise.controller.response.SlotHoldResponse;
+import com.ieltswise.exception.BookingNotFoundException;
 import com.ieltswise.exception.EmailNotFoundException;
 import com.ieltswise.service.BookingService;
 import com.ieltswise.service.PayPalPaymentService;
@@ -13,6 +18,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,7 +26,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.ACCEPTED;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @RestController
@@ -44,7 +54,7 @@ public class StudentController {
     @PostMapping(value = "/bookTrialSession", consumes = {APPLICATION_JSON_VALUE})
     public ResponseEntity<SessionDataResponse> bookTrialSession(@RequestBody @Valid SessionDataRequest sessionData)
             throws Exception {
-        return ResponseEntity.ok(calendarMailService.bookTrialSession(sessionData));
+        return ResponseEntity.status(ACCEPTED).body(calendarMailService.bookTrialSession(sessionData));
     }
 
     @CrossOrigin(origins = "*")
@@ -55,12 +65,49 @@ public class StudentController {
         final Payment payment = payPalService.executePayment(regularSessionDataRequest.getPaymentId(),
                 regularSessionDataRequest.getPayerID(), tutorEmail);
         if (payment.getState().equals("approved")) {
-            return ResponseEntity.ok(calendarMailService.bookRegularSession(regularSessionDataRequest));
+            return ResponseEntity.status(ACCEPTED)
+                    .body(calendarMailService.bookRegularSession(regularSessionDataRequest));
         } else {
             return ResponseEntity.status(BAD_REQUEST).build();
         }
     }
 
+    @CrossOrigin(origins = "*")
+    @PostMapping(value = "/bookRegularSessions", consumes = {APPLICATION_JSON_VALUE})
+    public ResponseEntity<List<SessionDataResponse>> bookRegularSessions(
+            @RequestBody @Valid BatchSessionDataRequest batchSessionDataRequest) throws Exception {
+        return ResponseEntity.status(ACCEPTED).body(calendarMailService.bookRegularSessions(batchSessionDataRequest));
+    }
+
+    @CrossOrigin(origins = "*")
+    @PostMapping(value = "/bookRecurringSession", consumes = {APPLICATION_JSON_VALUE})
+    public ResponseEntity<SessionDataResponse> bookRecurringSession(
+            @RequestBody @Valid RecurringSessionDataRequest recurringSessionDataRequest) throws Exception {
+        return ResponseEntity.status(ACCEPTED)
+                .body(calendarMailService.bookRecurringSession(recurringSessionDataRequest));
+    }
+
+    @CrossOrigin(origins = "*")
+    @PostMapping(value = "/holdSlot", consumes = {APPLICATION_JSON_VALUE})
+    public ResponseEntity<SlotHoldResponse> holdSlot(@RequestBody @Valid SlotHoldRequest slotHoldRequest)
+            throws Exception {
+        return ResponseEntity.status(CREATED).body(calendarMailService.holdSlot(slotHoldRequest));
+    }
+
+    @CrossOrigin(origins = "*")
+    @DeleteMapping("/holdSlot/{holdId}")
+    public ResponseEntity<Void> releaseSlot(@PathVariable String holdId) {
+        calendarMailService.releaseSlot(holdId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @CrossOrigin(origins = "*")
+    @GetMapping("/booking/{bookingId}")
+    public ResponseEntity<SessionDataResponse> getBooking(@PathVariable Long bookingId)
+            throws BookingNotFoundException {
+        return ResponseEntity.ok(calendarMailService.getBooking(bookingId));
+    }
+
     @GetMapping("/lessonCount/{email}")
     public ResponseEntity<String> getUserLessonCount(@PathVariable("email") String email)
             throws EmailNotFoundException {
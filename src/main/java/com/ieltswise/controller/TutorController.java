@@ -4,7 +4,9 @@ import com.ieltswise.controller.request.PaymentCredentialsRequest;
 import com.ieltswise.controller.request.ScheduleUpdateRequest;
 import com.ieltswise.controller.request.TutorCreateRequest;
 import com.ieltswise.controller.response.Event;
+import com.ieltswise.dto.AvailableSlot;
 import com.ieltswise.dto.FreeAndBusyHoursOfTheDay;
+import com.ieltswise.dto.FreeAndBusyHoursOfTheMonth;
 import com.ieltswise.entity.PaymentCredentials;
 import com.ieltswise.entity.Schedule;
 import com.ieltswise.entity.TutorInfo;
@@ -17,6 +19,8 @@ import com.ieltswise.service.ScheduleService;
 import com.ieltswise.service.TutorInfoService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -26,8 +30,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.List;
 
 import static java.time.ZonedDateTime.now;
@@ -36,6 +46,8 @@ import static java.time.ZonedDateTime.now;
 @RequestMapping("/tutor")
 public class TutorController {
 
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
     private final GoogleEventsService googleEventsService;
     private final TutorInfoService tutorInfoService;
     private final ScheduleService scheduleService;
@@ -65,9 +77,48 @@ public class TutorController {
     @GetMapping("/events/{tutorId}/{year}/{month}")
     public ResponseEntity<List<FreeAndBusyHoursOfTheDay>> getEventsByYearAndMonth(@PathVariable String tutorId,
                                                                                   @PathVariable int year,
-                                                                                  @PathVariable int month)
+                                                                                  @PathVariable int month,
+                                                                                  @RequestParam(value = "zone",
+                                                                                          defaultValue = "UTC")
+                                                                                  String zone)
+            throws EmailNotFoundException, EventFetchingException {
+        List<FreeAndBusyHoursOfTheDay> days = googleEventsService.getEventsByYearAndMonth(tutorId, year, month,
+                parseZone(zone));
+        if (!days.isEmpty() && Boolean.TRUE.equals(days.get(0).getStale())) {
+            return ResponseEntity.ok().header(HttpHeaders.WARNING, STALE_WARNING).body(days);
+        }
+        return ResponseEntity.ok(days);
+    }
+
+    @CrossOrigin(origins = "*")
+    @GetMapping("/events/{tutorId}/range")
+    public ResponseEntity<List<FreeAndBusyHoursOfTheMonth>> getEventsByYearMonthRange(
+            @PathVariable String tutorId,
+            @RequestParam("from") YearMonth from,
+            @RequestParam("to") YearMonth to,
+            @RequestParam(value = "zone", defaultValue = "UTC") String zone)
+            throws EmailNotFoundException, EventFetchingException {
+        return ResponseEntity.ok(googleEventsService.getEventsByYearMonthRange(tutorId, from, to, parseZone(zone)));
+    }
+
+    @CrossOrigin(origins = "*")
+    @GetMapping("/events/{tutorId}/next")
+    public ResponseEntity<List<AvailableSlot>> getNextAvailableSlots(
+            @PathVariable String tutorId,
+            @RequestParam(value = "after", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime after,
+            @RequestParam(value = "count", defaultValue = "5") int count)
             throws EmailNotFoundException, EventFetchingException {
-        return ResponseEntity.ok(googleEventsService.getEventsByYearAndMonth(tutorId, year, month));
+        Instant from = after == null ? Instant.now() : after.toInstant();
+        return ResponseEntity.ok(googleEventsService.getNextAvailableSlots(tutorId, from, count));
+    }
+
+    @CrossOrigin(origins = "*")
+    @GetMapping("/free")
+    public ResponseEntity<List<String>> getFreeTutors(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to) {
+        return ResponseEntity.ok(googleEventsService.getFreeTutors(from, to));
     }
 
     @PostMapping()
@@ -97,4 +148,12 @@ public class TutorController {
         PaymentCredentials paymentCredentials = paymentCredentialService.updatePaymentInfo(paymentCredentialsRequest);
         return ResponseEntity.ok(paymentCredentials);
     }
+
+    private static ZoneId parseZone(String zone) {
+        try {
+            return ZoneId.of(zone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException(String.format("Unknown time zone: %s", zone), e);
+        }
+    }
 }
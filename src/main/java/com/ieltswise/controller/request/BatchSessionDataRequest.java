@@ -0,0 +1,39 @@
+package com.ieltswise.controller.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSessionDataRequest {
+
+    @Email(message = "should be valid")
+    @NotEmpty(message = "should not be empty")
+    @NotNull(message = "is required")
+    private String tutorEmail;
+
+    @Email(message = "should be valid")
+    @NotEmpty(message = "should not be empty")
+    @NotNull(message = "is required")
+    private String studentEmail;
+
+    @NotEmpty(message = "should not be empty")
+    @NotNull(message = "is required")
+    private String requestedService;
+
+    @Valid
+    @NotNull(message = "is required")
+    @Size(min = 1, max = 50, message = "must contain from 1 to 50 sessions")
+    private List<SessionSlotRequest> sessions;
+}
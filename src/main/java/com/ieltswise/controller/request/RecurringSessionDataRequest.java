@@ -0,0 +1,32 @@
+package com.ieltswise.controller.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+@Getter
+@Setter
+public class RecurringSessionDataRequest extends SessionDataRequest {
+
+    @NotNull(message = "is required")
+    @Pattern(regexp = "DAILY|WEEKLY", message = "must be DAILY or WEEKLY")
+    private String frequency;
+
+    @Min(value = 1, message = "must be from 1 to 4")
+    @Max(value = 4, message = "must be from 1 to 4")
+    private Integer interval;
+
+    @Min(value = 1, message = "must be from 1 to 52")
+    @Max(value = 52, message = "must be from 1 to 52")
+    private Integer count;
+
+    private String until;
+
+    private Set<DayOfWeek> byDay;
+}
@@ -0,0 +1,23 @@
+package com.ieltswise.controller.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionSlotRequest {
+
+    @NotEmpty(message = "should not be empty")
+    @NotNull(message = "is required")
+    private String startDate;
+
+    @NotEmpty(message = "should not be empty")
+    @NotNull(message = "is required")
+    private String endDate;
+}
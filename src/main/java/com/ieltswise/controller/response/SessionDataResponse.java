@@ -1,5 +1,6 @@
 package com.ieltswise.controller.response;
 
+import com.ieltswise.enums.BookingStatus;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -10,6 +11,12 @@ import lombok.Getter;
 @Getter
 public class SessionDataResponse {
 
+    private Long bookingId;
+
+    private BookingStatus status;
+
+    private Integer lessons;
+
     @Email(message = "should be valid")
     @NotEmpty(message = "should not be empty")
     @NotNull(message = "is required")
@@ -0,0 +1,19 @@
+package com.ieltswise.controller.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Builder
+@Getter
+public class SlotHoldResponse {
+
+    private String holdId;
+
+    private String tutorEmail;
+
+    private String startDate;
+
+    private String endDate;
+
+    private Long expiresAt;
+}
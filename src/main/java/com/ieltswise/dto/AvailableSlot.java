@@ -0,0 +1,16 @@
+package com.ieltswise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableSlot {
+
+    private Long start;
+    private Long end;
+}
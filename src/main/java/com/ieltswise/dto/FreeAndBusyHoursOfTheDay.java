@@ -1,5 +1,6 @@
 package com.ieltswise.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,4 +17,6 @@ public class FreeAndBusyHoursOfTheDay {
 
     private Long date;
     private List<Map<String, Object>> time;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean stale;
 }
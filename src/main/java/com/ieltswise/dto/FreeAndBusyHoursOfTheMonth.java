@@ -0,0 +1,19 @@
+package com.ieltswise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeAndBusyHoursOfTheMonth {
+
+    private Integer year;
+    private Integer month;
+    private List<FreeAndBusyHoursOfTheDay> days;
+}
@@ -0,0 +1,58 @@
+package com.ieltswise.entity;
+
+import com.ieltswise.enums.BookingStatus;
+import com.ieltswise.enums.BookingType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "BOOKING")
+public class Booking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID", unique = true)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TYPE", nullable = false)
+    private BookingType type;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false)
+    private BookingStatus status;
+    @Column(name = "TUTOR_EMAIL", nullable = false)
+    private String tutorEmail;
+    @Column(name = "STUDENT_EMAIL", nullable = false)
+    private String studentEmail;
+    @Column(name = "STUDENT_NAME", nullable = false)
+    private String studentName;
+    @Column(name = "REQUESTED_SERVICE", nullable = false)
+    private String requestedService;
+    @Column(name = "START_DATE", nullable = false)
+    private String startDate;
+    @Column(name = "END_DATE", nullable = false)
+    private String endDate;
+    @Column(name = "RECURRENCE", length = 500)
+    private String recurrence;
+    @Column(name = "LESSONS", nullable = false)
+    private Integer lessons;
+    @Column(name = "EVENT_LINK", length = 1000)
+    private String eventLink;
+    @Column(name = "FAILURE", length = 1000)
+    private String failure;
+    @Column(nullable = false)
+    private Long created;
+}
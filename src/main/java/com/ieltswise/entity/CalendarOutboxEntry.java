@@ -0,0 +1,40 @@
+package com.ieltswise.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Calendar event of a booking waiting to be created in Google Calendar.
+ * The row is saved in the same transaction as the booking and deleted once the event exists.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "CALENDAR_OUTBOX")
+public class CalendarOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID", unique = true)
+    private Long id;
+    @Column(name = "BOOKING_ID", unique = true, nullable = false)
+    private Long bookingId;
+    @Column(name = "EVENT_ID", unique = true, nullable = false)
+    private String eventId;
+    @Column(name = "ATTEMPTS", nullable = false)
+    private int attempts;
+    @Column(name = "NEXT_ATTEMPT_AT", nullable = false)
+    private Long nextAttemptAt;
+    @Column(name = "LAST_ERROR", length = 1000)
+    private String lastError;
+}
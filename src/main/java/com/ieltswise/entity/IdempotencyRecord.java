@@ -0,0 +1,57 @@
+package com.ieltswise.entity;
+
+import com.ieltswise.enums.IdempotencyStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request received with an {@code Idempotency-Key} header and, once it is completed, its response.
+ * The key is unique per endpoint, a request repeated with the same key gets the stored response until the record
+ * expires.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "IDEMPOTENCY_RECORD",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"IDEMPOTENCY_KEY", "REQUEST_PATH"}))
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID", unique = true)
+    private Long id;
+    @Column(name = "IDEMPOTENCY_KEY", nullable = false)
+    private String idempotencyKey;
+    @Column(name = "REQUEST_PATH", nullable = false)
+    private String requestPath;
+    @Column(name = "REQUEST_HASH", nullable = false, length = 64)
+    private String requestHash;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false)
+    private IdempotencyStatus status;
+    @Column(name = "RESPONSE_STATUS")
+    private Integer responseStatus;
+    @Column(name = "RESPONSE_CONTENT_TYPE")
+    private String responseContentType;
+    @Lob
+    @Column(name = "RESPONSE_BODY")
+    private byte[] responseBody;
+    @Column(name = "LOCKED_UNTIL", nullable = false)
+    private Long lockedUntil;
+    @Column(name = "EXPIRES_AT", nullable = false)
+    private Long expiresAt;
+}
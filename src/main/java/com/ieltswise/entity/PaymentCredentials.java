@@ -30,8 +30,6 @@ public class PaymentCredentials {
     private String clientId;
     @Column(name = "CLIENT_SECRET", unique = true, nullable = false)
     private String clientSecret;
-    @Column(name = "PAYMENT_ID", unique = true)
-    private String paymentId;
     @OneToOne
     @JoinColumn(name = "TUTOR_ID")
     @JsonBackReference
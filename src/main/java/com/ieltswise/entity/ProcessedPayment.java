@@ -0,0 +1,35 @@
+package com.ieltswise.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * PayPal payment that has been executed, or is being executed, and must not be executed again
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "PROCESSED_PAYMENT")
+public class ProcessedPayment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID", unique = true)
+    private Long id;
+    @Column(name = "PAYMENT_ID", unique = true, nullable = false)
+    private String paymentId;
+    @Column(name = "TUTOR_EMAIL", nullable = false)
+    private String tutorEmail;
+    @Column(name = "PROCESSED_AT", nullable = false)
+    private Long processedAt;
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -35,4 +36,7 @@ public class UserLessonData {
     private int allPaidLessons;
     @Column
     private Date lastBookingDate;
+    @Version
+    @Column(name = "VERSION", nullable = false, columnDefinition = "NUMBER(19) DEFAULT 0")
+    private long version;
 }
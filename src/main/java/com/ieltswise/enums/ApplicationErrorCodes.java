@@ -16,7 +16,12 @@ public enum ApplicationErrorCodes {
     NO_PURCHASED_LESSONS_ERROR(15),
     METHOD_ARGUMENT_NOT_VALID_ERROR(17),
     TUTOR_CREATION_ERROR(19),
-    EVENT_FETCHING_ERROR(20);
+    EVENT_FETCHING_ERROR(20),
+    CALENDAR_UNAVAILABLE_ERROR(21),
+    CALENDAR_RATE_LIMIT_ERROR(22),
+    BOOKING_NOT_FOUND_ERROR(23),
+    SLOT_UNAVAILABLE_ERROR(24),
+    IDEMPOTENCY_KEY_ERROR(25);
 
     private final int codeId;
 }
@@ -0,0 +1,8 @@
+package com.ieltswise.enums;
+
+public enum BookingStatus {
+
+    PENDING,
+    CONFIRMED,
+    FAILED
+}
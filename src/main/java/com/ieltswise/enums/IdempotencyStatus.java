@@ -0,0 +1,7 @@
+package com.ieltswise.enums;
+
+public enum IdempotencyStatus {
+
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,16 @@
+package com.ieltswise.event;
+
+import com.ieltswise.dto.TimeSlot;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published once a tutor's weekly schedule has been saved
+ *
+ * @param tutorEmail tutor's email
+ * @param timeInfo   new weekly schedule
+ */
+public record ScheduleUpdatedEvent(String tutorEmail, Map<DayOfWeek, List<TimeSlot>> timeInfo) {
+}
@@ -0,0 +1,13 @@
+package com.ieltswise.event;
+
+import java.time.Instant;
+
+/**
+ * Published once a lesson has been added to the tutor's calendar
+ *
+ * @param tutorEmail tutor's email
+ * @param start      lesson start
+ * @param end        lesson end
+ */
+public record SessionBookedEvent(String tutorEmail, Instant start, Instant end) {
+}
@@ -0,0 +1,8 @@
+package com.ieltswise.exception;
+
+public class BookingNotFoundException extends Exception {
+
+    public BookingNotFoundException(Long bookingId) {
+        super(String.format("Booking with ID %s not found", bookingId));
+    }
+}
@@ -0,0 +1,8 @@
+package com.ieltswise.exception;
+
+public class CalendarRateLimitException extends EventFetchingException {
+
+    public CalendarRateLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ieltswise.exception;
+
+import lombok.Getter;
+
+@Getter
+public class CalendarResponseException extends EventFetchingException {
+
+    private final int statusCode;
+
+    public CalendarResponseException(int statusCode, String message) {
+        super(String.format("Google Calendar responded with %d: %s", statusCode, message));
+        this.statusCode = statusCode;
+    }
+}
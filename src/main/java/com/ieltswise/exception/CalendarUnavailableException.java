@@ -0,0 +1,8 @@
+package com.ieltswise.exception;
+
+public class CalendarUnavailableException extends EventFetchingException {
+
+    public CalendarUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ieltswise.exception;
+
+import java.time.Instant;
+
+public class SlotUnavailableException extends Exception {
+
+    public SlotUnavailableException(String tutorEmail, long slotStartMillis) {
+        super(String.format("Slot starting at %s of tutor %s is held by another student",
+                Instant.ofEpochMilli(slotStartMillis), tutorEmail));
+    }
+}
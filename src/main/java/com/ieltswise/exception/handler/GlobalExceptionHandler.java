@@ -1,11 +1,15 @@
 package com.ieltswise.exception.handler;
 
 import com.ieltswise.controller.response.ErrorMessage;
+import com.ieltswise.exception.BookingNotFoundException;
 import com.ieltswise.exception.BookingSessionException;
+import com.ieltswise.exception.CalendarRateLimitException;
+import com.ieltswise.exception.CalendarUnavailableException;
 import com.ieltswise.exception.EmailNotFoundException;
 import com.ieltswise.exception.EventFetchingException;
 import com.ieltswise.exception.NoAvailableLessonsException;
 import com.ieltswise.exception.NoPurchasedLessonsException;
+import com.ieltswise.exception.SlotUnavailableException;
 import com.ieltswise.exception.TutorCreationException;
 import com.paypal.base.rest.PayPalRESTException;
 import lombok.extern.slf4j.Slf4j;
@@ -16,12 +20,16 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
+import static com.ieltswise.enums.ApplicationErrorCodes.BOOKING_NOT_FOUND_ERROR;
 import static com.ieltswise.enums.ApplicationErrorCodes.BOOKING_SESSION_ERROR;
+import static com.ieltswise.enums.ApplicationErrorCodes.CALENDAR_RATE_LIMIT_ERROR;
+import static com.ieltswise.enums.ApplicationErrorCodes.CALENDAR_UNAVAILABLE_ERROR;
 import static com.ieltswise.enums.ApplicationErrorCodes.EMAIL_NOT_FOUND_ERROR;
 import static com.ieltswise.enums.ApplicationErrorCodes.EVENT_FETCHING_ERROR;
 import static com.ieltswise.enums.ApplicationErrorCodes.FATAL_ERROR;
@@ -30,6 +38,7 @@ import static com.ieltswise.enums.ApplicationErrorCodes.METHOD_ARGUMENT_NOT_VALI
 import static com.ieltswise.enums.ApplicationErrorCodes.NO_AVAILABLE_LESSONS_ERROR;
 import static com.ieltswise.enums.ApplicationErrorCodes.NO_PURCHASED_LESSONS_ERROR;
 import static com.ieltswise.enums.ApplicationErrorCodes.PAYPAL_ERROR;
+import static com.ieltswise.enums.ApplicationErrorCodes.SLOT_UNAVAILABLE_ERROR;
 import static com.ieltswise.enums.ApplicationErrorCodes.TUTOR_CREATION_ERROR;
 
 
@@ -53,6 +62,28 @@ public class GlobalExceptionHandler {
                 HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(BookingNotFoundException.class)
+    public ResponseEntity<ErrorMessage> handleBookingNotFoundException(BookingNotFoundException e) {
+        logError(e);
+        return new ResponseEntity<>(
+                new ErrorMessage(
+                        BOOKING_NOT_FOUND_ERROR.getCodeId(),
+                        e.getMessage()
+                ),
+                HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(SlotUnavailableException.class)
+    public ResponseEntity<ErrorMessage> handleSlotUnavailableException(SlotUnavailableException e) {
+        logError(e);
+        return new ResponseEntity<>(
+                new ErrorMessage(
+                        SLOT_UNAVAILABLE_ERROR.getCodeId(),
+                        e.getMessage()
+                ),
+                HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(EmailNotFoundException.class)
     public ResponseEntity<ErrorMessage> handleEmailNotFoundException(EmailNotFoundException e) {
         logError(e);
@@ -97,6 +128,18 @@ public class GlobalExceptionHandler {
                 HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorMessage> handleMethodArgumentTypeMismatchException(
+            MethodArgumentTypeMismatchException e) {
+        logError(e);
+        return new ResponseEntity<>(
+                new ErrorMessage(
+                        ILLEGAL_ARGUMENT_ERROR.getCodeId(),
+                        String.format("Invalid value %s of parameter %s", e.getValue(), e.getName())
+                ),
+                HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(NoAvailableLessonsException.class)
     public ResponseEntity<ErrorMessage> handleNoAvailableLessonsException(NoAvailableLessonsException e) {
         logError(e);
@@ -138,6 +181,28 @@ public class GlobalExceptionHandler {
                 HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(CalendarRateLimitException.class)
+    public ResponseEntity<ErrorMessage> handleCalendarRateLimitException(CalendarRateLimitException e) {
+        logError(e);
+        return new ResponseEntity<>(
+                new ErrorMessage(
+                        CALENDAR_RATE_LIMIT_ERROR.getCodeId(),
+                        e.getMessage()
+                ),
+                HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(CalendarUnavailableException.class)
+    public ResponseEntity<ErrorMessage> handleCalendarUnavailableException(CalendarUnavailableException e) {
+        logError(e);
+        return new ResponseEntity<>(
+                new ErrorMessage(
+                        CALENDAR_UNAVAILABLE_ERROR.getCodeId(),
+                        e.getMessage()
+                ),
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(EventFetchingException.class)
     public ResponseEntity<ErrorMessage> handleEventFetchingException(EventFetchingException e) {
         logError(e);
@@ -0,0 +1,232 @@
+package com.ieltswise.idempotency;
+
+import com.ieltswise.entity.IdempotencyRecord;
+import com.ieltswise.enums.IdempotencyStatus;
+import com.ieltswise.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Persistent store of the requests received with an {@code Idempotency-Key} header and of their responses.
+ * <p>
+ * The first request with a key inserts its record and is processed, the unique key lets only one of several
+ * concurrent requests in, even on different instances of the application. A repeated request gets the stored
+ * response. A request whose processing was abandoned, for example by a crashed instance, can be taken over after
+ * {@code idempotency.lock} has passed. The lock of a request that is still processed is extended every
+ * {@code idempotency.lock-renewal-interval}, so a slow request is not taken over while its instance is alive, and
+ * a request that has been taken over anyway neither stores nor deletes the record of the one that took it over.
+ * Records expire after {@code idempotency.ttl} and are removed every
+ * {@code idempotency.purge-interval}.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore implements MeterBinder {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final long ttlMillis;
+    private final long lockMillis;
+    private final Clock clock;
+    // requests processed by this instance, by record ID
+    private final Map<Long, IdempotencyRecord> locked = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${idempotency.lock:PT1M}") Duration lock) {
+        this(idempotencyRecordRepository, ttl, lock, Clock.systemUTC());
+    }
+
+    IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository, Duration ttl, Duration lock,
+                     Clock clock) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttlMillis = ttl.toMillis();
+        this.lockMillis = lock.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * @param key         value of the {@code Idempotency-Key} header
+     * @param path        path of the request
+     * @param requestHash hash of the request
+     * @return what to do with the request
+     */
+    public Claim begin(String key, String path, String requestHash) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long now = clock.millis();
+            IdempotencyRecord existing = idempotencyRecordRepository.findByIdempotencyKeyAndRequestPath(key, path)
+                    .orElse(null);
+            if (existing == null) {
+                try {
+                    IdempotencyRecord record = idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                            .idempotencyKey(key)
+                            .requestPath(path)
+                            .requestHash(requestHash)
+                            .status(IdempotencyStatus.IN_PROGRESS)
+                            .lockedUntil(now + lockMillis)
+                            .expiresAt(now + ttlMillis)
+                            .build());
+                    locked.put(record.getId(), record);
+                    executed.increment();
+                    return new Claim(Result.EXECUTE, record);
+                } catch (DataIntegrityViolationException e) {
+                    // a concurrent request with the same key was first
+                    continue;
+                }
+            }
+            if (existing.getExpiresAt() <= now) {
+                idempotencyRecordRepository.deleteIfExpired(existing.getId(), now);
+                continue;
+            }
+            return claimExisting(existing, requestHash, now);
+        }
+        rejected.increment();
+        return new Claim(Result.IN_PROGRESS, null);
+    }
+
+    private Claim claimExisting(IdempotencyRecord existing, String requestHash, long now) {
+        if (!existing.getRequestHash().equals(requestHash)) {
+            rejected.increment();
+            return new Claim(Result.MISMATCH, existing);
+        }
+        if (existing.getStatus() == IdempotencyStatus.COMPLETED) {
+            replayed.increment();
+            return new Claim(Result.REPLAY, existing);
+        }
+        if (existing.getLockedUntil() <= now
+                && idempotencyRecordRepository.takeOver(existing.getId(), existing.getLockedUntil(),
+                now + lockMillis) == 1) {
+            log.warn("Taking over abandoned request with idempotency key {} to {}", existing.getIdempotencyKey(),
+                    existing.getRequestPath());
+            existing.setLockedUntil(now + lockMillis);
+            locked.put(existing.getId(), existing);
+            executed.increment();
+            return new Claim(Result.EXECUTE, existing);
+        }
+        rejected.increment();
+        return new Claim(Result.IN_PROGRESS, existing);
+    }
+
+    /**
+     * Stores the response of a processed request, the following requests with its key get it
+     *
+     * @return true if the response was stored, false if the request has been taken over in the meantime
+     */
+    public boolean complete(IdempotencyRecord record, int status, String contentType, byte[] body) {
+        synchronized (record) {
+            locked.remove(record.getId());
+            if (idempotencyRecordRepository.complete(record.getId(), record.getLockedUntil(), status, contentType,
+                    body) == 0) {
+                log.warn("Request with idempotency key {} to {} has been taken over, its response is not stored",
+                        record.getIdempotencyKey(), record.getRequestPath());
+                return false;
+            }
+            record.setStatus(IdempotencyStatus.COMPLETED);
+            record.setResponseStatus(status);
+            record.setResponseContentType(contentType);
+            record.setResponseBody(body);
+            return true;
+        }
+    }
+
+    /**
+     * Forgets a request whose response must not be repeated, so that it is processed again when it is retried
+     */
+    public void abandon(IdempotencyRecord record) {
+        synchronized (record) {
+            locked.remove(record.getId());
+            idempotencyRecordRepository.deleteIfLocked(record.getId(), record.getLockedUntil());
+        }
+    }
+
+    /**
+     * Extends the locks of the requests this instance is processing
+     */
+    @Scheduled(fixedDelayString = "${idempotency.lock-renewal-interval:PT20S}")
+    public void renewLocks() {
+        for (IdempotencyRecord record : locked.values()) {
+            synchronized (record) {
+                if (!locked.containsKey(record.getId())) {
+                    // completed or abandoned in the meantime
+                    continue;
+                }
+                long lockedUntil = clock.millis() + lockMillis;
+                if (idempotencyRecordRepository.extendLock(record.getId(), record.getLockedUntil(),
+                        lockedUntil) == 1) {
+                    record.setLockedUntil(lockedUntil);
+                } else {
+                    locked.remove(record.getId());
+                    log.warn("Lost the lock of the request with idempotency key {} to {}", record.getIdempotencyKey(),
+                            record.getRequestPath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the expired records
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpired(clock.millis());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("idempotency.requests", executed, LongAdder::doubleValue)
+                .description("Requests with an idempotency key")
+                .tag("result", "executed").register(registry);
+        FunctionCounter.builder("idempotency.requests", replayed, LongAdder::doubleValue)
+                .description("Requests with an idempotency key")
+                .tag("result", "replayed").register(registry);
+        FunctionCounter.builder("idempotency.requests", rejected, LongAdder::doubleValue)
+                .description("Requests with an idempotency key")
+                .tag("result", "rejected").register(registry);
+    }
+
+    public enum Result {
+
+        /**
+         * The request is processed for the first time
+         */
+        EXECUTE,
+        /**
+         * The request has already been processed, its stored response is returned
+         */
+        REPLAY,
+        /**
+         * A request with the same key is being processed
+         */
+        IN_PROGRESS,
+        /**
+         * The key has been used for a different request
+         */
+        MISMATCH
+    }
+
+    /**
+     * @param result what to do with the request
+     * @param record record of the key, null if it could not be read
+     */
+    public record Claim(Result result, IdempotencyRecord record) {
+    }
+}
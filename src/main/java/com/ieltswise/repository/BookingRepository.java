@@ -0,0 +1,7 @@
+package com.ieltswise.repository;
+
+import com.ieltswise.entity.Booking;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+}
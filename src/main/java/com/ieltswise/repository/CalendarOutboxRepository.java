@@ -0,0 +1,28 @@
+package com.ieltswise.repository;
+
+import com.ieltswise.entity.CalendarOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface CalendarOutboxRepository extends JpaRepository<CalendarOutboxEntry, Long> {
+
+    List<CalendarOutboxEntry> findByNextAttemptAtLessThanEqualOrderByNextAttemptAt(Long now, Pageable pageable);
+
+    /**
+     * Takes the entry for processing by moving its next attempt to the end of the lease,
+     * fails if another worker has already taken it
+     *
+     * @return 1 if the entry was taken, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("update CalendarOutboxEntry e set e.nextAttemptAt = :leaseUntil "
+            + "where e.id = :id and e.nextAttemptAt = :dueAt")
+    int claim(@Param("id") Long id, @Param("dueAt") Long dueAt, @Param("leaseUntil") Long leaseUntil);
+}
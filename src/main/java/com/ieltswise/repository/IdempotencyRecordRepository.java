@@ -0,0 +1,77 @@
+package com.ieltswise.repository;
+
+import com.ieltswise.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByIdempotencyKeyAndRequestPath(String idempotencyKey, String requestPath);
+
+    /**
+     * Takes over a request whose processing was abandoned, fails if another request has already taken it over
+     *
+     * @return 1 if the request was taken over, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.lockedUntil = :lockedUntil "
+            + "where r.id = :id and r.lockedUntil = :expiredLock "
+            + "and r.status = com.ieltswise.enums.IdempotencyStatus.IN_PROGRESS")
+    int takeOver(@Param("id") Long id, @Param("expiredLock") Long expiredLock, @Param("lockedUntil") Long lockedUntil);
+
+    /**
+     * Extends the lock of a request being processed, fails if another request has taken it over in the meantime
+     *
+     * @return 1 if the lock was extended, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.lockedUntil = :lockedUntil "
+            + "where r.id = :id and r.lockedUntil = :heldLock "
+            + "and r.status = com.ieltswise.enums.IdempotencyStatus.IN_PROGRESS")
+    int extendLock(@Param("id") Long id, @Param("heldLock") Long heldLock, @Param("lockedUntil") Long lockedUntil);
+
+    /**
+     * Stores the response of a processed request, fails if another request has taken it over in the meantime
+     *
+     * @return 1 if the response was stored, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.status = com.ieltswise.enums.IdempotencyStatus.COMPLETED, "
+            + "r.responseStatus = :responseStatus, r.responseContentType = :responseContentType, "
+            + "r.responseBody = :responseBody "
+            + "where r.id = :id and r.lockedUntil = :heldLock "
+            + "and r.status = com.ieltswise.enums.IdempotencyStatus.IN_PROGRESS")
+    int complete(@Param("id") Long id, @Param("heldLock") Long heldLock,
+                 @Param("responseStatus") Integer responseStatus,
+                 @Param("responseContentType") String responseContentType,
+                 @Param("responseBody") byte[] responseBody);
+
+    /**
+     * Forgets a request being processed, does nothing if another request has taken it over in the meantime
+     *
+     * @return 1 if the record was deleted, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.lockedUntil = :heldLock "
+            + "and r.status = com.ieltswise.enums.IdempotencyStatus.IN_PROGRESS")
+    int deleteIfLocked(@Param("id") Long id, @Param("heldLock") Long heldLock);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.expiresAt <= :now")
+    int deleteIfExpired(@Param("id") Long id, @Param("now") Long now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Long now);
+}
@@ -0,0 +1,7 @@
+package com.ieltswise.repository;
+
+import com.ieltswise.entity.ProcessedPayment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProcessedPaymentRepository extends JpaRepository<ProcessedPayment, Long> {
+}
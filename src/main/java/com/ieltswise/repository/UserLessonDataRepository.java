@@ -2,8 +2,60 @@ package com.ieltswise.repository;
 
 import com.ieltswise.entity.UserLessonData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
 
 public interface UserLessonDataRepository extends JpaRepository<UserLessonData, Long> {
 
     UserLessonData findByEmail(String userEmail);
+
+    /**
+     * Takes lessons from the student's balance only if there are enough of them
+     *
+     * @return 1 if the lessons were taken, 0 if the student has fewer lessons or does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("update UserLessonData u set u.availableLessons = u.availableLessons - :lessons, "
+            + "u.lastBookingDate = :bookedAt, u.version = u.version + 1 "
+            + "where u.email = :email and u.availableLessons >= :lessons")
+    int takeLessons(@Param("email") String email, @Param("lessons") int lessons, @Param("bookedAt") Date bookedAt);
+
+    /**
+     * @return 1 if the lessons were returned, 0 if the student does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("update UserLessonData u set u.availableLessons = u.availableLessons + :lessons, "
+            + "u.version = u.version + 1 where u.email = :email")
+    int giveBackLessons(@Param("email") String email, @Param("lessons") int lessons);
+
+    /**
+     * @return 1 if the lessons were added, 0 if the student does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("update UserLessonData u set u.availableLessons = u.availableLessons + :lessons, "
+            + "u.allPaidLessons = u.allPaidLessons + :lessons, u.version = u.version + 1 where u.email = :email")
+    int addPaidLessons(@Param("email") String email, @Param("lessons") int lessons);
+
+    /**
+     * Marks the trial lesson as used only if it has not been used yet
+     *
+     * @return 1 if the trial was taken, 0 if it has already been used or the student does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("update UserLessonData u set u.usedTrial = true, u.name = :name, u.lastBookingDate = :bookedAt, "
+            + "u.version = u.version + 1 where u.email = :email and (u.usedTrial = false or u.usedTrial is null)")
+    int useTrial(@Param("email") String email, @Param("name") String name, @Param("bookedAt") Date bookedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("update UserLessonData u set u.usedTrial = false, u.version = u.version + 1 where u.email = :email")
+    int restoreTrial(@Param("email") String email);
 }
@@ -1,30 +1,92 @@
 package com.ieltswise.service;
 
+import com.ieltswise.controller.request.BatchSessionDataRequest;
+import com.ieltswise.controller.request.RecurringSessionDataRequest;
 import com.ieltswise.controller.request.RegularSessionDataRequest;
 import com.ieltswise.controller.request.SessionDataRequest;
+import com.ieltswise.controller.request.SlotHoldRequest;
 import com.ieltswise.controller.response.SessionDataResponse;
+import com.ieltswise.controller.response.SlotHoldResponse;
+import com.ieltswise.exception.BookingNotFoundException;
+import com.ieltswise.exception.BookingSessionException;
 import com.ieltswise.exception.EmailNotFoundException;
+import com.ieltswise.exception.SlotUnavailableException;
+
+import java.util.List;
 
 public interface BookingService {
 
     /**
-     * A method for booking a free trial lesson with a tutor in Google Calendar
+     * A method for booking a free trial lesson with a tutor. The booking is accepted right away and its
+     * Google Calendar event is created in the background, see {@link #getBooking(Long)}
      *
      * @param sessionDataRequest contains information about the participants and the time of the planned event
-     * @return booking session data
+     * @return pending booking session data
      * @throws Exception if an error occurs during the booking process
      */
     SessionDataResponse bookTrialSession(final SessionDataRequest sessionDataRequest) throws Exception;
 
     /**
-     * A method for booking a regular lesson with a tutor in Google Calendar
+     * A method for booking a regular lesson with a tutor. The lesson is taken from the student's balance right
+     * away and its Google Calendar event is created in the background, see {@link #getBooking(Long)}
      *
      * @param regularSessionDataRequest an object containing data for requesting a regular lesson
-     * @return booking session data
+     * @return pending booking session data
      * @throws Exception if an error occurs during the booking process
      */
     SessionDataResponse bookRegularSession(final RegularSessionDataRequest regularSessionDataRequest) throws Exception;
 
+    /**
+     * A method for booking several regular lessons with a tutor at once. The slots are validated together, the
+     * lessons are taken from the student's balance in one update and their Google Calendar events are created in
+     * the background
+     *
+     * @param batchSessionDataRequest an object containing the tutor, the student and the requested slots
+     * @return pending booking session data of every slot, in the order of the request
+     * @throws Exception if the slots are invalid or the student does not have enough lessons
+     */
+    List<SessionDataResponse> bookRegularSessions(BatchSessionDataRequest batchSessionDataRequest) throws Exception;
+
+    /**
+     * A method for booking a series of lessons with a tutor as one recurring Google Calendar event. All the lessons
+     * of the series are taken from the student's balance at once
+     *
+     * @param recurringSessionDataRequest an object containing the first lesson and the recurrence of the series
+     * @return pending booking session data of the series
+     * @throws Exception if the recurrence is invalid or the student does not have enough lessons
+     */
+    SessionDataResponse bookRecurringSession(RecurringSessionDataRequest recurringSessionDataRequest)
+            throws Exception;
+
+    /**
+     * Returns the booking with its current status and, once confirmed, the link to its event
+     *
+     * @param bookingId booking identifier
+     * @return booking session data
+     * @throws BookingNotFoundException if there is no booking with the identifier
+     */
+    SessionDataResponse getBooking(Long bookingId) throws BookingNotFoundException;
+
+    /**
+     * Holds a tutor's slot for the student for a short time, so that nobody else can book it while the student
+     * pays for the lesson. The slot is shown as unavailable until the hold is released or expires
+     *
+     * @param slotHoldRequest an object containing the tutor, the student and the time of the slot
+     * @return the hold with the time it expires at
+     * @throws EmailNotFoundException   if the tutor is not registered
+     * @throws BookingSessionException  if the time of the slot is invalid or too long
+     * @throws SlotUnavailableException if another student holds the slot
+     */
+    SlotHoldResponse holdSlot(SlotHoldRequest slotHoldRequest)
+            throws EmailNotFoundException, BookingSessionException, SlotUnavailableException;
+
+    /**
+     * Releases a hold of a slot, nothing happens if it has already been released or has expired
+     *
+     * @param holdId hold identifier
+     */
+    void releaseSlot(String holdId);
+
     /**
      * Extracts the number of available lessons for the user based on the email address.
      *
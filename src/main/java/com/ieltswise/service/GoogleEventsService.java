@@ -1,10 +1,17 @@
 package com.ieltswise.service;
 
 import com.ieltswise.controller.response.Event;
+import com.ieltswise.dto.AvailableSlot;
 import com.ieltswise.dto.FreeAndBusyHoursOfTheDay;
+import com.ieltswise.dto.FreeAndBusyHoursOfTheMonth;
 import com.ieltswise.exception.EmailNotFoundException;
 import com.ieltswise.exception.EventFetchingException;
 
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.List;
 
 public interface GoogleEventsService {
@@ -27,6 +34,69 @@ public interface GoogleEventsService {
      * @throws EmailNotFoundException if the tutor with the specified email address is not registered
      * @throws EventFetchingException if an exception occurred when receiving events from the tutor's
      */
-    List<FreeAndBusyHoursOfTheDay> getEventsByYearAndMonth(String tutorId, int year, int month)
+    default List<FreeAndBusyHoursOfTheDay> getEventsByYearAndMonth(String tutorId, int year, int month)
+            throws EmailNotFoundException, EventFetchingException {
+        return getEventsByYearAndMonth(tutorId, year, month, ZoneOffset.UTC);
+    }
+
+    /**
+     * A method for getting information about all available, unavailable and booked hours for all days of the month
+     * in the given time zone. Days start at the local midnight, so a day on which the clocks are moved has
+     * 23 or 25 hours. If the events cannot be fetched, the last computed availability of the month is returned
+     * with every day marked as stale.
+     *
+     * @param tutorId tutor's email
+     * @param year    year
+     * @param month   month number
+     * @param zone    time zone of the days and hours
+     * @return a list of available time with a tutor for the requested month with an interval of 1 hour
+     * @throws EmailNotFoundException if the tutor with the specified email address is not registered
+     * @throws EventFetchingException if an exception occurred when receiving events from the tutor's calendar
+     */
+    List<FreeAndBusyHoursOfTheDay> getEventsByYearAndMonth(String tutorId, int year, int month, ZoneId zone)
+            throws EmailNotFoundException, EventFetchingException;
+
+    /**
+     * A method for getting information about all available, unavailable and booked hours for several consecutive
+     * months at once in the given time zone. The tutor and the schedule are loaded once and the events of the
+     * whole range are fetched with a single windowed query.
+     *
+     * @param tutorId tutor's email
+     * @param from    first month of the range
+     * @param to      last month of the range, inclusive
+     * @param zone    time zone of the months, days and hours
+     * @return hours and their statuses for every month of the range in chronological order
+     * @throws EmailNotFoundException   if the tutor with the specified email address is not registered
+     * @throws EventFetchingException   if an exception occurred when receiving events from the tutor's calendar
+     * @throws IllegalArgumentException if the range is empty or longer than allowed
+     */
+    List<FreeAndBusyHoursOfTheMonth> getEventsByYearMonthRange(String tutorId, YearMonth from, YearMonth to,
+                                                               ZoneId zone)
+            throws EmailNotFoundException, EventFetchingException;
+
+    /**
+     * A method for finding the tutors who are free during the whole requested time range
+     *
+     * @param from start of the range
+     * @param to   end of the range
+     * @return emails of the tutors who have no engaged or booked hour within the range
+     * @throws IllegalArgumentException if the range is empty or lies too far in the future
+     */
+    List<String> getFreeTutors(ZonedDateTime from, ZonedDateTime to);
+
+    /**
+     * A method for finding the earliest hours in which a lesson with the tutor can be booked. Only the events
+     * of the days actually scanned are requested from the tutor's calendar.
+     *
+     * @param tutorId tutor's email
+     * @param after   instant after which the slots may start
+     * @param count   number of slots to find
+     * @return up to {@code count} available one-hour slots in chronological order, fewer if the search horizon
+     * has been reached
+     * @throws EmailNotFoundException   if the tutor with the specified email address is not registered
+     * @throws EventFetchingException   if an exception occurred when receiving events from the tutor's calendar
+     * @throws IllegalArgumentException if the count is out of the allowed bounds
+     */
+    List<AvailableSlot> getNextAvailableSlots(String tutorId, Instant after, int count)
             throws EmailNotFoundException, EventFetchingException;
 }
@@ -0,0 +1,45 @@
+package com.ieltswise.service;
+
+public interface LessonBalanceService {
+
+    /**
+     * Takes lessons from the student's balance in a single conditional update, joining the caller's transaction
+     *
+     * @param email   student's email
+     * @param lessons number of lessons to take
+     * @return true if the lessons were taken, false if the student does not have enough of them
+     */
+    boolean takeLessons(String email, int lessons);
+
+    /**
+     * Returns lessons of a booking that could not be completed to the student's balance
+     *
+     * @param email   student's email
+     * @param lessons number of lessons to return
+     */
+    void giveBackLessons(String email, int lessons);
+
+    /**
+     * Adds paid lessons to the student's balance, creating the balance of a new student
+     *
+     * @param email   student's email
+     * @param lessons number of paid lessons
+     */
+    void addPaidLessons(String email, int lessons);
+
+    /**
+     * Takes the student's trial lesson, creating the balance of a new student
+     *
+     * @param email student's email
+     * @param name  student's name
+     * @return true if the trial was taken, false if it has already been used
+     */
+    boolean useTrial(String email, String name);
+
+    /**
+     * Makes the trial lesson available again after its booking could not be completed
+     *
+     * @param email student's email
+     */
+    void restoreTrial(String email);
+}
@@ -1,68 +1,87 @@
 package com.ieltswise.service.impl;
 
-import com.google.api.client.auth.oauth2.Credential;
-import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInstalledApp;
-import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
-import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
-import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.JsonFactory;
 import com.google.api.client.util.DateTime;
-import com.google.api.client.util.store.FileDataStoreFactory;
-import com.google.api.services.calendar.Calendar;
-import com.google.api.services.calendar.model.ConferenceData;
-import com.google.api.services.calendar.model.ConferenceSolutionKey;
-import com.google.api.services.calendar.model.CreateConferenceRequest;
-import com.google.api.services.calendar.model.Event;
-import com.google.api.services.calendar.model.EventAttendee;
-import com.google.api.services.calendar.model.EventDateTime;
-import com.google.api.services.calendar.model.EventReminder;
+import com.ieltswise.booking.BookingEventWriter;
+import com.ieltswise.booking.SlotReservationManager;
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.Recurrence;
+import com.ieltswise.calendar.RecurrenceExpander;
+import com.ieltswise.controller.request.BatchSessionDataRequest;
+import com.ieltswise.controller.request.RecurringSessionDataRequest;
 import com.ieltswise.controller.request.RegularSessionDataRequest;
 import com.ieltswise.controller.request.SessionDataRequest;
+import com.ieltswise.controller.request.SessionSlotRequest;
+import com.ieltswise.controller.request.SlotHoldRequest;
 import com.ieltswise.controller.response.SessionDataResponse;
-import com.ieltswise.entity.TutorInfo;
+import com.ieltswise.controller.response.SlotHoldResponse;
+import com.ieltswise.entity.Booking;
+import com.ieltswise.entity.CalendarOutboxEntry;
 import com.ieltswise.entity.UserLessonData;
+import com.ieltswise.enums.BookingStatus;
+import com.ieltswise.enums.BookingType;
+import com.ieltswise.exception.BookingNotFoundException;
 import com.ieltswise.exception.BookingSessionException;
 import com.ieltswise.exception.EmailNotFoundException;
 import com.ieltswise.exception.NoAvailableLessonsException;
+import com.ieltswise.exception.SlotUnavailableException;
+import com.ieltswise.repository.BookingRepository;
+import com.ieltswise.repository.CalendarOutboxRepository;
 import com.ieltswise.repository.TutorInfoRepository;
 import com.ieltswise.repository.UserLessonDataRepository;
 import com.ieltswise.service.BookingService;
+import com.ieltswise.service.LessonBalanceService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.security.GeneralSecurityException;
-import java.util.Date;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-
-import static com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets.load;
-import static com.google.api.client.googleapis.javanet.GoogleNetHttpTransport.newTrustedTransport;
-import static com.google.api.client.json.gson.GsonFactory.getDefaultInstance;
-import static com.google.api.services.calendar.CalendarScopes.CALENDAR;
-import static java.util.Arrays.asList;
-import static java.util.Collections.singletonList;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class BookingServiceImpl implements BookingService {
 
-    private static final JsonFactory JSON_FACTORY = getDefaultInstance();
-    private static final List<String> SCOPES = singletonList(CALENDAR);
-    private static final String TOKENS_DIRECTORY_PATH = "src/main/resources/tokens";
-    private static final String CREDENTIALS_FILE_PATH = "/credentials.json";
+    private static final DateTimeFormatter RRULE_UNTIL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+
     private final UserLessonDataRepository userLessonDataRepository;
     private final TutorInfoRepository tutorInfoRepository;
+    private final BookingRepository bookingRepository;
+    private final CalendarOutboxRepository calendarOutboxRepository;
+    private final LessonBalanceService lessonBalanceService;
+    private final SlotReservationManager slotReservationManager;
+    private final int maxRecurringLessons;
+    private final long maxHoldMillis;
 
     @Autowired
     public BookingServiceImpl(UserLessonDataRepository userLessonDataRepository,
-                              TutorInfoRepository tutorInfoRepository) {
+                              TutorInfoRepository tutorInfoRepository,
+                              BookingRepository bookingRepository,
+                              CalendarOutboxRepository calendarOutboxRepository,
+                              LessonBalanceService lessonBalanceService,
+                              SlotReservationManager slotReservationManager,
+                              @Value("${booking.recurring.max-lessons:52}") int maxRecurringLessons,
+                              @Value("${booking.hold.max-duration:PT4H}") Duration maxHoldDuration) {
         this.userLessonDataRepository = userLessonDataRepository;
         this.tutorInfoRepository = tutorInfoRepository;
+        this.bookingRepository = bookingRepository;
+        this.calendarOutboxRepository = calendarOutboxRepository;
+        this.lessonBalanceService = lessonBalanceService;
+        this.slotReservationManager = slotReservationManager;
+        this.maxRecurringLessons = maxRecurringLessons;
+        this.maxHoldMillis = maxHoldDuration.toMillis();
     }
 
     @Override
@@ -75,201 +94,289 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public SessionDataResponse bookTrialSession(final SessionDataRequest sessionData) throws Exception {
         final String studentEmail = sessionData.getStudentEmail();
-        if (isUsedTrialLessonByStudent(studentEmail)) {
+        final String studentName = sessionData.getStudentName();
+        final List<SlotReservationManager.Interval> lessons = validateSessionSlots(List.of(
+                new SessionSlotRequest(sessionData.getStartDate(), sessionData.getEndDate())));
+        if (!lessonBalanceService.useTrial(studentEmail, studentName)) {
             throw new BookingSessionException(String.format("Already used a trial lesson for email: %s", studentEmail));
-        } else {
-            final String studentName = sessionData.getStudentName();
-            final String eventLink = bookSession(sessionData, studentName);
-            saveStudentUsedTrialLesson(studentEmail, studentName);
-            sessionData.setEventLink(eventLink);
-            return prepareSessionDataResponse(sessionData);
         }
+        return prepareSessionDataResponse(acceptBooking(sessionData, studentName, BookingType.TRIAL, lessons));
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public SessionDataResponse bookRegularSession(RegularSessionDataRequest regularSessionDataRequest)
             throws Exception {
-        String studentEmail = regularSessionDataRequest.getStudentEmail();
-        UserLessonData userLessonData = userLessonDataRepository.findByEmail(studentEmail);
-
-        if (userLessonData == null)
-            throw new EmailNotFoundException("Student", studentEmail);
-
-        if (userLessonData.getAvailableLessons() < 1)
-            throw new NoAvailableLessonsException(String.format("No available lessons have been found " +
-                    "for a student with this email: %s", studentEmail));
-
-        int newAvailableLessons = userLessonData.getAvailableLessons() - 1;
-        userLessonData.setAvailableLessons(newAvailableLessons);
-        userLessonData.setLastBookingDate(new Date());
-        userLessonDataRepository.save(userLessonData);
-        regularSessionDataRequest.setEventLink(bookSession(regularSessionDataRequest, userLessonData.getName()));
-        return prepareSessionDataResponse(regularSessionDataRequest);
+        final List<SlotReservationManager.Interval> lessons = validateSessionSlots(List.of(
+                new SessionSlotRequest(regularSessionDataRequest.getStartDate(),
+                        regularSessionDataRequest.getEndDate())));
+        final UserLessonData userLessonData = takeLessons(regularSessionDataRequest.getStudentEmail(), 1);
+        final Booking booking = acceptBooking(regularSessionDataRequest, userLessonData.getName(),
+                BookingType.REGULAR, lessons);
+        return prepareSessionDataResponse(booking);
     }
 
     @Override
-    public Boolean isTrialAvailable(final String studentEmail) {
-        return !isUsedTrialLessonByStudent(studentEmail);
+    @Transactional(rollbackFor = Exception.class)
+    public List<SessionDataResponse> bookRegularSessions(BatchSessionDataRequest batchSessionDataRequest)
+            throws Exception {
+        final String studentEmail = batchSessionDataRequest.getStudentEmail();
+        final List<SessionSlotRequest> sessions = batchSessionDataRequest.getSessions();
+        final List<SlotReservationManager.Interval> lessons = validateSessionSlots(sessions);
+        checkTutorExists(batchSessionDataRequest.getTutorEmail());
+        final UserLessonData userLessonData = takeLessons(studentEmail, sessions.size());
+        holdForBooking(batchSessionDataRequest.getTutorEmail(), studentEmail, lessons);
+
+        final List<SessionDataResponse> responses = new ArrayList<>(sessions.size());
+        for (SessionSlotRequest session : sessions) {
+            final Booking booking = saveBooking(SessionDataRequest.builder()
+                    .tutorEmail(batchSessionDataRequest.getTutorEmail())
+                    .studentEmail(studentEmail)
+                    .requestedService(batchSessionDataRequest.getRequestedService())
+                    .startDate(session.getStartDate())
+                    .endDate(session.getEndDate())
+                    .build(), userLessonData.getName(), BookingType.REGULAR, null, 1);
+            responses.add(prepareSessionDataResponse(booking));
+        }
+        return responses;
     }
 
-    private String bookSession(final SessionDataRequest sessionData, final String studentName)
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public SessionDataResponse bookRecurringSession(RecurringSessionDataRequest recurringSessionDataRequest)
             throws Exception {
-        log.info("Attempting to create event for student: " + studentName);
-        final Event event = prepareAndSendEvent(sessionData, studentName);
-        log.info("Event created successfully for student: " + studentName);
-        return event.getHtmlLink();
+        validateSessionSlots(List.of(new SessionSlotRequest(recurringSessionDataRequest.getStartDate(),
+                recurringSessionDataRequest.getEndDate())));
+        final String recurrence = prepareRecurrenceRule(recurringSessionDataRequest);
+        final List<SlotReservationManager.Interval> lessons =
+                expandRecurringLessons(recurringSessionDataRequest, recurrence);
+        if (lessons.isEmpty() || lessons.size() > maxRecurringLessons)
+            throw new BookingSessionException(String.format("Recurring booking must contain from 1 to %d lessons, " +
+                    "requested: %d", maxRecurringLessons, lessons.size()));
+        checkTutorExists(recurringSessionDataRequest.getTutorEmail());
+        takeLessons(recurringSessionDataRequest.getStudentEmail(), lessons.size());
+        holdForBooking(recurringSessionDataRequest.getTutorEmail(), recurringSessionDataRequest.getStudentEmail(),
+                lessons);
+        return prepareSessionDataResponse(saveBooking(recurringSessionDataRequest,
+                recurringSessionDataRequest.getStudentName(), BookingType.RECURRING, recurrence, lessons.size()));
     }
 
-    private boolean isUsedTrialLessonByStudent(String studentEmail) {
-        UserLessonData student = userLessonDataRepository.findByEmail(studentEmail);
-        return student != null && student.getUsedTrial();
+    @Override
+    public SessionDataResponse getBooking(Long bookingId) throws BookingNotFoundException {
+        return prepareSessionDataResponse(bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException(bookingId)));
     }
 
-    private void saveStudentUsedTrialLesson(final String email, final String studentName) {
-        final UserLessonData student = userLessonDataRepository.findByEmail(email);
-        if (student == null) {
-            final UserLessonData newStudent = new UserLessonData();
-            newStudent.setEmail(email);
-            newStudent.setName(studentName);
-            newStudent.setUsedTrial(true);
-            newStudent.setLastBookingDate(new Date());
-            userLessonDataRepository.save(newStudent);
-        } else if (!student.getUsedTrial()) {
-            student.setUsedTrial(true);
-            student.setName(studentName);
-            userLessonDataRepository.save(student);
-        }
+    @Override
+    public SlotHoldResponse holdSlot(SlotHoldRequest slotHoldRequest)
+            throws EmailNotFoundException, BookingSessionException, SlotUnavailableException {
+        final SlotReservationManager.Interval slot = validateSessionSlots(List.of(
+                new SessionSlotRequest(slotHoldRequest.getStartDate(), slotHoldRequest.getEndDate()))).get(0);
+        if (slot.endMillis() - slot.startMillis() > maxHoldMillis)
+            throw new BookingSessionException(String.format("A slot can be held for at most %d minutes",
+                    maxHoldMillis / 60_000));
+        checkTutorExists(slotHoldRequest.getTutorEmail());
+        final SlotReservationManager.SlotHold hold = slotReservationManager.hold(slotHoldRequest.getTutorEmail(),
+                slotHoldRequest.getStudentEmail(), slot.startMillis(), slot.endMillis());
+        return SlotHoldResponse.builder()
+                .holdId(hold.id())
+                .tutorEmail(slotHoldRequest.getTutorEmail())
+                .startDate(slotHoldRequest.getStartDate())
+                .endDate(slotHoldRequest.getEndDate())
+                .expiresAt(hold.expiresAt())
+                .build();
     }
 
-    private Event prepareAndSendEvent(final SessionDataRequest sessionData, final String studentName)
-            throws GeneralSecurityException, IOException, EmailNotFoundException {
-        final Event event = buildEventWithMeet(sessionData, studentName);
-        final NetHttpTransport httpTransport = newTrustedTransport();
-        final Calendar calendar = buildCalendarService(httpTransport);
-
-        return calendar.events()
-                .insert("primary", event)
-                .setConferenceDataVersion(1)
-                .setSendUpdates("all")
-                .execute();
+    @Override
+    public void releaseSlot(String holdId) {
+        slotReservationManager.release(holdId);
     }
 
-    private Event buildEventWithMeet(final SessionDataRequest sessionData, final String studentName)
-            throws EmailNotFoundException {
-        // TODO: Add the ability to book regular sessions by using ".setRecurrence"
-        return new Event()
-                .setSummary("English with IELTSWise67")
-                .setLocation("Online")
-                .setDescription(prepareEventDescription(sessionData.getRequestedService(), studentName))
-                .setConferenceData(prepareConferenceData())
-                .setStart(prepareEventTime(sessionData.getStartDate()))
-                .setEnd(prepareEventTime(sessionData.getEndDate()))
-                .setAttendees(prepareEventAttendees(sessionData))
-                .setGuestsCanModify(true)
-                .setReminders(prepareReminders());
+    @Override
+    public Boolean isTrialAvailable(final String studentEmail) {
+        return !isUsedTrialLessonByStudent(studentEmail);
     }
 
-    private ConferenceData prepareConferenceData() {
-        final ConferenceSolutionKey conferenceSKey = createConferenceKey();
-        final CreateConferenceRequest conferenceReq = createConferenceRequest(conferenceSKey);
-        return createConferenceData(conferenceReq);
+    private Booking acceptBooking(final SessionDataRequest sessionData, final String studentName,
+                                  final BookingType type, final List<SlotReservationManager.Interval> lessons)
+            throws EmailNotFoundException, SlotUnavailableException {
+        checkTutorExists(sessionData.getTutorEmail());
+        holdForBooking(sessionData.getTutorEmail(), sessionData.getStudentEmail(), lessons);
+        return saveBooking(sessionData, studentName, type, null, 1);
     }
 
-    private EventDateTime prepareEventTime(String eventTime) {
-        final DateTime dateTime = new DateTime(eventTime);
-        return new EventDateTime()
-                .setDateTime(dateTime)
-                .setTimeZone("Europe/London");
+    /**
+     * Holds the hours of the booking until its calendar event is created, the hold is rolled back together with
+     * the transaction saving the booking
+     */
+    private void holdForBooking(final String tutorEmail, final String studentEmail,
+                                final List<SlotReservationManager.Interval> lessons)
+            throws SlotUnavailableException {
+        final SlotReservationManager.SlotHold hold =
+                slotReservationManager.holdForBooking(tutorEmail, studentEmail, lessons);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        slotReservationManager.rollBack(hold.id());
+                    }
+                }
+            });
+        }
     }
 
-    private List<EventAttendee> prepareEventAttendees(final SessionDataRequest sessionData)
-            throws EmailNotFoundException {
-
-        TutorInfo tutorInfo = tutorInfoRepository.findByEmail(sessionData.getTutorEmail())
-                .orElseThrow(() -> new EmailNotFoundException("Tutor", sessionData.getTutorEmail()));
-        final EventAttendee[] attendees = new EventAttendee[]{
-                new EventAttendee().setEmail(sessionData.getStudentEmail()),
-                new EventAttendee().setEmail(tutorInfo.getEmail()).setResource(true).setOrganizer(true)
-        };
-        return asList(attendees);
+    private void checkTutorExists(final String tutorEmail) throws EmailNotFoundException {
+        tutorInfoRepository.findByEmail(tutorEmail).orElseThrow(() -> new EmailNotFoundException("Tutor", tutorEmail));
     }
 
-    private Event.Reminders prepareReminders() {
-        final EventReminder[] reminderOverrides = createReminderOverrides();
-        return new Event.Reminders()
-                .setUseDefault(false)
-                .setOverrides(asList(reminderOverrides));
-    }
+    /**
+     * Takes the lessons from the student's balance with a single conditional update, so that concurrent bookings
+     * cannot spend the same lesson twice
+     */
+    private UserLessonData takeLessons(final String studentEmail, final int lessons)
+            throws EmailNotFoundException, NoAvailableLessonsException {
+        final UserLessonData userLessonData = userLessonDataRepository.findByEmail(studentEmail);
+        if (userLessonData == null)
+            throw new EmailNotFoundException("Student", studentEmail);
 
-    private ConferenceSolutionKey createConferenceKey() {
-        final ConferenceSolutionKey conferenceSKey = new ConferenceSolutionKey();
-        conferenceSKey.setType("hangoutsMeet");
-        return conferenceSKey;
+        if (!lessonBalanceService.takeLessons(studentEmail, lessons))
+            throw new NoAvailableLessonsException(lessons == 1
+                    ? String.format("No available lessons have been found for a student with this email: %s",
+                    studentEmail)
+                    : String.format("Fewer than %d available lessons have been found for a student with this " +
+                    "email: %s", lessons, studentEmail));
+        return userLessonData;
     }
 
-    private CreateConferenceRequest createConferenceRequest(ConferenceSolutionKey conferenceSKey) {
-        final CreateConferenceRequest createConferenceReq = new CreateConferenceRequest();
-        createConferenceReq.setRequestId("RequestId");
-        createConferenceReq.setConferenceSolutionKey(conferenceSKey);
-        return createConferenceReq;
+    /**
+     * Checks that every slot ends after it starts and that no two slots of the request overlap
+     *
+     * @return times of the slots, ordered by their start
+     */
+    private List<SlotReservationManager.Interval> validateSessionSlots(final List<SessionSlotRequest> sessions)
+            throws BookingSessionException {
+        final List<SlotReservationManager.Interval> intervals = new ArrayList<>(sessions.size());
+        for (SessionSlotRequest session : sessions) {
+            final long start;
+            final long end;
+            try {
+                start = DateTime.parseRfc3339(session.getStartDate()).getValue();
+                end = DateTime.parseRfc3339(session.getEndDate()).getValue();
+            } catch (NumberFormatException e) {
+                throw new BookingSessionException(String.format("Invalid session time: %s - %s",
+                        session.getStartDate(), session.getEndDate()));
+            }
+            if (end <= start) {
+                throw new BookingSessionException(String.format("Session must end after it starts: %s - %s",
+                        session.getStartDate(), session.getEndDate()));
+            }
+            intervals.add(new SlotReservationManager.Interval(start, end));
+        }
+        intervals.sort(Comparator.comparingLong(SlotReservationManager.Interval::startMillis));
+        for (int i = 1; i < intervals.size(); i++) {
+            if (intervals.get(i).startMillis() < intervals.get(i - 1).endMillis()) {
+                throw new BookingSessionException("Requested sessions overlap each other");
+            }
+        }
+        return intervals;
     }
 
-    private ConferenceData createConferenceData(CreateConferenceRequest conferenceReq) {
-        final ConferenceData conferenceData = new ConferenceData();
-        conferenceData.setCreateRequest(conferenceReq);
-        return conferenceData;
+    /**
+     * Builds the RRULE of a recurring booking, limited either by the number of lessons or by the date of the last one
+     */
+    private String prepareRecurrenceRule(final RecurringSessionDataRequest request) throws BookingSessionException {
+        if ((request.getCount() == null) == (request.getUntil() == null)) {
+            throw new BookingSessionException("Either the number of lessons or the end of the recurrence must be set");
+        }
+        final StringBuilder rule = new StringBuilder("RRULE:FREQ=").append(request.getFrequency());
+        if (request.getInterval() != null && request.getInterval() > 1) {
+            rule.append(";INTERVAL=").append(request.getInterval());
+        }
+        if (request.getByDay() != null && !request.getByDay().isEmpty()) {
+            if (!"WEEKLY".equals(request.getFrequency())) {
+                throw new BookingSessionException("Days of the week can only be set for a weekly recurrence");
+            }
+            rule.append(";BYDAY=").append(request.getByDay().stream()
+                    .sorted()
+                    .map(day -> day.name().substring(0, 2))
+                    .collect(Collectors.joining(",")));
+        }
+        if (request.getCount() != null) {
+            rule.append(";COUNT=").append(request.getCount());
+        } else {
+            try {
+                rule.append(";UNTIL=").append(RRULE_UNTIL.format(
+                        Instant.ofEpochMilli(DateTime.parseRfc3339(request.getUntil()).getValue())));
+            } catch (NumberFormatException e) {
+                throw new BookingSessionException(String.format("Invalid end of recurrence: %s", request.getUntil()));
+            }
+        }
+        return rule.toString();
     }
 
-    private EventReminder[] createReminderOverrides() {
-        return new EventReminder[]{
-                new EventReminder().setMethod("email").setMinutes(24 * 60),
-                new EventReminder().setMethod("popup").setMinutes(10),
-        };
+    /**
+     * Expands the lessons of a recurring booking the same way the availability engine expands the recurrence
+     */
+    private List<SlotReservationManager.Interval> expandRecurringLessons(final RecurringSessionDataRequest request,
+                                                                        final String recurrence) {
+        final ZoneId zone = ZoneId.of(BookingEventWriter.TIME_ZONE);
+        final CalendarEvent event = new CalendarEvent(null, "confirmed", parseSessionTime(request.getStartDate(), zone),
+                parseSessionTime(request.getEndDate(), zone), new Recurrence(List.of(recurrence), zone), null, null);
+        return RecurrenceExpander.instances(event, Long.MIN_VALUE, Long.MAX_VALUE).stream()
+                .map(lesson -> new SlotReservationManager.Interval(lesson.startMillis(), lesson.endMillis()))
+                .toList();
     }
 
-    private Calendar buildCalendarService(NetHttpTransport httpTransport) throws IOException {
-        return new Calendar.Builder(httpTransport, JSON_FACTORY, getCredentials(httpTransport))
-                .setApplicationName("IELTSWise Google API")
-                .build();
+    private static ZonedDateTime parseSessionTime(final String sessionTime, final ZoneId zone) {
+        return Instant.ofEpochMilli(DateTime.parseRfc3339(sessionTime).getValue()).atZone(zone);
     }
 
-    private SessionDataResponse prepareSessionDataResponse(final SessionDataRequest sessionData) {
-        return SessionDataResponse.builder()
+    /**
+     * Saves a pending booking together with the outbox entry from which its calendar event is created
+     */
+    private Booking saveBooking(final SessionDataRequest sessionData, final String studentName,
+                                final BookingType type, final String recurrence, final int lessons) {
+        final long now = Instant.now().toEpochMilli();
+        final Booking booking = bookingRepository.save(Booking.builder()
+                .type(type)
+                .status(BookingStatus.PENDING)
+                .tutorEmail(sessionData.getTutorEmail())
                 .studentEmail(sessionData.getStudentEmail())
-                .sessionTime(sessionData.getStartDate())
-                .eventLink(sessionData.getEventLink())
+                .studentName(studentName)
                 .requestedService(sessionData.getRequestedService())
-                .build();
+                .startDate(sessionData.getStartDate())
+                .endDate(sessionData.getEndDate())
+                .recurrence(recurrence)
+                .lessons(lessons)
+                .created(now)
+                .build());
+        calendarOutboxRepository.save(CalendarOutboxEntry.builder()
+                .bookingId(booking.getId())
+                .eventId(BookingEventWriter.eventId(booking))
+                .nextAttemptAt(now)
+                .build());
+        log.info("Accepted booking {} for student: {}", booking.getId(), studentName);
+        return booking;
     }
 
-    private String prepareEventDescription(String requestedService, String studentName) {
-        return """
-                <b>Student Name</b>\s
-                %s<br>
-                <b>Requested Service</b>\s
-                %s"""
-                .formatted(studentName, requestedService);
+    private boolean isUsedTrialLessonByStudent(String studentEmail) {
+        UserLessonData student = userLessonDataRepository.findByEmail(studentEmail);
+        return student != null && student.getUsedTrial();
     }
 
-    private static Credential getCredentials(final NetHttpTransport HTTP_TRANSPORT)
-            throws IOException {
-        final InputStream in = BookingServiceImpl.class.getResourceAsStream(CREDENTIALS_FILE_PATH);
-        if (in == null) {
-            String errorMessage = "Resource not found: " + CREDENTIALS_FILE_PATH;
-            log.error(errorMessage);
-            throw new FileNotFoundException(errorMessage);
-        }
-        final GoogleClientSecrets clientSecrets = load(JSON_FACTORY, new InputStreamReader(in));
-
-        final GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
-                HTTP_TRANSPORT, JSON_FACTORY, clientSecrets, SCOPES)
-                .setDataStoreFactory(new FileDataStoreFactory(new java.io.File(TOKENS_DIRECTORY_PATH)))
-                .setAccessType("offline")
-                .setApprovalPrompt("force")
+    private SessionDataResponse prepareSessionDataResponse(final Booking booking) {
+        return SessionDataResponse.builder()
+                .bookingId(booking.getId())
+                .status(booking.getStatus())
+                .lessons(booking.getLessons())
+                .studentEmail(booking.getStudentEmail())
+                .sessionTime(booking.getStartDate())
+                .eventLink(booking.getEventLink())
+                .requestedService(booking.getRequestedService())
                 .build();
-        final LocalServerReceiver receiver = new LocalServerReceiver.Builder().setPort(8888).build();
-        return new AuthorizationCodeInstalledApp(flow, receiver).authorize("user");
     }
 }
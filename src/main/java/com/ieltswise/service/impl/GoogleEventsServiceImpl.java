@@ -1,346 +1,379 @@
 package com.ieltswise.service.impl;
 
+import com.ieltswise.availability.FreeHours;
+import com.ieltswise.availability.FreeSlotIndex;
+import com.ieltswise.availability.MonthAvailability;
+import com.ieltswise.availability.WeeklySchedule;
+import com.ieltswise.booking.SlotReservationManager;
+import com.ieltswise.cache.AvailabilityKey;
+import com.ieltswise.cache.AvailabilitySnapshots;
+import com.ieltswise.cache.MonthEventsCache;
+import com.ieltswise.cache.MonthEventsRefresher;
+import com.ieltswise.cache.MonthEventsSnapshotFile;
+import com.ieltswise.cache.SingleFlight;
+import com.ieltswise.cache.TutorMonth;
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.CalendarEventsFetcher;
+import com.ieltswise.calendar.CalendarMirror;
 import com.ieltswise.controller.response.Event;
+import com.ieltswise.dto.AvailableSlot;
 import com.ieltswise.dto.FreeAndBusyHoursOfTheDay;
+import com.ieltswise.dto.FreeAndBusyHoursOfTheMonth;
 import com.ieltswise.dto.TimeSlot;
-import com.ieltswise.enums.Status;
 import com.ieltswise.exception.EmailNotFoundException;
 import com.ieltswise.exception.EventFetchingException;
 import com.ieltswise.repository.TutorInfoRepository;
 import com.ieltswise.service.GoogleEventsService;
 import com.ieltswise.service.ScheduleService;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.TreeMap;
+import java.util.Set;
 
-import static java.time.YearMonth.of;
-import static java.time.ZonedDateTime.parse;
-import static java.time.format.DateTimeFormatter.ISO_DATE_TIME;
-import static java.util.Locale.ROOT;
-import static org.apache.http.protocol.HTTP.USER_AGENT;
+import static com.ieltswise.availability.MonthAvailability.HOUR_MILLIS;
 
 @Slf4j
 @Service
 public class GoogleEventsServiceImpl implements GoogleEventsService {
 
-    private static final String ITEMS = "items";
-    private static final String JSON_START = "start";
-    private static final String JSON_END = "end";
-    private static final String JSON_STATUS = "status";
-    private static final String JSON_DATETIME = "dateTime";
-    private static final String JSON_DATE = "date";
-    private static final String STATUS_CANCELED = "cancelled";
-
-    @Value("${google.credentials.key}")
-    private String googleCredentialKey;
-
     private final ScheduleService scheduleService;
     private final TutorInfoRepository tutorInfoRepository;
+    private final MonthEventsCache monthEventsCache;
+    private final MonthEventsRefresher monthEventsRefresher;
+    private final MonthEventsSnapshotFile monthEventsSnapshotFile;
+    private final AvailabilitySnapshots availabilitySnapshots;
+    private final CalendarEventsFetcher calendarEventsFetcher;
+    private final CalendarMirror calendarMirror;
+    private final FreeSlotIndex freeSlotIndex;
+    private final SlotReservationManager slotReservationManager;
+    private final SingleFlight<AvailabilityKey, List<FreeAndBusyHoursOfTheDay>> monthAvailabilityFlight;
+
+    @Value("${calendar.range.max-months:12}")
+    private int maxRangeMonths;
+    @Value("${availability.next-slots.max-count:50}")
+    private int maxNextSlots;
+    @Value("${availability.next-slots.horizon-days:60}")
+    private int nextSlotsHorizonDays;
 
     @Autowired
-    public GoogleEventsServiceImpl(ScheduleService scheduleService, TutorInfoRepository tutorInfoRepository) {
+    public GoogleEventsServiceImpl(ScheduleService scheduleService, TutorInfoRepository tutorInfoRepository,
+                                   MonthEventsCache monthEventsCache, MonthEventsRefresher monthEventsRefresher,
+                                   MonthEventsSnapshotFile monthEventsSnapshotFile,
+                                   AvailabilitySnapshots availabilitySnapshots,
+                                   CalendarEventsFetcher calendarEventsFetcher,
+                                   CalendarMirror calendarMirror, FreeSlotIndex freeSlotIndex,
+                                   SlotReservationManager slotReservationManager,
+                                   SingleFlight<AvailabilityKey, List<FreeAndBusyHoursOfTheDay>>
+                                           monthAvailabilityFlight) {
         this.scheduleService = scheduleService;
         this.tutorInfoRepository = tutorInfoRepository;
+        this.monthEventsCache = monthEventsCache;
+        this.monthEventsRefresher = monthEventsRefresher;
+        this.monthEventsSnapshotFile = monthEventsSnapshotFile;
+        this.availabilitySnapshots = availabilitySnapshots;
+        this.calendarEventsFetcher = calendarEventsFetcher;
+        this.calendarMirror = calendarMirror;
+        this.freeSlotIndex = freeSlotIndex;
+        this.slotReservationManager = slotReservationManager;
+        this.monthAvailabilityFlight = monthAvailabilityFlight;
     }
 
     @Override
     public List<Event> getEvents(String tutorID) throws EmailNotFoundException, EventFetchingException {
         isTutorRegistered(tutorID);
-        try {
-            URL obj = new URL("https://www.googleapis.com/calendar/v3/calendars/" + tutorID
-                    + "/events?key=" + googleCredentialKey);
-            return extractEvents(createJSONObjectResponse(obj).getJSONArray(ITEMS));
-        } catch (IOException e) {
-            log.error("Failed to fetch events for tutor ID: {}", tutorID, e);
-            throw new EventFetchingException(e.getMessage());
+        Instant now = Instant.now();
+        if (calendarMirror.isEnabled()) {
+            return extractEvents(calendarMirror.getEvents(tutorID, now, null));
         }
+        return extractEvents(calendarEventsFetcher.fetch(tutorID, now, null));
+    }
+
+    @Override
+    public List<String> getFreeTutors(ZonedDateTime from, ZonedDateTime to) {
+        long fromMillis = from.toInstant().toEpochMilli();
+        long toMillis = to.toInstant().toEpochMilli();
+        return freeSlotIndex.findFreeTutors(from.toInstant(), to.toInstant()).stream()
+                .filter(tutor -> !slotReservationManager.isHeld(tutor, fromMillis, toMillis))
+                .toList();
+    }
+
+    @Override
+    public List<AvailableSlot> getNextAvailableSlots(String tutorId, Instant after, int count)
+            throws EmailNotFoundException, EventFetchingException {
+
+        if (count < 1 || count > maxNextSlots) {
+            throw new IllegalArgumentException(String.format("Number of slots must be from 1 to %d", maxNextSlots));
+        }
+        isTutorRegistered(tutorId);
+        WeeklySchedule schedule = WeeklySchedule.of(scheduleService.getSchedulesTutor(tutorId).getTimeInfo());
+
+        long fromHour = Math.floorDiv(after.toEpochMilli() + HOUR_MILLIS - 1, HOUR_MILLIS);
+        long horizonHour = fromHour + nextSlotsHorizonDays * 24L;
+        List<AvailableSlot> slots = new ArrayList<>(count);
+        // the window starts with a day and doubles up to a week, a fully booked tutor costs few calendar requests
+        long windowHours = 24;
+        for (long windowStart = fromHour; slots.size() < count && windowStart < horizonHour; ) {
+            long windowEnd = Math.min(horizonHour, windowStart + windowHours);
+            List<CalendarEvent> events = getWindowEvents(tutorId, Instant.ofEpochMilli(windowStart * HOUR_MILLIS),
+                    Instant.ofEpochMilli(windowEnd * HOUR_MILLIS));
+            Set<Long> held = slotReservationManager.heldHours(tutorId, windowStart * HOUR_MILLIS,
+                    windowEnd * HOUR_MILLIS);
+            for (long hour : FreeHours.find(windowStart, windowEnd, events, schedule,
+                    count - slots.size() + held.size())) {
+                if (!held.contains(hour) && slots.size() < count) {
+                    slots.add(new AvailableSlot(hour * HOUR_MILLIS, (hour + 1) * HOUR_MILLIS));
+                }
+            }
+            windowStart = windowEnd;
+            windowHours = Math.min(windowHours * 2, 7 * 24);
+        }
+        return slots;
+    }
+
+    /**
+     * Shows the hours held by students who are booking them as unavailable, the cached days are not changed
+     */
+    private List<FreeAndBusyHoursOfTheDay> markHeldHours(String tutorId, List<FreeAndBusyHoursOfTheDay> days) {
+        if (days.isEmpty()) {
+            return days;
+        }
+        FreeAndBusyHoursOfTheDay lastDay = days.get(days.size() - 1);
+        long from = days.get(0).getDate();
+        long to = lastDay.getDate() + lastDay.getTime().size() * HOUR_MILLIS;
+        return MonthAvailability.markUnavailable(days, slotReservationManager.heldHours(tutorId, from, to));
+    }
+
+    private List<CalendarEvent> getWindowEvents(String tutorId, Instant from, Instant to)
+            throws EventFetchingException {
+        return calendarMirror.isEnabled()
+                ? calendarMirror.getEvents(tutorId, from, to)
+                : calendarEventsFetcher.fetch(tutorId, from, to);
     }
 
     private void isTutorRegistered(String email) throws EmailNotFoundException {
         tutorInfoRepository.findByEmail(email).orElseThrow(() -> new EmailNotFoundException("Tutor", email));
     }
 
-    private List<Event> extractEvents(JSONArray eventItems) {
+    /**
+     * @param calendarEvents events read from the calendar
+     * @return not cancelled events as returned to the client
+     */
+    public static List<Event> extractEvents(List<CalendarEvent> calendarEvents) {
         List<Event> events = new ArrayList<>();
-        for (int i = 0; i < eventItems.length(); i++) {
-            JSONObject eventItem = eventItems.getJSONObject(i);
-            if (!eventItem.getString(JSON_STATUS).equals(STATUS_CANCELED)) {
-
-                JSONObject start = eventItem.getJSONObject(JSON_START);
-                JSONObject end = eventItem.getJSONObject(JSON_END);
-
+        for (CalendarEvent calendarEvent : calendarEvents) {
+            if (!calendarEvent.isCancelled()) {
                 Event event = new Event();
-                event.setStartDate(extractDate(start));
-                event.setEndDate(extractDate(end));
-                event.setStatus(eventItem.getString(JSON_STATUS));
+                event.setStartDate(calendarEvent.start());
+                event.setEndDate(calendarEvent.end());
+                event.setStatus(calendarEvent.status());
                 events.add(event);
             }
         }
         return events;
     }
 
-    private ZonedDateTime extractDate(JSONObject dateTime) {
-        if (dateTime.toMap().get(JSON_DATETIME) != null) {
-            DateTimeFormatter formatter = new DateTimeFormatterBuilder()
-                    .append(ISO_DATE_TIME)
-                    .toFormatter(ROOT);
-            return parse(dateTime.getString(JSON_DATETIME), formatter);
-        } else if (dateTime.toMap().get(JSON_DATE) != null) {
-            LocalDate localDate = LocalDate.parse(dateTime.getString(JSON_DATE));
-            return localDate.atStartOfDay(ZoneId.of("UTC"));
+    @Override
+    public List<FreeAndBusyHoursOfTheDay> getEventsByYearAndMonth(String tutorId, int year, int month, ZoneId zone)
+            throws EmailNotFoundException, EventFetchingException {
+
+        AvailabilityKey key = new AvailabilityKey(TutorMonth.of(tutorId, year, month), zone);
+        try {
+            return markHeldHours(tutorId, monthAvailabilityFlight.execute(key, () -> computeMonth(key)));
+        } catch (EventFetchingException e) {
+            List<FreeAndBusyHoursOfTheDay> stale = availabilitySnapshots.getStale(key);
+            if (stale == null) {
+                throw e;
+            }
+            log.warn("Serving stale availability of tutor {} for {}: {}", tutorId, key.tutorMonth().month(),
+                    e.getMessage());
+            return markHeldHours(tutorId, stale);
+        } catch (EmailNotFoundException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<FreeAndBusyHoursOfTheDay> computeMonth(AvailabilityKey key)
+            throws EmailNotFoundException, EventFetchingException {
+
+        String tutorId = key.tutorMonth().tutorId();
+        YearMonth month = key.tutorMonth().month();
+        isTutorRegistered(tutorId);
+        WeeklySchedule schedule = WeeklySchedule.of(scheduleService.getSchedulesTutor(tutorId).getTimeInfo());
+
+        YearMonth first = firstUtcMonth(month, key.zone());
+        YearMonth last = lastUtcMonth(month, key.zone());
+        List<CalendarEvent> events = getMonthEvents(new TutorMonth(tutorId, first));
+        if (!first.equals(last)) {
+            events = new ArrayList<>(events);
+            for (YearMonth utcMonth = first.plusMonths(1); !utcMonth.isAfter(last); utcMonth = utcMonth.plusMonths(1)) {
+                events.addAll(getMonthEvents(new TutorMonth(tutorId, utcMonth)));
+            }
         }
-        return null;
+        List<FreeAndBusyHoursOfTheDay> days = MonthAvailability.of(month, key.zone(), events, schedule)
+                .toFreeAndBusyHours();
+        availabilitySnapshots.put(key, days);
+        return days;
     }
 
     @Override
-    public List<FreeAndBusyHoursOfTheDay> getEventsByYearAndMonth(String tutorId, int year, int month)
+    public List<FreeAndBusyHoursOfTheMonth> getEventsByYearMonthRange(String tutorId, YearMonth from, YearMonth to,
+                                                                      ZoneId zone)
             throws EmailNotFoundException, EventFetchingException {
 
+        if (from.isAfter(to) || from.plusMonths(maxRangeMonths).isBefore(to.plusMonths(1))) {
+            throw new IllegalArgumentException(String.format("Range from %s to %s must contain from 1 to %d months",
+                    from, to, maxRangeMonths));
+        }
         isTutorRegistered(tutorId);
-        Map<DayOfWeek, List<TimeSlot>> schedule = scheduleService.getSchedulesTutor(tutorId).getTimeInfo();
+        WeeklySchedule schedule = WeeklySchedule.of(scheduleService.getSchedulesTutor(tutorId).getTimeInfo());
 
-        try {
-            ZonedDateTime startOfMonth = of(year, month).atDay(1).atStartOfDay(ZoneId.of("UTC"));
-            ZonedDateTime endOfMonth = of(year, month).atEndOfMonth().atStartOfDay(ZoneId.of("UTC"));
-
-            URL url = new URL(createUrl(tutorId, startOfMonth, endOfMonth));
-            return findAllEventsByYearAndMonth(createJSONObjectResponse(url).getJSONArray(ITEMS), startOfMonth,
-                    endOfMonth, schedule);
-        } catch (IOException e) {
-            log.error("Failed to fetch events for tutor ID: {}, year: {}, month: {}", tutorId, year, month, e);
-            throw new EventFetchingException(e.getMessage());
+        Map<YearMonth, List<CalendarEvent>> eventsByUtcMonth =
+                getRangeEvents(tutorId, firstUtcMonth(from, zone), lastUtcMonth(to, zone));
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month);
         }
+        return months.parallelStream()
+                .map(month -> FreeAndBusyHoursOfTheMonth.builder()
+                        .year(month.getYear())
+                        .month(month.getMonthValue())
+                        .days(markHeldHours(tutorId, findAllEventsByYearAndMonth(
+                                eventsOfUtcMonths(eventsByUtcMonth, month, zone), month, zone, schedule)))
+                        .build())
+                .toList();
     }
 
-    private JSONObject createJSONObjectResponse(URL obj) throws IOException {
-        HttpURLConnection con = (HttpURLConnection) obj.openConnection();
-        con.setRequestMethod("GET");
-        con.setRequestProperty("User-Agent", USER_AGENT);
-        BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream()));
-        String inputLine;
-        StringBuilder response = new StringBuilder();
-        while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
+    /**
+     * A local month overlaps the neighbouring UTC months by the zone offset, its events are those of all of them
+     */
+    private static List<CalendarEvent> eventsOfUtcMonths(Map<YearMonth, List<CalendarEvent>> eventsByUtcMonth,
+                                                         YearMonth month, ZoneId zone) {
+        YearMonth first = firstUtcMonth(month, zone);
+        YearMonth last = lastUtcMonth(month, zone);
+        if (first.equals(last)) {
+            return eventsByUtcMonth.get(first);
+        }
+        List<CalendarEvent> events = new ArrayList<>();
+        for (YearMonth utcMonth = first; !utcMonth.isAfter(last); utcMonth = utcMonth.plusMonths(1)) {
+            events.addAll(eventsByUtcMonth.get(utcMonth));
         }
-        in.close();
-        return new JSONObject(response.toString());
+        return events;
     }
 
-    private String createUrl(String tutorId, ZonedDateTime startOfMonth, ZonedDateTime endOfMonth) {
-        String formattedTimeMin = DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(startOfMonth);
-        String formattedTimeMax = DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(endOfMonth);
-        String encodedTimeMin = URLEncoder.encode(formattedTimeMin, StandardCharsets.UTF_8);
-        String encodedTimeMax = URLEncoder.encode(formattedTimeMax, StandardCharsets.UTF_8);
-        String apiUrl = "https://www.googleapis.com/calendar/v3/calendars/" + tutorId + "/events";
-        return apiUrl + "?timeMin=" + encodedTimeMin + "&timeMax=" + encodedTimeMax + "&key=" + googleCredentialKey;
+    // a local month overlaps the neighbouring UTC months by the zone offset
+    private static YearMonth firstUtcMonth(YearMonth month, ZoneId zone) {
+        return YearMonth.from(month.atDay(1).atStartOfDay(zone).withZoneSameInstant(ZoneOffset.UTC));
     }
 
-    private List<FreeAndBusyHoursOfTheDay> findAllEventsByYearAndMonth(JSONArray eventsArray,
-                                                                       ZonedDateTime startOfMonth,
-                                                                       ZonedDateTime endOfMonth,
-                                                                       Map<DayOfWeek, List<TimeSlot>> schedule) {
-
-        TreeMap<Long, TreeMap<Long, Status>> dateClockStatus = new TreeMap<>();
-        TreeMap<Long, Status> hourStatus;
-
-        for (int i = 0; i < eventsArray.length(); i++) {
-
-            JSONObject eventItem = eventsArray.getJSONObject(i);
-
-            if (!eventItem.getString(JSON_STATUS).equals(STATUS_CANCELED)) {
-
-                JSONObject start = eventItem.getJSONObject(JSON_START);
-                JSONObject end = eventItem.getJSONObject(JSON_END);
-
-                ZonedDateTime eventStartDate = extractDate(start);
-                ZonedDateTime eventEndDate = extractDate(end);
-
-                TreeMap<Long, TreeMap<Long, Status>> temporarily = new TreeMap<>();
-
-                ZonedDateTime eventUtcStartDate = Objects.requireNonNull(eventStartDate)
-                        .withZoneSameInstant(ZoneOffset.UTC);
-                ZonedDateTime eventUtcEndDate = Objects.requireNonNull(eventEndDate)
-                        .withZoneSameInstant(ZoneOffset.UTC);
-
-                Instant instant = eventUtcStartDate.toLocalDate().atStartOfDay(ZoneOffset.UTC).toInstant();
-                long day = instant.toEpochMilli();
-
-                hourStatus = new TreeMap<>();
-
-                ZonedDateTime check = eventUtcStartDate.toLocalDate().atStartOfDay().atZone(eventUtcStartDate.getZone())
-                        .plusDays(1).minusSeconds(1);
-
-                while (eventUtcStartDate.isBefore(eventUtcEndDate)) {
-
-                    if (eventUtcStartDate.isAfter(check)) {
-                        temporarily.put(day, hourStatus);
-                        instant = eventUtcStartDate.toInstant();
-                        day = instant.toEpochMilli();
-                        hourStatus = new TreeMap<>();
-                        check = eventUtcStartDate.toLocalDate().atStartOfDay().atZone(eventUtcStartDate.getZone())
-                                .plusDays(1).minusSeconds(1);
-                    }
-                    ZonedDateTime utcDateTime = eventUtcStartDate.withMinute(0)
-                            .withZoneSameInstant(java.time.ZoneOffset.UTC);
-
-                    Long timestamp = utcDateTime.toEpochSecond() * 1000;
-
-                    hourStatus.put(timestamp, Status.BOOKED);
-
-                    if (eventUtcStartDate.withMinute(0).equals(Objects.requireNonNull(eventUtcEndDate).withMinute(0)))
-                        break;
-
-                    eventUtcStartDate = eventUtcStartDate.withMinute(0).plusHours(1);
-                }
-
-                temporarily.put(day, hourStatus);
-
-                for (Map.Entry<Long, TreeMap<Long, Status>> entry : temporarily.entrySet()) {
-                    Long outerKey = entry.getKey();
-                    TreeMap<Long, Status> innerMap = entry.getValue();
-
-                    if (dateClockStatus.containsKey(outerKey)) {
-                        TreeMap<Long, Status> existingValuesTime = dateClockStatus.get(outerKey);
-                        existingValuesTime.putAll(innerMap);
-                    } else {
-                        dateClockStatus.put(outerKey, innerMap);
-                    }
+    private static YearMonth lastUtcMonth(YearMonth month, ZoneId zone) {
+        return YearMonth.from(month.plusMonths(1).atDay(1).atStartOfDay(zone).withZoneSameInstant(ZoneOffset.UTC)
+                .minusNanos(1));
+    }
 
+    /**
+     * Takes the cached months as they are and fetches the span between the first and the last missing month
+     * with a single windowed query
+     */
+    private Map<YearMonth, List<CalendarEvent>> getRangeEvents(String tutorId, YearMonth from, YearMonth to)
+            throws EventFetchingException {
+        Map<YearMonth, List<CalendarEvent>> eventsByMonth = new LinkedHashMap<>();
+        Map<YearMonth, Long> generations = new HashMap<>();
+        YearMonth firstMissing = null;
+        YearMonth lastMissing = null;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            List<CalendarEvent> events = calendarMirror.isEnabled() ? null
+                    : getCachedEvents(new TutorMonth(tutorId, month), false);
+            eventsByMonth.put(month, events);
+            if (events == null) {
+                if (!calendarMirror.isEnabled()) {
+                    generations.put(month, monthEventsCache.generation(new TutorMonth(tutorId, month)));
                 }
+                firstMissing = firstMissing == null ? month : firstMissing;
+                lastMissing = month;
             }
         }
+        if (firstMissing == null) {
+            return eventsByMonth;
+        }
 
-
-        for (ZonedDateTime dateOne = startOfMonth.with(LocalTime.MIDNIGHT); !dateOne.isAfter(endOfMonth);
-             dateOne = dateOne.plusDays(1)) {
-
-            Long dateToCheck = dateOne.toInstant().toEpochMilli();
-            ZonedDateTime utcDateTime = Instant.ofEpochMilli(dateToCheck).atZone(ZoneId.of("UTC"));
-
-            hourStatus = getTutorSchedule(utcDateTime, schedule);
-            if (dateClockStatus.containsKey(dateToCheck)) {
-                TreeMap<Long, Status> existingValuesTime = dateClockStatus.get(dateToCheck);
-                existingValuesTime.putAll(hourStatus);
-                dateClockStatus.put(dateToCheck, existingValuesTime);
-            } else
-                dateClockStatus.put(dateToCheck, hourStatus);
-
-            if (dateClockStatus.containsKey(dateToCheck)) {
-
-                TreeMap<Long, Status> existingValuesTime = dateClockStatus.get(dateToCheck);
-
-                for (int i = 0; i < 24; i++) {
-
-                    ZonedDateTime currentHour = dateOne.withHour(i);
-                    Instant instant = currentHour.toInstant();
-                    Long timestamp = instant.toEpochMilli();
-
-                    if (!existingValuesTime.containsKey(timestamp)) {
-                        existingValuesTime.put(timestamp, Status.AVAILABLE);
-                    }
-                }
-            } else {
-                hourStatus = new TreeMap<>();
-                for (int i = 0; i < 24; i++) {
-                    ZonedDateTime currentHour = dateOne.withHour(i);
-                    Instant instant = currentHour.toInstant();
-                    Long timestamp = instant.toEpochMilli();
-                    hourStatus.put(timestamp, Status.AVAILABLE);
+        Instant spanStart = startOf(firstMissing);
+        Instant spanEnd = startOf(lastMissing.plusMonths(1));
+        List<CalendarEvent> spanEvents = calendarMirror.isEnabled()
+                ? calendarMirror.getEvents(tutorId, spanStart, spanEnd)
+                : calendarEventsFetcher.fetch(tutorId, spanStart, spanEnd);
+        for (Map.Entry<YearMonth, List<CalendarEvent>> entry : eventsByMonth.entrySet()) {
+            if (entry.getValue() == null) {
+                long monthStart = startOf(entry.getKey()).toEpochMilli();
+                long monthEnd = startOf(entry.getKey().plusMonths(1)).toEpochMilli();
+                List<CalendarEvent> monthEvents = spanEvents.stream()
+                        .filter(event -> event.isBusyBetween(monthStart, monthEnd))
+                        .toList();
+                if (!calendarMirror.isEnabled()) {
+                    monthEventsCache.put(new TutorMonth(tutorId, entry.getKey()), monthEvents,
+                            generations.get(entry.getKey()));
                 }
-                dateClockStatus.put(dateToCheck, hourStatus);
+                entry.setValue(monthEvents);
             }
         }
-        return getAllHoursAndTheirStatusForAllDaysOfTheMonth(dateClockStatus);
+        return eventsByMonth;
     }
 
-
-    private TreeMap<Long, Status> getTutorSchedule(ZonedDateTime utcDateTime, Map<DayOfWeek,
-            List<TimeSlot>> schedule) {
-
-        TreeMap<Long, Status> hourStatus = new TreeMap<>();
-        DayOfWeek dayOfWeek = utcDateTime.getDayOfWeek();
-
-        List<TimeSlot> daySchedule;
-        daySchedule = schedule.get(dayOfWeek);
-
-        for (int i = 0; i < 24; i++) {
-            getOccupiedHours(daySchedule, i, utcDateTime, hourStatus);
+    private List<CalendarEvent> getMonthEvents(TutorMonth key) throws EventFetchingException {
+        if (calendarMirror.isEnabled()) {
+            return calendarMirror.getEvents(key.tutorId(), startOf(key.month()), startOf(key.month().plusMonths(1)));
         }
-        return hourStatus;
+        return getCachedEvents(key, true);
     }
 
-
-    private void getOccupiedHours(List<TimeSlot> daySchedule, int i, ZonedDateTime utcDateTime,
-                                  TreeMap<Long, Status> hourStatus) {
-
-        TimeSlot timeSlot = daySchedule.get(i);
-
-        if (timeSlot.isEngaged()) {
-            LocalTime localTime = LocalTime.parse(timeSlot.getTime());
-            long clock = localTime.atDate(LocalDate.from(utcDateTime))
-                    .atZone(ZoneOffset.UTC)
-                    .toInstant()
-                    .toEpochMilli();
-
-            hourStatus.put(clock, Status.UNAVAILABLE);
+    /**
+     * Serves cached events even when they are stale, scheduling a background refresh for them.
+     * Only a month that is missing or past the hard time to live is loaded by the caller.
+     */
+    private List<CalendarEvent> getCachedEvents(TutorMonth key, boolean loadMissing) throws EventFetchingException {
+        MonthEventsCache.CachedEvents cached = monthEventsCache.lookup(key);
+        if (cached == null) {
+            List<CalendarEvent> restored = monthEventsSnapshotFile.restore(key);
+            if (restored != null) {
+                monthEventsRefresher.refresh(key);
+                return restored;
+            }
+            return loadMissing ? monthEventsRefresher.load(key) : null;
+        }
+        if (cached.stale()) {
+            monthEventsRefresher.refresh(key);
         }
+        return cached.events();
     }
 
+    private static Instant startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
 
-    private List<FreeAndBusyHoursOfTheDay> getAllHoursAndTheirStatusForAllDaysOfTheMonth(TreeMap<Long, TreeMap<Long,
-            Status>> dateClockStatus) {
-
-        List<FreeAndBusyHoursOfTheDay> eventsOfMonth = new ArrayList<>();
-
-        FreeAndBusyHoursOfTheDay eventsOfDay;
-
-        List<Map<String, Object>> informationAboutAllHoursOfTheDay;
-
-        Map<String, Object> hourStatus;
+    private List<FreeAndBusyHoursOfTheDay> findAllEventsByYearAndMonth(List<CalendarEvent> events,
+                                                                       YearMonth yearMonth,
+                                                                       Map<DayOfWeek, List<TimeSlot>> schedule) {
+        return findAllEventsByYearAndMonth(events, yearMonth, ZoneOffset.UTC, WeeklySchedule.of(schedule));
+    }
 
-        for (Map.Entry<Long, TreeMap<Long, Status>> entry1 : dateClockStatus.entrySet()) {
-            Long dateKey = entry1.getKey();
-            TreeMap<Long, Status> hoursAndTheirStatus = entry1.getValue();
-            informationAboutAllHoursOfTheDay = new ArrayList<>();
-            for (Map.Entry<Long, Status> entry2 : hoursAndTheirStatus.entrySet()) {
-                Long hourKey = entry2.getKey();
-                Status status = entry2.getValue();
-                hourStatus = new HashMap<>();
-                hourStatus.put("time", hourKey);
-                hourStatus.put("status", status);
-                informationAboutAllHoursOfTheDay.add(hourStatus);
-            }
-            eventsOfDay = new FreeAndBusyHoursOfTheDay();
-            eventsOfDay.setDate(dateKey);
-            eventsOfDay.setTime(informationAboutAllHoursOfTheDay);
-            eventsOfMonth.add(eventsOfDay);
-        }
-        return eventsOfMonth;
+    private List<FreeAndBusyHoursOfTheDay> findAllEventsByYearAndMonth(List<CalendarEvent> events,
+                                                                       YearMonth yearMonth,
+                                                                       ZoneId zone,
+                                                                       WeeklySchedule schedule) {
+        return MonthAvailability.of(yearMonth, zone, events, schedule).toFreeAndBusyHours();
     }
 }
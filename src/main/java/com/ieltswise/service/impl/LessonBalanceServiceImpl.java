@@ -0,0 +1,108 @@
+package com.ieltswise.service.impl;
+
+import com.ieltswise.entity.UserLessonData;
+import com.ieltswise.repository.UserLessonDataRepository;
+import com.ieltswise.service.LessonBalanceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+
+/**
+ * Changes the students' lesson balances with conditional atomic updates.
+ * <p>
+ * A balance is never read and written back: every change is a single UPDATE which checks its own condition, such
+ * as enough lessons being available, so concurrent bookings and payments neither lose a change nor book a lesson the
+ * student does not have, and the row is locked only for the statement. Every update also increments the version of
+ * {@link UserLessonData}, so that an entity saved from a stale copy fails instead of overwriting the balance.
+ * <p>
+ * The balance of a new student is created in a transaction of its own. When two requests create it at the same time,
+ * the one that loses hits the unique email constraint and retries the update, at most
+ * {@code booking.balance.max-attempts} times.
+ */
+@Slf4j
+@Service
+public class LessonBalanceServiceImpl implements LessonBalanceService {
+
+    private final UserLessonDataRepository userLessonDataRepository;
+    private final TransactionTemplate newTransaction;
+    private final int maxAttempts;
+
+    @Autowired
+    public LessonBalanceServiceImpl(UserLessonDataRepository userLessonDataRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${booking.balance.max-attempts:3}") int maxAttempts) {
+        this(userLessonDataRepository, new TransactionTemplate(transactionManager), maxAttempts);
+    }
+
+    LessonBalanceServiceImpl(UserLessonDataRepository userLessonDataRepository, TransactionTemplate newTransaction,
+                             int maxAttempts) {
+        this.userLessonDataRepository = userLessonDataRepository;
+        this.newTransaction = newTransaction;
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public boolean takeLessons(String email, int lessons) {
+        return userLessonDataRepository.takeLessons(email, lessons, new Date()) == 1;
+    }
+
+    @Override
+    public void giveBackLessons(String email, int lessons) {
+        if (userLessonDataRepository.giveBackLessons(email, lessons) == 0) {
+            log.warn("Failed to give {} lessons back, student {} not found", lessons, email);
+        }
+    }
+
+    @Override
+    public void addPaidLessons(String email, int lessons) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (userLessonDataRepository.addPaidLessons(email, lessons) == 1) {
+                return;
+            }
+            createBalance(email, null);
+        }
+        throw new IllegalStateException(String.format("Failed to add %d lessons to the balance of student %s",
+                lessons, email));
+    }
+
+    @Override
+    public boolean useTrial(String email, String name) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (userLessonDataRepository.useTrial(email, name, new Date()) == 1) {
+                return true;
+            }
+            if (userLessonDataRepository.findByEmail(email) != null) {
+                return false;
+            }
+            createBalance(email, name);
+        }
+        throw new IllegalStateException(String.format("Failed to take the trial lesson of student %s", email));
+    }
+
+    @Override
+    public void restoreTrial(String email) {
+        if (userLessonDataRepository.restoreTrial(email) == 0) {
+            log.warn("Failed to restore the trial lesson, student {} not found", email);
+        }
+    }
+
+    private void createBalance(String email, String name) {
+        final UserLessonData balance = new UserLessonData();
+        balance.setEmail(email);
+        balance.setName(name);
+        balance.setUsedTrial(false);
+        try {
+            newTransaction.executeWithoutResult(status -> userLessonDataRepository.saveAndFlush(balance));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Balance of student {} has been created concurrently, retrying", email);
+        }
+    }
+}
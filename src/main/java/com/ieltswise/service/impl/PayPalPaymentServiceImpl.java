@@ -1,11 +1,14 @@
 package com.ieltswise.service.impl;
 
 import com.ieltswise.entity.PaymentCredentials;
+import com.ieltswise.entity.ProcessedPayment;
 import com.ieltswise.entity.UserLessonData;
 import com.ieltswise.exception.EmailNotFoundException;
 import com.ieltswise.repository.PaymentCredentialsRepository;
+import com.ieltswise.repository.ProcessedPaymentRepository;
 import com.ieltswise.repository.TutorInfoRepository;
 import com.ieltswise.repository.UserLessonDataRepository;
+import com.ieltswise.service.LessonBalanceService;
 import com.ieltswise.service.PayPalPaymentService;
 import com.paypal.api.payments.Amount;
 import com.paypal.api.payments.Links;
@@ -19,10 +22,12 @@ import com.paypal.base.rest.PayPalRESTException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -37,14 +42,20 @@ public class PayPalPaymentServiceImpl implements PayPalPaymentService {
     private final UserLessonDataRepository userLessonDataRepository;
     private final PaymentCredentialsRepository paymentCredentialsRepository;
     private final TutorInfoRepository tutorInfoRepository;
+    private final LessonBalanceService lessonBalanceService;
+    private final ProcessedPaymentRepository processedPaymentRepository;
 
     @Autowired
     public PayPalPaymentServiceImpl(UserLessonDataRepository userLessonDataRepository,
                                     PaymentCredentialsRepository paymentCredentialsRepository,
-                                    TutorInfoRepository tutorInfoRepository) {
+                                    TutorInfoRepository tutorInfoRepository,
+                                    LessonBalanceService lessonBalanceService,
+                                    ProcessedPaymentRepository processedPaymentRepository) {
         this.userLessonDataRepository = userLessonDataRepository;
         this.paymentCredentialsRepository = paymentCredentialsRepository;
         this.tutorInfoRepository = tutorInfoRepository;
+        this.lessonBalanceService = lessonBalanceService;
+        this.processedPaymentRepository = processedPaymentRepository;
     }
 
     @Override
@@ -129,31 +140,41 @@ public class PayPalPaymentServiceImpl implements PayPalPaymentService {
             String payerId,
             String tutorEmail) throws PayPalRESTException {
 
-        PaymentCredentials credentials = verifyPaymentNotCompleted(paymentId, tutorEmail);
+        APIContext apiContext = getAPIContext(tutorEmail);
+        ProcessedPayment processedPayment = markPaymentProcessed(paymentId, tutorEmail);
 
         Payment payment = new Payment();
         payment.setId(paymentId);
         PaymentExecution paymentExecution = new PaymentExecution();
         paymentExecution.setPayerId(payerId);
 
-        Payment executedPayment = payment.execute(getAPIContext(tutorEmail), paymentExecution);
+        Payment executedPayment;
+        try {
+            executedPayment = payment.execute(apiContext, paymentExecution);
+        } catch (PayPalRESTException | RuntimeException e) {
+            // the payment was not executed, so it can be tried again
+            processedPaymentRepository.delete(processedPayment);
+            throw e;
+        }
         getQuantityAndEmail(executedPayment);
 
-        credentials.setPaymentId(paymentId);
-        paymentCredentialsRepository.save(credentials);
-
         return executedPayment;
     }
 
-    private PaymentCredentials verifyPaymentNotCompleted(String paymentId, String tutorEmail)
-            throws PayPalRESTException {
-        PaymentCredentials paymentCredentials = paymentCredentialsRepository.findByTutorEmail(tutorEmail)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        String.format("Payment credentials not found for tutorEmail: %s", tutorEmail)));
-        if (paymentId.equals(paymentCredentials.getPaymentId())) {
+    /**
+     * Records the payment before it is executed, the unique payment identifier lets only one of concurrent or
+     * repeated requests execute it
+     */
+    private ProcessedPayment markPaymentProcessed(String paymentId, String tutorEmail) throws PayPalRESTException {
+        try {
+            return processedPaymentRepository.saveAndFlush(ProcessedPayment.builder()
+                    .paymentId(paymentId)
+                    .tutorEmail(tutorEmail)
+                    .processedAt(Instant.now().toEpochMilli())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
             throw new PayPalRESTException("Payment has been done already for this cart.");
         }
-        return paymentCredentials;
     }
 
     private void getQuantityAndEmail(Payment executedPayment) {
@@ -166,20 +187,6 @@ public class PayPalPaymentServiceImpl implements PayPalPaymentService {
     }
 
     private void updateUserLessonCount(String email, int quantity) {
-        UserLessonData userLessonData = userLessonDataRepository.findByEmail(email);
-        if (userLessonData != null) {
-            int availableLessons = userLessonData.getAvailableLessons() + quantity;
-            int allLessons = userLessonData.getAllPaidLessons() + quantity;
-            userLessonData.setAvailableLessons(availableLessons);
-            userLessonData.setAllPaidLessons(allLessons);
-            userLessonDataRepository.save(userLessonData);
-        } else {
-            UserLessonData newUserLessonData = new UserLessonData();
-            newUserLessonData.setEmail(email);
-            newUserLessonData.setUsedTrial(false);
-            newUserLessonData.setAvailableLessons(quantity);
-            newUserLessonData.setAllPaidLessons(quantity);
-            userLessonDataRepository.save(newUserLessonData);
-        }
+        lessonBalanceService.addPaidLessons(email, quantity);
     }
 }
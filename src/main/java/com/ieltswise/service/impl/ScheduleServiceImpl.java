@@ -2,10 +2,12 @@ package com.ieltswise.service.impl;
 
 import com.ieltswise.dto.TimeSlot;
 import com.ieltswise.entity.Schedule;
+import com.ieltswise.event.ScheduleUpdatedEvent;
 import com.ieltswise.exception.EmailNotFoundException;
 import com.ieltswise.repository.ScheduleRepository;
 import com.ieltswise.service.ScheduleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
@@ -15,10 +17,12 @@ import java.util.Map;
 @Service
 public class ScheduleServiceImpl implements ScheduleService {
     private final ScheduleRepository scheduleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ScheduleServiceImpl(ScheduleRepository scheduleRepository) {
+    public ScheduleServiceImpl(ScheduleRepository scheduleRepository, ApplicationEventPublisher eventPublisher) {
         this.scheduleRepository = scheduleRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -31,7 +35,9 @@ public class ScheduleServiceImpl implements ScheduleService {
             throws EmailNotFoundException {
         Schedule existingSchedule = getScheduleByEmail(email);
         existingSchedule.setTimeInfo(updatedTimeInfo);
-        return scheduleRepository.save(existingSchedule);
+        Schedule savedSchedule = scheduleRepository.save(existingSchedule);
+        eventPublisher.publishEvent(new ScheduleUpdatedEvent(email, updatedTimeInfo));
+        return savedSchedule;
     }
 
     private Schedule getScheduleByEmail(String email) throws EmailNotFoundException {
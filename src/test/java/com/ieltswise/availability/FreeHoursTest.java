@@ -0,0 +1,53 @@
+package com.ieltswise.availability;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.dto.TimeSlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.ieltswise.availability.MonthAvailability.HOUR_MILLIS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FreeHoursTest {
+
+    // Monday, February 3, 2025 18:00 UTC
+    private final long monday18 = Instant.parse("2025-02-03T18:00:00Z").toEpochMilli() / HOUR_MILLIS;
+
+    @Test
+    public void testFindSkipsEngagedAndBusyHoursAndStopsAtLimit() {
+
+        // Given
+        WeeklySchedule schedule = WeeklySchedule.of(Map.of(DayOfWeek.MONDAY, List.of(new TimeSlot("18:00", true))));
+        List<CalendarEvent> events = List.of(
+                event("2025-02-03T19:30:00Z", "2025-02-03T20:15:00Z"),
+                event("2025-02-03T22:00:00Z", "2025-02-03T23:00:00Z"));
+
+        // When
+        List<Long> free = FreeHours.find(monday18, monday18 + 24, events, schedule, 3);
+
+        // Then
+        assertEquals(List.of(monday18 + 3, monday18 + 5, monday18 + 6), free);
+    }
+
+    @Test
+    public void testFindIgnoresEventsOutsideOfHours() {
+
+        // Given
+        List<CalendarEvent> events = List.of(event("2025-02-01T00:00:00Z", "2025-02-03T19:00:00Z"));
+
+        // When
+        List<Long> free = FreeHours.find(monday18, monday18 + 2, events, WeeklySchedule.of(null), 10);
+
+        // Then
+        assertEquals(List.of(monday18 + 1), free);
+    }
+
+    private static CalendarEvent event(String start, String end) {
+        return new CalendarEvent(start, "confirmed", ZonedDateTime.parse(start), ZonedDateTime.parse(end));
+    }
+}
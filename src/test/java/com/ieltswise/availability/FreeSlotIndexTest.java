@@ -0,0 +1,135 @@
+package com.ieltswise.availability;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.CalendarEventsFetcher;
+import com.ieltswise.calendar.CalendarMirror;
+import com.ieltswise.calendar.CalendarQuery.Priority;
+import com.ieltswise.dto.TimeSlot;
+import com.ieltswise.entity.Schedule;
+import com.ieltswise.entity.TutorInfo;
+import com.ieltswise.event.ScheduleUpdatedEvent;
+import com.ieltswise.event.SessionBookedEvent;
+import com.ieltswise.repository.TutorInfoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class FreeSlotIndexTest {
+
+    @Mock
+    private TutorInfoRepository tutorInfoRepository;
+    @Mock
+    private CalendarEventsFetcher calendarEventsFetcher;
+    @Mock
+    private CalendarMirror calendarMirror;
+
+    private FreeSlotIndex freeSlotIndex;
+
+    private final String firstTutor = "test.tutor1.ieltswise67@gmail.com";
+    private final String secondTutor = "test.tutor2.ieltswise67@gmail.com";
+
+    // Monday, February 3, 2025
+    private final Instant monday18 = Instant.parse("2025-02-03T18:00:00Z");
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Clock clock = Clock.fixed(Instant.parse("2025-02-03T09:30:00Z"), ZoneOffset.UTC);
+        freeSlotIndex = new FreeSlotIndex(tutorInfoRepository, calendarEventsFetcher, calendarMirror, 7, clock);
+
+        lenient().when(tutorInfoRepository.findAll()).thenReturn(List.of(
+                tutor(firstTutor, Map.of()),
+                tutor(secondTutor, Map.of(DayOfWeek.MONDAY, List.of(new TimeSlot("19:00", true))))));
+        lenient().when(calendarEventsFetcher.fetch(eq(firstTutor), any(Instant.class), any(Instant.class),
+                eq(Priority.BACKGROUND)))
+                .thenReturn(List.of(event("2025-02-03T20:00:00Z", "2025-02-03T20:30:00Z")));
+        lenient().when(calendarEventsFetcher.fetch(eq(secondTutor), any(Instant.class), any(Instant.class),
+                eq(Priority.BACKGROUND)))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    public void testFindFreeTutorsIntersectsScheduleAndCalendar() {
+
+        // Then
+        assertEquals(List.of(firstTutor, secondTutor), freeSlotIndex.findFreeTutors(monday18, hours(monday18, 1)));
+        assertEquals(List.of(firstTutor), freeSlotIndex.findFreeTutors(monday18, hours(monday18, 2)));
+        assertEquals(List.of(), freeSlotIndex.findFreeTutors(hours(monday18, 1), hours(monday18, 3)));
+        assertEquals(List.of(secondTutor), freeSlotIndex.findFreeTutors(hours(monday18, 2), hours(monday18, 3)));
+        verify(tutorInfoRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void testFindFreeTutorsAppliesScheduleUpdatesAndBookings() {
+
+        // When
+        freeSlotIndex.findFreeTutors(monday18, hours(monday18, 1));
+        freeSlotIndex.onScheduleUpdated(new ScheduleUpdatedEvent(secondTutor, Map.of()));
+        freeSlotIndex.onSessionBooked(new SessionBookedEvent(firstTutor, monday18, hours(monday18, 1)));
+
+        // Then
+        assertEquals(List.of(secondTutor), freeSlotIndex.findFreeTutors(monday18, hours(monday18, 2)));
+        verify(tutorInfoRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void testRebuildKeepsBookingsMadeWhileCalendarsAreRead() throws Exception {
+
+        // Given
+        when(calendarEventsFetcher.fetch(eq(secondTutor), any(Instant.class), any(Instant.class),
+                eq(Priority.BACKGROUND))).thenAnswer(call -> {
+                    freeSlotIndex.onSessionBooked(new SessionBookedEvent(firstTutor, monday18, hours(monday18, 1)));
+                    return List.of();
+                });
+
+        // When
+        freeSlotIndex.rebuild();
+
+        // Then
+        assertEquals(List.of(secondTutor), freeSlotIndex.findFreeTutors(monday18, hours(monday18, 1)));
+    }
+
+    @Test
+    public void testFindFreeTutorsRejectsRangeOutsideOfHorizon() {
+
+        // Then
+        assertThrows(IllegalArgumentException.class,
+                () -> freeSlotIndex.findFreeTutors(hours(monday18, 1), monday18));
+        assertThrows(IllegalArgumentException.class,
+                () -> freeSlotIndex.findFreeTutors(monday18, hours(monday18, 7 * 24)));
+    }
+
+    private static Instant hours(Instant instant, int hours) {
+        return instant.plusSeconds(hours * 3600L);
+    }
+
+    private static TutorInfo tutor(String email, Map<DayOfWeek, List<TimeSlot>> timeInfo) {
+        return TutorInfo.builder()
+                .email(email)
+                .schedule(Schedule.builder().timeInfo(timeInfo).build())
+                .build();
+    }
+
+    private static CalendarEvent event(String start, String end) {
+        return new CalendarEvent(start, "confirmed", ZonedDateTime.parse(start), ZonedDateTime.parse(end));
+    }
+}
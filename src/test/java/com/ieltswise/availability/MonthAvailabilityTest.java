@@ -0,0 +1,102 @@
+package com.ieltswise.availability;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.dto.FreeAndBusyHoursOfTheDay;
+import com.ieltswise.dto.TimeSlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.ieltswise.enums.Status.AVAILABLE;
+import static com.ieltswise.enums.Status.BOOKED;
+import static com.ieltswise.enums.Status.UNAVAILABLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class MonthAvailabilityTest {
+
+    private final ZoneId london = ZoneId.of("Europe/London");
+
+    @Test
+    public void testDaysStartAtLocalMidnightAndFollowDaylightSavingTime() {
+
+        // When
+        List<FreeAndBusyHoursOfTheDay> march = MonthAvailability.of(YearMonth.of(2025, 3), london, List.of(),
+                WeeklySchedule.of(null)).toFreeAndBusyHours();
+        List<FreeAndBusyHoursOfTheDay> october = MonthAvailability.of(YearMonth.of(2025, 10), london, List.of(),
+                WeeklySchedule.of(null)).toFreeAndBusyHours();
+
+        // Then
+        assertEquals(23, march.get(29).getTime().size());
+        assertEquals(24, march.get(30).getTime().size());
+        assertEquals(Instant.parse("2025-03-30T23:00:00Z").toEpochMilli(), march.get(30).getDate());
+        assertEquals(25, october.get(25).getTime().size());
+        assertEquals(Instant.parse("2025-10-01T00:00:00Z").toEpochMilli() - 3_600_000L, october.get(0).getDate());
+    }
+
+    @Test
+    public void testEventsAndScheduleAreMappedToLocalHours() {
+
+        // Given
+        ZoneId moscow = ZoneId.of("Europe/Moscow");
+        CalendarEvent event = new CalendarEvent("a1", "confirmed",
+                ZonedDateTime.parse("2025-02-02T22:00:00Z"), ZonedDateTime.parse("2025-02-02T23:00:00Z"));
+        // Monday 06:00 UTC is Monday 09:00 in Moscow
+        WeeklySchedule schedule = WeeklySchedule.of(Map.of(DayOfWeek.MONDAY, List.of(new TimeSlot("06:00", true))));
+
+        // When
+        MonthAvailability availability = MonthAvailability.of(YearMonth.of(2025, 2), moscow, List.of(event), schedule);
+
+        // Then
+        assertEquals(BOOKED, availability.statusAt(3, 1));
+        assertEquals(AVAILABLE, availability.statusAt(2, 22));
+        assertEquals(UNAVAILABLE, availability.statusAt(3, 9));
+        assertEquals(AVAILABLE, availability.statusAt(3, 6));
+    }
+
+    @Test
+    public void testScheduleCoversEveryUtcHourOverlappedInHalfHourZone() {
+
+        // Given
+        ZoneId kolkata = ZoneId.of("Asia/Kolkata");
+        // Monday 06:00 UTC is Monday 11:30 in Kolkata, the local hours 11:00 and 12:00 overlap it
+        WeeklySchedule schedule = WeeklySchedule.of(Map.of(DayOfWeek.MONDAY, List.of(new TimeSlot("06:00", true))));
+
+        // When
+        MonthAvailability availability = MonthAvailability.of(YearMonth.of(2025, 2), kolkata, List.of(), schedule);
+
+        // Then
+        assertEquals(AVAILABLE, availability.statusAt(3, 10));
+        assertEquals(UNAVAILABLE, availability.statusAt(3, 11));
+        assertEquals(UNAVAILABLE, availability.statusAt(3, 12));
+        assertEquals(AVAILABLE, availability.statusAt(3, 13));
+    }
+
+    @Test
+    public void testMarkUnavailableCopiesOnlyTheChangedDays() {
+
+        // Given
+        CalendarEvent event = new CalendarEvent("a1", "confirmed",
+                ZonedDateTime.parse("2025-02-03T10:00:00Z"), ZonedDateTime.parse("2025-02-03T11:00:00Z"));
+        List<FreeAndBusyHoursOfTheDay> days = MonthAvailability.of(YearMonth.of(2025, 2), List.of(event),
+                WeeklySchedule.of(null)).toFreeAndBusyHours();
+        long booked = Instant.parse("2025-02-03T10:00:00Z").toEpochMilli() / 3_600_000L;
+
+        // When
+        List<FreeAndBusyHoursOfTheDay> marked = MonthAvailability.markUnavailable(days, Set.of(booked, booked + 1));
+
+        // Then
+        assertEquals(UNAVAILABLE, marked.get(2).getTime().get(11).get("status"));
+        assertEquals(BOOKED, marked.get(2).getTime().get(10).get("status"));
+        assertEquals(AVAILABLE, days.get(2).getTime().get(11).get("status"));
+        assertSame(days.get(1), marked.get(1));
+        assertSame(days, MonthAvailability.markUnavailable(days, Set.of()));
+    }
+}
@@ -0,0 +1,231 @@
+package com.ieltswise.booking;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.calendar.model.Event;
+import com.ieltswise.entity.Booking;
+import com.ieltswise.entity.CalendarOutboxEntry;
+import com.ieltswise.enums.BookingStatus;
+import com.ieltswise.enums.BookingType;
+import com.ieltswise.event.SessionBookedEvent;
+import com.ieltswise.repository.BookingRepository;
+import com.ieltswise.repository.CalendarOutboxRepository;
+import com.ieltswise.service.LessonBalanceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingOutboxWorkerTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T10:00:00Z");
+    private static final String EVENT_ID = "booking00000000000011";
+
+    @Mock
+    private CalendarOutboxRepository calendarOutboxRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private LessonBalanceService lessonBalanceService;
+    @Mock
+    private BookingEventWriter bookingEventWriter;
+    @Mock
+    private SlotReservationManager slotReservationManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookingOutboxWorker worker;
+    private Booking booking;
+    private CalendarOutboxEntry entry;
+
+    @BeforeEach
+    void setUp() {
+        worker = new BookingOutboxWorker(calendarOutboxRepository, bookingRepository, lessonBalanceService,
+                bookingEventWriter, slotReservationManager, eventPublisher,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                1, 50, 3, Duration.ofSeconds(5), Duration.ofMinutes(10), Duration.ofMinutes(2),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        booking = Booking.builder()
+                .id(1L)
+                .type(BookingType.REGULAR)
+                .status(BookingStatus.PENDING)
+                .tutorEmail("tutor@example.com")
+                .studentEmail("student@example.com")
+                .studentName("Bob")
+                .startDate("2024-03-05T12:00:00Z")
+                .endDate("2024-03-05T13:00:00Z")
+                .created(NOW.toEpochMilli())
+                .build();
+        entry = CalendarOutboxEntry.builder()
+                .id(7L)
+                .bookingId(1L)
+                .eventId(EVENT_ID)
+                .nextAttemptAt(NOW.toEpochMilli())
+                .build();
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    void testProcessConfirmsBookingAndPublishesEvent() throws Exception {
+
+        // Given
+        when(bookingEventWriter.insertAll(List.of(booking), List.of(EVENT_ID)))
+                .thenReturn(List.of(new BookingEventWriter.Outcome(new Event().setHtmlLink("https://link"), null)));
+
+        // When
+        worker.process(List.of(entry));
+
+        // Then
+        assertEquals(BookingStatus.CONFIRMED, booking.getStatus());
+        assertEquals("https://link", booking.getEventLink());
+        verify(calendarOutboxRepository).deleteById(7L);
+        verify(eventPublisher).publishEvent(isA(SessionBookedEvent.class));
+        verify(slotReservationManager).releaseBooking("tutor@example.com", "student@example.com",
+                List.of(new SlotReservationManager.Interval(Instant.parse("2024-03-05T12:00:00Z").toEpochMilli(),
+                        Instant.parse("2024-03-05T13:00:00Z").toEpochMilli())));
+    }
+
+    @Test
+    void testProcessSchedulesRetryWithBackoff() throws Exception {
+
+        // Given
+        entry.setAttempts(1);
+        when(bookingEventWriter.insertAll(List.of(booking), List.of(EVENT_ID))).thenThrow(new IOException("timeout"));
+
+        // When
+        worker.process(List.of(entry));
+
+        // Then
+        assertEquals(2, entry.getAttempts());
+        assertEquals(NOW.toEpochMilli() + 10_000, entry.getNextAttemptAt());
+        assertEquals(BookingStatus.PENDING, booking.getStatus());
+        verify(calendarOutboxRepository).save(entry);
+        verify(calendarOutboxRepository, never()).deleteById(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testProcessFailsBookingAndGivesLessonBack() throws Exception {
+
+        // Given
+        when(bookingEventWriter.insertAll(List.of(booking), List.of(EVENT_ID))).thenReturn(List.of(
+                new BookingEventWriter.Outcome(null, new GoogleJsonResponseException(
+                        new HttpResponseException.Builder(403, "Forbidden", new HttpHeaders()), null))));
+
+        // When
+        worker.process(List.of(entry));
+
+        // Then
+        assertEquals(BookingStatus.FAILED, booking.getStatus());
+        assertFalse(booking.getFailure().isEmpty());
+        verify(lessonBalanceService).giveBackLessons("student@example.com", 1);
+        verify(calendarOutboxRepository).deleteById(7L);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testProcessSettlesEveryEntryOfBatchByItsOutcome() throws Exception {
+
+        // Given
+        Booking second = Booking.builder()
+                .id(2L)
+                .type(BookingType.REGULAR)
+                .status(BookingStatus.PENDING)
+                .tutorEmail("tutor@example.com")
+                .studentEmail("student@example.com")
+                .startDate("2024-03-06T12:00:00Z")
+                .endDate("2024-03-06T13:00:00Z")
+                .created(NOW.toEpochMilli())
+                .build();
+        CalendarOutboxEntry secondEntry = CalendarOutboxEntry.builder()
+                .id(8L)
+                .bookingId(2L)
+                .eventId("booking00000000000021")
+                .nextAttemptAt(NOW.toEpochMilli())
+                .build();
+        when(bookingRepository.findById(2L)).thenReturn(Optional.of(second));
+        when(bookingEventWriter.insertAll(List.of(booking, second), List.of(EVENT_ID, "booking00000000000021")))
+                .thenReturn(List.of(
+                        new BookingEventWriter.Outcome(new Event().setHtmlLink("https://link"), null),
+                        new BookingEventWriter.Outcome(null, new IOException("timeout"))));
+
+        // When
+        worker.process(List.of(entry, secondEntry));
+
+        // Then
+        assertEquals(BookingStatus.CONFIRMED, booking.getStatus());
+        assertEquals(BookingStatus.PENDING, second.getStatus());
+        assertEquals(1, secondEntry.getAttempts());
+        verify(calendarOutboxRepository).deleteById(7L);
+        verify(calendarOutboxRepository).save(secondEntry);
+        verify(eventPublisher).publishEvent(isA(SessionBookedEvent.class));
+    }
+
+    @Test
+    void testProcessFailsRecurringBookingAndGivesAllLessonsBack() throws Exception {
+
+        // Given
+        booking.setType(BookingType.RECURRING);
+        booking.setRecurrence("RRULE:FREQ=WEEKLY;COUNT=6");
+        booking.setLessons(6);
+        when(bookingEventWriter.insertAll(List.of(booking), List.of(EVENT_ID))).thenReturn(List.of(
+                new BookingEventWriter.Outcome(null, new GoogleJsonResponseException(
+                        new HttpResponseException.Builder(400, "Bad Request", new HttpHeaders()), null))));
+
+        // When
+        worker.process(List.of(entry));
+
+        // Then
+        assertEquals(BookingStatus.FAILED, booking.getStatus());
+        verify(lessonBalanceService).giveBackLessons("student@example.com", 6);
+    }
+
+    @Test
+    void testProcessPublishesEveryLessonOfRecurringBooking() throws Exception {
+
+        // Given
+        booking.setType(BookingType.RECURRING);
+        booking.setRecurrence("RRULE:FREQ=WEEKLY;COUNT=6");
+        booking.setLessons(6);
+        when(bookingEventWriter.insertAll(List.of(booking), List.of(EVENT_ID)))
+                .thenReturn(List.of(new BookingEventWriter.Outcome(new Event().setHtmlLink("https://link"), null)));
+
+        // When
+        worker.process(List.of(entry));
+
+        // Then
+        verify(eventPublisher, times(6)).publishEvent(isA(SessionBookedEvent.class));
+        verify(eventPublisher).publishEvent(new SessionBookedEvent("tutor@example.com",
+                Instant.parse("2024-04-09T11:00:00Z"), Instant.parse("2024-04-09T12:00:00Z")));
+    }
+}
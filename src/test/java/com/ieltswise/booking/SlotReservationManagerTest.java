@@ -0,0 +1,170 @@
+package com.ieltswise.booking;
+
+import com.ieltswise.exception.SlotUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ieltswise.availability.MonthAvailability.HOUR_MILLIS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlotReservationManagerTest {
+
+    private static final String TUTOR = "tutor@example.com";
+    private static final long NOW = Instant.parse("2024-03-01T10:00:00Z").toEpochMilli();
+    private static final long START = Instant.parse("2024-03-05T12:00:00Z").toEpochMilli();
+    private static final long END = START + HOUR_MILLIS;
+
+    private Clock clock;
+    private SlotReservationManager manager;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(NOW);
+        manager = new SlotReservationManager(Duration.ofMinutes(10), Duration.ofHours(1), clock);
+    }
+
+    @Test
+    void testHoldRejectsAnotherStudentUntilReleased() throws Exception {
+
+        // Given
+        SlotReservationManager.SlotHold hold = manager.hold(TUTOR, "bob@example.com", START, END);
+
+        // Then
+        assertThrows(SlotUnavailableException.class, () -> manager.hold(TUTOR, "ann@example.com", START, END));
+        assertTrue(manager.isHeld(TUTOR, START, END));
+        assertTrue(manager.release(hold.id()));
+        assertFalse(manager.isHeld(TUTOR, START, END));
+        manager.hold(TUTOR, "ann@example.com", START, END);
+    }
+
+    @Test
+    void testExpiredHoldIsIgnoredAndPurged() throws Exception {
+
+        // Given
+        manager.hold(TUTOR, "bob@example.com", START, END);
+
+        // When
+        when(clock.millis()).thenReturn(NOW + Duration.ofMinutes(10).toMillis());
+
+        // Then
+        assertFalse(manager.isHeld(TUTOR, START, END));
+        manager.purgeExpired();
+        assertEquals(0, manager.size());
+        manager.hold(TUTOR, "ann@example.com", START, END);
+    }
+
+    @Test
+    void testBookingTakesOverHoldOfSameStudentAndReleasesIt() throws Exception {
+
+        // Given
+        manager.hold(TUTOR, "bob@example.com", START, END);
+        List<SlotReservationManager.Interval> lessons = List.of(new SlotReservationManager.Interval(START, END),
+                new SlotReservationManager.Interval(START + 7 * 24 * HOUR_MILLIS, END + 7 * 24 * HOUR_MILLIS));
+
+        // When
+        manager.holdForBooking(TUTOR, "bob@example.com", lessons);
+        when(clock.millis()).thenReturn(NOW + Duration.ofMinutes(30).toMillis());
+
+        // Then
+        assertEquals(Set.of(START / HOUR_MILLIS), manager.heldHours(TUTOR, START, END));
+        manager.releaseBooking(TUTOR, "bob@example.com", lessons);
+        assertEquals(Set.of(), manager.heldHours(TUTOR, START, END + 7 * 24 * HOUR_MILLIS));
+    }
+
+    @Test
+    void testRejectedBookingHoldsNoHour() throws Exception {
+
+        // Given
+        manager.hold(TUTOR, "bob@example.com", START + HOUR_MILLIS, END + HOUR_MILLIS);
+
+        // Then
+        assertThrows(SlotUnavailableException.class, () -> manager.holdForBooking(TUTOR, "ann@example.com",
+                List.of(new SlotReservationManager.Interval(START, END + HOUR_MILLIS))));
+        assertEquals(Set.of(START / HOUR_MILLIS + 1), manager.heldHours(TUTOR, START, END + HOUR_MILLIS));
+    }
+
+    @Test
+    void testRejectedBookingRestoresEarlierHoldOfSameStudent() throws Exception {
+
+        // Given
+        SlotReservationManager.SlotHold paymentHold = manager.hold(TUTOR, "bob@example.com", START, END);
+        manager.hold(TUTOR, "ann@example.com", START + HOUR_MILLIS, END + HOUR_MILLIS);
+
+        // When
+        assertThrows(SlotUnavailableException.class, () -> manager.holdForBooking(TUTOR, "bob@example.com",
+                List.of(new SlotReservationManager.Interval(START, END + HOUR_MILLIS))));
+
+        // Then
+        assertTrue(manager.isHeld(TUTOR, START, END));
+        assertTrue(manager.release(paymentHold.id()));
+        assertFalse(manager.isHeld(TUTOR, START, END));
+    }
+
+    @Test
+    void testRolledBackBookingHoldRestoresEarlierHold() throws Exception {
+
+        // Given
+        manager.hold(TUTOR, "bob@example.com", START, END);
+        SlotReservationManager.SlotHold bookingHold = manager.holdForBooking(TUTOR, "bob@example.com",
+                List.of(new SlotReservationManager.Interval(START, END + HOUR_MILLIS)));
+
+        // When
+        manager.rollBack(bookingHold.id());
+
+        // Then
+        assertEquals(1, manager.size());
+        assertEquals(Set.of(START / HOUR_MILLIS), manager.heldHours(TUTOR, START, END + HOUR_MILLIS));
+        when(clock.millis()).thenReturn(NOW + Duration.ofMinutes(10).toMillis());
+        assertFalse(manager.isHeld(TUTOR, START, END));
+    }
+
+    @Test
+    void testOnlyOneOfConcurrentStudentsGetsTheSlot() throws Exception {
+
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger granted = new AtomicInteger();
+
+        // When
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String student = "student" + i + "@example.com";
+                futures.add(executor.submit(() -> {
+                    try {
+                        manager.hold(TUTOR, student, START, END + HOUR_MILLIS);
+                        granted.incrementAndGet();
+                    } catch (SlotUnavailableException e) {
+                        // another student was faster
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertEquals(1, granted.get());
+        assertEquals(1, manager.size());
+    }
+}
@@ -0,0 +1,141 @@
+package com.ieltswise.cache;
+
+import com.ieltswise.calendar.CalendarMirror;
+import com.ieltswise.calendar.CalendarQuery.Priority;
+import com.ieltswise.entity.TutorInfo;
+import com.ieltswise.exception.CalendarRateLimitException;
+import com.ieltswise.repository.TutorInfoRepository;
+import com.ieltswise.service.GoogleEventsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AvailabilityWarmerTest {
+
+    @Mock
+    private TutorInfoRepository tutorInfoRepository;
+    @Mock
+    private GoogleEventsService googleEventsService;
+    @Mock
+    private MonthEventsCache monthEventsCache;
+    @Mock
+    private MonthEventsRefresher monthEventsRefresher;
+    @Mock
+    private CalendarMirror calendarMirror;
+
+    private final String firstTutor = "test.tutor1.ieltswise67@gmail.com";
+    private final String secondTutor = "test.tutor2.ieltswise67@gmail.com";
+
+    private AvailabilityWarmer availabilityWarmer;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2025-12-15T09:30:00Z"), ZoneOffset.UTC);
+        availabilityWarmer = new AvailabilityWarmer(tutorInfoRepository, googleEventsService, monthEventsCache,
+                monthEventsRefresher, calendarMirror, true, 1, 2, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        availabilityWarmer.shutdown();
+    }
+
+    @Test
+    public void testWarmUpLoadsCurrentAndNextMonthOfEveryTutor() throws Exception {
+
+        // Given
+        when(tutorInfoRepository.findAll()).thenReturn(List.of(tutor(firstTutor), tutor(secondTutor)));
+        lenient().when(monthEventsRefresher.load(TutorMonth.of(secondTutor, 2026, 1), Priority.BACKGROUND))
+                .thenThrow(new CalendarRateLimitException("Too many requests"));
+
+        // When
+        availabilityWarmer.warmUp();
+
+        // Then
+        verify(monthEventsRefresher, times(4)).load(any(TutorMonth.class), eq(Priority.BACKGROUND));
+        verify(googleEventsService).getEventsByYearAndMonth(firstTutor, 2025, 12);
+        verify(googleEventsService).getEventsByYearAndMonth(firstTutor, 2026, 1);
+        verify(googleEventsService).getEventsByYearAndMonth(secondTutor, 2025, 12);
+        assertEquals(3, availabilityWarmer.getWarmed());
+        assertEquals(1, availabilityWarmer.getFailed());
+        assertEquals(100, availabilityWarmer.progress());
+    }
+
+    @Test
+    public void testWarmUpLeavesLoadedMonthsToBackgroundRefresh() throws Exception {
+
+        // Given
+        when(tutorInfoRepository.findAll()).thenReturn(List.of(tutor(firstTutor)));
+        when(monthEventsCache.isLoaded(TutorMonth.of(firstTutor, 2025, 12))).thenReturn(true);
+
+        // When
+        availabilityWarmer.warmUp();
+
+        // Then
+        verify(monthEventsRefresher, never()).load(TutorMonth.of(firstTutor, 2025, 12), Priority.BACKGROUND);
+        verify(monthEventsRefresher).load(TutorMonth.of(firstTutor, 2026, 1), Priority.BACKGROUND);
+        verify(googleEventsService).getEventsByYearAndMonth(firstTutor, 2025, 12);
+        verify(googleEventsService).getEventsByYearAndMonth(firstTutor, 2026, 1);
+        assertEquals(2, availabilityWarmer.getWarmed());
+    }
+
+    @Test
+    public void testIntervalLeavesSoftTtlBeforeWarmedMonthsExpire() throws Exception {
+
+        // Given
+        Properties properties = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/application.properties")) {
+            properties.load(in);
+        }
+
+        // When
+        Duration interval = Duration.parse(properties.getProperty("availability.warmup.interval"));
+        Duration softTtl = Duration.parse(properties.getProperty("calendar.cache.soft-ttl"));
+        Duration ttl = Duration.parse(properties.getProperty("calendar.cache.ttl"));
+
+        // Then
+        assertEquals(ttl.minus(softTtl), interval);
+    }
+
+    @Test
+    public void testHealthIsOutOfServiceUntilWarmUpIsDone() {
+
+        // Given
+        WarmupHealthIndicator healthIndicator = new WarmupHealthIndicator(availabilityWarmer, 80);
+        when(tutorInfoRepository.findAll()).thenReturn(List.of(tutor(firstTutor)));
+
+        // When
+        Status before = healthIndicator.health().getStatus();
+        availabilityWarmer.warmUp();
+
+        // Then
+        assertEquals(Status.OUT_OF_SERVICE, before);
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+    }
+
+    private TutorInfo tutor(String email) {
+        return TutorInfo.builder().email(email).build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.ieltswise.cache;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.event.SessionBookedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MonthEventsCacheTest {
+
+    private final String tutorEmail = "test.tutor1.ieltswise67@gmail.com";
+    private final CalendarEvent event = new CalendarEvent("a1", "confirmed",
+            ZonedDateTime.parse("2025-02-03T06:00:00Z"), ZonedDateTime.parse("2025-02-03T08:00:00Z"));
+
+    private Clock clock;
+    private MonthEventsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        cache = new MonthEventsCache(Duration.ofMinutes(1), Duration.ofMinutes(5), 5, clock);
+    }
+
+    @Test
+    public void testGetReturnNullWhenEntryExpired() {
+
+        // Given
+        TutorMonth key = TutorMonth.of(tutorEmail, 2025, 2);
+        cache.put(key, List.of(event));
+
+        // When
+        List<CalendarEvent> fresh = cache.get(key);
+        when(clock.millis()).thenReturn(Duration.ofMinutes(5).toMillis());
+        List<CalendarEvent> expired = cache.get(key);
+
+        // Then
+        assertEquals(List.of(event), fresh);
+        assertNull(expired);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLookupReportsStaleEntryAfterSoftTtl() {
+
+        // Given
+        TutorMonth key = TutorMonth.of(tutorEmail, 2025, 2);
+        cache.put(key, List.of(event));
+
+        // When
+        MonthEventsCache.CachedEvents fresh = cache.lookup(key);
+        when(clock.millis()).thenReturn(Duration.ofMinutes(1).toMillis());
+        MonthEventsCache.CachedEvents stale = cache.lookup(key);
+
+        // Then
+        assertFalse(fresh.stale());
+        assertTrue(stale.stale());
+        assertEquals(List.of(event), stale.events());
+    }
+
+    @Test
+    public void testRestoredMonthIsNotLoadedUntilFetched() {
+
+        // Given
+        TutorMonth restored = TutorMonth.of(tutorEmail, 2025, 2);
+        TutorMonth fetched = TutorMonth.of(tutorEmail, 2025, 3);
+        cache.restore(restored, List.of(event), -1);
+        cache.put(fetched, List.of());
+
+        // When
+        boolean restoredLoaded = cache.isLoaded(restored);
+        cache.put(restored, List.of(event));
+
+        // Then
+        assertFalse(restoredLoaded);
+        assertTrue(cache.isLoaded(restored));
+        assertTrue(cache.isLoaded(fetched));
+        when(clock.millis()).thenReturn(Duration.ofMinutes(5).toMillis());
+        assertFalse(cache.isLoaded(fetched));
+    }
+
+    @Test
+    public void testPutEvictsLeastRecentlyUsedMonthWhenBoundExceeded() {
+
+        // Given
+        TutorMonth january = TutorMonth.of(tutorEmail, 2025, 1);
+        TutorMonth february = TutorMonth.of(tutorEmail, 2025, 2);
+        TutorMonth march = TutorMonth.of(tutorEmail, 2025, 3);
+        cache.put(january, List.of(event));
+        cache.put(february, List.of(event));
+        cache.get(january);
+
+        // When
+        cache.put(march, List.of(event));
+
+        // Then
+        assertNotNull(cache.get(january));
+        assertNull(cache.get(february));
+        assertNotNull(cache.get(march));
+    }
+
+    @Test
+    public void testOnSessionBookedInvalidatesAffectedMonths() {
+
+        // Given
+        TutorMonth january = TutorMonth.of(tutorEmail, 2025, 1);
+        TutorMonth february = TutorMonth.of(tutorEmail, 2025, 2);
+        cache.put(january, List.of());
+        cache.put(february, List.of());
+
+        // When
+        cache.onSessionBooked(new SessionBookedEvent(tutorEmail, Instant.parse("2025-01-31T23:30:00Z"),
+                Instant.parse("2025-02-01T00:30:00Z")));
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testPutSkipsEventsFetchedBeforeInvalidation() {
+
+        // Given
+        TutorMonth key = TutorMonth.of(tutorEmail, 2025, 2);
+        long generation = cache.generation(key);
+        cache.onSessionBooked(new SessionBookedEvent(tutorEmail, Instant.parse("2025-02-03T06:00:00Z"),
+                Instant.parse("2025-02-03T07:00:00Z")));
+
+        // When
+        boolean stale = cache.put(key, List.of(), generation);
+        boolean fresh = cache.put(key, List.of(event), cache.generation(key));
+
+        // Then
+        assertFalse(stale);
+        assertTrue(fresh);
+        assertEquals(List.of(event), cache.get(key));
+    }
+
+    @Test
+    public void testInvalidationsAreForgottenAfterHardTtl() {
+
+        // Given
+        TutorMonth february = TutorMonth.of(tutorEmail, 2025, 2);
+        TutorMonth march = TutorMonth.of(tutorEmail, 2025, 3);
+        long generation = cache.generation(february);
+        cache.invalidate(february);
+
+        // When
+        when(clock.millis()).thenReturn(Duration.ofMinutes(5).toMillis());
+        cache.invalidate(march);
+
+        // Then
+        assertEquals(1, cache.invalidations());
+        assertFalse(cache.put(february, List.of(event), generation));
+        assertTrue(cache.put(february, List.of(event), cache.generation(february)));
+    }
+}
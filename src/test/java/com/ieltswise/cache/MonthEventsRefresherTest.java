@@ -0,0 +1,106 @@
+package com.ieltswise.cache;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.CalendarEventsFetcher;
+import com.ieltswise.calendar.CalendarQuery.Priority;
+import com.ieltswise.event.SessionBookedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MonthEventsRefresherTest {
+
+    private final String tutorEmail = "test.tutor1.ieltswise67@gmail.com";
+    private final CalendarEvent event = new CalendarEvent("a1", "confirmed",
+            ZonedDateTime.parse("2025-02-03T06:00:00Z"), ZonedDateTime.parse("2025-02-03T08:00:00Z"));
+
+    private CalendarEventsFetcher calendarEventsFetcher;
+    private MonthEventsCache cache;
+    private MonthEventsRefresher refresher;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        calendarEventsFetcher = mock(CalendarEventsFetcher.class);
+        cache = new MonthEventsCache(Duration.ofMinutes(1), Duration.ofMinutes(5), 100);
+        refresher = new MonthEventsRefresher(calendarEventsFetcher, cache, 1, 4);
+        registry = new SimpleMeterRegistry();
+        refresher.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refresher.shutdown();
+    }
+
+    @Test
+    public void testRefreshDeduplicatesPendingMonthAndUpdatesCache() throws Exception {
+
+        // Given
+        TutorMonth key = TutorMonth.of(tutorEmail, 2025, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(calendarEventsFetcher.fetch(eq(tutorEmail), any(Instant.class), any(Instant.class),
+                eq(Priority.BACKGROUND))).thenAnswer(call -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(event);
+        });
+
+        // When
+        refresher.refresh(key);
+        refresher.refresh(key);
+        refresher.refresh(key);
+        release.countDown();
+        while (registry.get("calendar.refresh.latency").timer().count() < 1) {
+            Thread.sleep(5);
+        }
+
+        // Then
+        assertEquals(List.of(event), cache.get(key));
+        assertEquals(2.0, registry.get("calendar.refresh.skipped").tag("reason", "pending")
+                .functionCounter().count());
+        verify(calendarEventsFetcher, times(1)).fetch(eq(tutorEmail),
+                eq(Instant.parse("2025-02-01T00:00:00Z")), eq(Instant.parse("2025-03-01T00:00:00Z")),
+                eq(Priority.BACKGROUND));
+    }
+
+    @Test
+    public void testRefreshSkipsEventsOfMonthBookedWhileRefreshing() throws Exception {
+
+        // Given
+        TutorMonth key = TutorMonth.of(tutorEmail, 2025, 2);
+        when(calendarEventsFetcher.fetch(eq(tutorEmail), any(Instant.class), any(Instant.class),
+                eq(Priority.BACKGROUND))).thenAnswer(call -> {
+            cache.onSessionBooked(new SessionBookedEvent(tutorEmail, Instant.parse("2025-02-03T06:00:00Z"),
+                    Instant.parse("2025-02-03T07:00:00Z")));
+            return List.of(event);
+        });
+
+        // When
+        refresher.refresh(key);
+        while (registry.get("calendar.refresh.latency").timer().count() < 1) {
+            Thread.sleep(5);
+        }
+
+        // Then
+        assertNull(cache.get(key));
+        assertEquals(1.0, registry.get("calendar.refresh.skipped").tag("reason", "invalidated")
+                .functionCounter().count());
+    }
+}
@@ -0,0 +1,137 @@
+package com.ieltswise.cache;
+
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.event.SessionBookedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MonthEventsSnapshotFileTest {
+
+    private final String tutorEmail = "test.tutor1.ieltswise67@gmail.com";
+    private final TutorMonth february = TutorMonth.of(tutorEmail, 2025, 2);
+    private final CalendarEvent event = new CalendarEvent("a1", "confirmed",
+            ZonedDateTime.parse("2025-02-03T06:00:00Z"), ZonedDateTime.parse("2025-02-03T08:00:00Z"));
+    private final CalendarEvent cancelled = new CalendarEvent("a2", "cancelled",
+            ZonedDateTime.parse("2025-02-04T06:00:00Z"), ZonedDateTime.parse("2025-02-04T08:00:00Z"));
+
+    @TempDir
+    Path directory;
+
+    private Clock clock;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        file = directory.resolve("month-events.snapshot");
+    }
+
+    @Test
+    public void testRestoreServesSavedMonthAsStale() {
+
+        // Given
+        MonthEventsCache cache = cache();
+        cache.put(february, List.of(event, cancelled));
+        new MonthEventsSnapshotFile(cache, file, Duration.ofHours(1), clock).write();
+
+        // When
+        when(clock.millis()).thenReturn(Duration.ofMinutes(10).toMillis());
+        MonthEventsCache restartedCache = cache();
+        MonthEventsSnapshotFile restarted = new MonthEventsSnapshotFile(restartedCache, file, Duration.ofHours(1),
+                clock);
+        List<CalendarEvent> restored = restarted.restore(february);
+
+        // Then
+        assertEquals(1, restored.size());
+        assertEquals(event.startMillis(), restored.get(0).startMillis());
+        assertEquals(event.endMillis(), restored.get(0).endMillis());
+        MonthEventsCache.CachedEvents cached = restartedCache.lookup(february);
+        assertEquals(restored, cached.events());
+        assertTrue(cached.stale());
+        assertNull(restarted.restore(TutorMonth.of(tutorEmail, 2025, 3)));
+    }
+
+    @Test
+    public void testWriteKeepsMonthsNotRestoredYet() {
+
+        // Given
+        MonthEventsCache cache = cache();
+        cache.put(february, List.of(event));
+        new MonthEventsSnapshotFile(cache, file, Duration.ofHours(1), clock).write();
+
+        // When
+        new MonthEventsSnapshotFile(cache(), file, Duration.ofHours(1), clock).write();
+
+        // Then
+        assertEquals(1, new MonthEventsSnapshotFile(cache(), file, Duration.ofHours(1), clock)
+                .restore(february).size());
+    }
+
+    @Test
+    public void testSessionBookedDropsSavedMonth() {
+
+        // Given
+        MonthEventsCache cache = cache();
+        cache.put(february, List.of(event));
+        new MonthEventsSnapshotFile(cache, file, Duration.ofHours(1), clock).write();
+        MonthEventsSnapshotFile restarted = new MonthEventsSnapshotFile(cache(), file, Duration.ofHours(1), clock);
+
+        // When
+        restarted.onSessionBooked(new SessionBookedEvent(tutorEmail, Instant.parse("2025-02-10T10:00:00Z"),
+                Instant.parse("2025-02-10T11:00:00Z")));
+
+        // Then
+        assertNull(restarted.restore(february));
+    }
+
+    @Test
+    public void testRestoreSkipsMonthsOlderThanMaxAge() {
+
+        // Given
+        MonthEventsCache cache = cache();
+        cache.put(february, List.of(event));
+        new MonthEventsSnapshotFile(cache, file, Duration.ofHours(1), clock).write();
+
+        // When
+        when(clock.millis()).thenReturn(Duration.ofHours(2).toMillis());
+
+        // Then
+        assertNull(new MonthEventsSnapshotFile(cache(), file, Duration.ofHours(1), clock).restore(february));
+    }
+
+    @Test
+    public void testRestoreIgnoresOtherFormatVersion() throws Exception {
+
+        // Given
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(MonthEventsSnapshotFile.MAGIC);
+            out.writeInt(MonthEventsSnapshotFile.VERSION + 1);
+            out.writeLong(0);
+            out.writeInt(1);
+        }
+
+        // Then
+        assertNull(new MonthEventsSnapshotFile(cache(), file, Duration.ofHours(1), clock).restore(february));
+    }
+
+    private MonthEventsCache cache() {
+        return new MonthEventsCache(Duration.ofMinutes(1), Duration.ofMinutes(5), 1000, clock);
+    }
+}
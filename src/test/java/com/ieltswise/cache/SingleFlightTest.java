@@ -0,0 +1,72 @@
+package com.ieltswise.cache;
+
+import com.ieltswise.exception.EventFetchingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+
+    @Test
+    public void testExecuteCollapsesConcurrentCallsForSameKey() throws Exception {
+
+        // Given
+        int callers = 8;
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        singleFlight.bindTo(registry);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        // When
+        List<Future<Integer>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            release.await();
+            return computations.incrementAndGet();
+        })));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < callers; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("key", computations::incrementAndGet)));
+        }
+        while (registry.get("singleflight.calls").tag("result", "collapsed").functionCounter().count()
+                < callers - 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Then
+        for (Future<Integer> result : results) {
+            assertEquals(1, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+        assertEquals(1.0, registry.get("singleflight.calls").tag("result", "executed").functionCounter().count());
+        assertEquals(0.0, registry.get("singleflight.in-flight").gauge().value());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testExecuteRethrowsExceptionAndRunsAgainAfterwards() throws Exception {
+
+        // Then
+        assertThrows(EventFetchingException.class, () -> singleFlight.execute("key", () -> {
+            throw new EventFetchingException("Google Calendar is unavailable");
+        }));
+        assertEquals(2, singleFlight.execute("key", () -> 2));
+    }
+}
@@ -0,0 +1,85 @@
+package com.ieltswise.calendar;
+
+import com.ieltswise.exception.CalendarResponseException;
+import com.ieltswise.exception.CalendarUnavailableException;
+import com.ieltswise.exception.EventFetchingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CalendarCircuitBreakerTest {
+
+    private Clock clock;
+    private CalendarCircuitBreaker breaker;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        breaker = new CalendarCircuitBreaker(4, 4, 50, Duration.ofSeconds(2), 80, Duration.ofSeconds(30), 2, clock);
+        registry = new SimpleMeterRegistry();
+        breaker.bindTo(registry);
+    }
+
+    @Test
+    public void testBreakerOpensOnFailureRateAndRejectsCalls() throws Exception {
+
+        // When
+        breaker.execute(() -> "ok");
+        breaker.execute(() -> "ok");
+        fail(503);
+        fail(429);
+
+        // Then
+        assertEquals(CalendarCircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(CalendarUnavailableException.class, () -> breaker.execute(() -> "ok"));
+        assertEquals(1.0, registry.get("calendar.breaker.calls").tag("result", "rejected").functionCounter().count());
+        assertEquals(1.0, registry.get("calendar.breaker.transitions").tag("to", "open").functionCounter().count());
+    }
+
+    @Test
+    public void testClientErrorsDoNotOpenBreaker() throws Exception {
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            fail(410);
+        }
+
+        // Then
+        assertEquals(CalendarCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testBreakerClosesAfterSuccessfulTrialCalls() throws Exception {
+
+        // Given
+        for (int i = 0; i < 4; i++) {
+            fail(500);
+        }
+
+        // When
+        when(clock.millis()).thenReturn(Duration.ofSeconds(30).toMillis());
+        breaker.execute(() -> "ok");
+        CalendarCircuitBreaker.State halfOpen = breaker.getState();
+        breaker.execute(() -> "ok");
+
+        // Then
+        assertEquals(CalendarCircuitBreaker.State.HALF_OPEN, halfOpen);
+        assertEquals(CalendarCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void fail(int statusCode) {
+        assertThrows(EventFetchingException.class, () -> breaker.execute(() -> {
+            throw new CalendarResponseException(statusCode, "error");
+        }));
+    }
+}
@@ -0,0 +1,113 @@
+package com.ieltswise.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CalendarEventReaderTest {
+
+    @Test
+    public void testReadSkipsUnknownFieldsAndKeepsEventsAndPageToken() throws IOException {
+
+        // Given
+        String response = """
+                {
+                  "kind": "calendar#events",
+                  "defaultReminders": [{"method": "popup", "minutes": 10}],
+                  "items": [
+                    {
+                      "id": "a1",
+                      "status": "confirmed",
+                      "attendees": [{"email": "student@example.com", "organizer": false}],
+                      "start": {"dateTime": "2025-01-06T11:00:00+03:00", "timeZone": "Europe/Moscow"},
+                      "end": {"dateTime": "2025-01-06T15:00:00+03:00", "timeZone": "Europe/Moscow"}
+                    },
+                    {
+                      "status": "cancelled",
+                      "start": {"date": "2025-01-22"},
+                      "end": {"date": "2025-01-23"}
+                    },
+                    {
+                      "id": "b2",
+                      "status": "cancelled"
+                    },
+                    {
+                      "status": "cancelled"
+                    }
+                  ],
+                  "summary": "tutor@example.com",
+                  "nextPageToken": "CiAKGjBpNDd2Nmp2Zml2cXRwYjBpOXA"
+                }
+                """;
+
+        // When
+        CalendarEventPage page = CalendarEventReader.read(toStream(response));
+        List<CalendarEvent> events = page.events();
+
+        // Then
+        assertEquals(3, events.size());
+        assertEquals("CiAKGjBpNDd2Nmp2Zml2cXRwYjBpOXA", page.nextPageToken());
+        assertNull(page.nextSyncToken());
+        assertEquals(new CalendarEvent("a1", "confirmed", ZonedDateTime.parse("2025-01-06T11:00:00+03:00"),
+                ZonedDateTime.parse("2025-01-06T15:00:00+03:00")), events.get(0));
+        assertTrue(events.get(1).isCancelled());
+        assertEquals(ZonedDateTime.of(2025, 1, 22, 0, 0, 0, 0, ZoneId.of("UTC")), events.get(1).start());
+        assertEquals(new CalendarEvent("b2", "cancelled", null, null), events.get(2));
+    }
+
+    @Test
+    public void testReadKeepsRecurrenceAndOriginalStartOfInstances() throws IOException {
+
+        // Given
+        String response = """
+                {
+                  "items": [
+                    {
+                      "id": "r1",
+                      "status": "confirmed",
+                      "start": {"dateTime": "2025-01-06T11:00:00Z", "timeZone": "Europe/London"},
+                      "end": {"dateTime": "2025-01-06T12:00:00Z", "timeZone": "Europe/London"},
+                      "recurrence": ["RRULE:FREQ=WEEKLY;COUNT=10", "EXDATE:20250113T110000Z"]
+                    },
+                    {
+                      "id": "r1_20250120T110000Z",
+                      "status": "cancelled",
+                      "recurringEventId": "r1",
+                      "originalStartTime": {"dateTime": "2025-01-20T11:00:00Z", "timeZone": "Europe/London"}
+                    }
+                  ]
+                }
+                """;
+
+        // When
+        List<CalendarEvent> events = CalendarEventReader.read(toStream(response)).events();
+
+        // Then
+        assertEquals(new Recurrence(List.of("RRULE:FREQ=WEEKLY;COUNT=10", "EXDATE:20250113T110000Z"),
+                ZoneId.of("Europe/London")), events.get(0).recurrence());
+        assertEquals("r1", events.get(1).recurringEventId());
+        assertEquals(ZonedDateTime.parse("2025-01-20T11:00:00Z"), events.get(1).originalStart());
+    }
+
+    @Test
+    public void testReadThrowIOExceptionWhenResponseIsNotAnObject() {
+
+        // Then
+        assertThrows(IOException.class, () -> CalendarEventReader.read(toStream("[]")));
+    }
+
+    private InputStream toStream(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,120 @@
+package com.ieltswise.calendar;
+
+import com.ieltswise.exception.EventFetchingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CalendarEventsFetcherTest {
+
+    @Mock
+    private CalendarEventsClient calendarEventsClient;
+
+    private CalendarEventsFetcher calendarEventsFetcher;
+
+    private final String tutorEmail = "test.tutor1.ieltswise67@gmail.com";
+    private final Instant january = Instant.parse("2025-01-01T00:00:00Z");
+    private final Instant february = Instant.parse("2025-02-01T00:00:00Z");
+    private final Instant march = Instant.parse("2025-03-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        calendarEventsFetcher = new CalendarEventsFetcher(calendarEventsClient, 4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        calendarEventsFetcher.shutdown();
+    }
+
+    @Test
+    public void testFetchFollowsNextPageToken() throws Exception {
+
+        // Given
+        CalendarEvent first = event("a1", "2025-01-03T06:00:00Z", "2025-01-03T08:00:00Z");
+        CalendarEvent second = event("b2", "2025-01-10T06:00:00Z", "2025-01-10T07:00:00Z");
+        CalendarQuery query = CalendarQuery.between(tutorEmail, january, february);
+
+        // When
+        when(calendarEventsClient.fetchPage(query)).thenReturn(new CalendarEventPage(List.of(first), "page2", null));
+        when(calendarEventsClient.fetchPage(query.withPageToken("page2")))
+                .thenReturn(new CalendarEventPage(List.of(second), null, null));
+
+        // Then
+        assertEquals(List.of(first, second), calendarEventsFetcher.fetch(tutorEmail, january, february));
+    }
+
+    @Test
+    public void testFetchSplitsIntervalIntoMonthsAndMergesThemInOrder() throws Exception {
+
+        // Given
+        CalendarEvent first = event("a1", "2025-01-03T06:00:00Z", "2025-01-03T08:00:00Z");
+        CalendarEvent overnight = event("b2", "2025-01-31T23:00:00Z", "2025-02-01T01:00:00Z");
+        CalendarEvent last = event("c3", "2025-02-10T06:00:00Z", "2025-02-10T07:00:00Z");
+
+        // When
+        when(calendarEventsClient.fetchPage(CalendarQuery.between(tutorEmail, january, february)))
+                .thenReturn(new CalendarEventPage(List.of(first, overnight), null, null));
+        when(calendarEventsClient.fetchPage(CalendarQuery.between(tutorEmail, february, march)))
+                .thenReturn(new CalendarEventPage(List.of(overnight, last), null, null));
+
+        // Then
+        assertEquals(List.of(first, overnight, last), calendarEventsFetcher.fetch(tutorEmail, january, march));
+        verify(calendarEventsClient, times(2)).fetchPage(any(CalendarQuery.class));
+    }
+
+    @Test
+    public void testFetchCancelsOtherWindowsWhenOneFails() throws Exception {
+
+        // Given
+        Instant april = Instant.parse("2025-04-01T00:00:00Z");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(calendarEventsClient.fetchPage(CalendarQuery.between(tutorEmail, january, february)))
+                .thenAnswer(call -> {
+                    started.countDown();
+                    try {
+                        new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return new CalendarEventPage(List.of(), null, null);
+                });
+        // fails once the first window is running, otherwise cancelling could stop it before it starts
+        when(calendarEventsClient.fetchPage(CalendarQuery.between(tutorEmail, february, march)))
+                .thenAnswer(call -> {
+                    started.await(5, TimeUnit.SECONDS);
+                    throw new EventFetchingException("Backend Error");
+                });
+
+        // When
+        assertThrows(EventFetchingException.class, () -> calendarEventsFetcher.fetch(tutorEmail, january, april));
+
+        // Then
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        verify(calendarEventsClient, never()).fetchPage(CalendarQuery.between(tutorEmail, march, april));
+    }
+
+    private static CalendarEvent event(String id, String start, String end) {
+        return new CalendarEvent(id, "confirmed", ZonedDateTime.parse(start), ZonedDateTime.parse(end));
+    }
+}
@@ -0,0 +1,124 @@
+package com.ieltswise.calendar;
+
+import com.ieltswise.event.SessionBookedEvent;
+import com.ieltswise.exception.CalendarResponseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CalendarMirrorTest {
+
+    @Mock
+    private CalendarEventsClient calendarEventsClient;
+
+    private CalendarMirror calendarMirror;
+
+    private final String tutorEmail = "test.tutor1.ieltswise67@gmail.com";
+    private final CalendarEvent first = event("a1", "2025-02-03T06:00:00Z", "2025-02-03T08:00:00Z");
+    private final CalendarEvent second = event("b2", "2025-02-10T06:00:00Z", "2025-02-10T07:00:00Z");
+    private final CalendarEvent third = event("c3", "2025-02-11T06:00:00Z", "2025-02-11T07:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        calendarMirror = new CalendarMirror(calendarEventsClient, true);
+    }
+
+    @Test
+    public void testGetEventsDownloadsCalendarOnceAndFollowsPages() throws Exception {
+
+        // When
+        when(calendarEventsClient.fetchPage(CalendarQuery.between(tutorEmail, null, null)))
+                .thenReturn(new CalendarEventPage(List.of(first), "page2", null));
+        when(calendarEventsClient.fetchPage(CalendarQuery.between(tutorEmail, null, null).withPageToken("page2")))
+                .thenReturn(new CalendarEventPage(List.of(second), null, "sync1"));
+
+        List<CalendarEvent> all = calendarMirror.getEvents(tutorEmail, null, null);
+        List<CalendarEvent> february10 = calendarMirror.getEvents(tutorEmail,
+                Instant.parse("2025-02-10T00:00:00Z"), Instant.parse("2025-02-11T00:00:00Z"));
+
+        // Then
+        assertEquals(List.of(first, second), all);
+        assertEquals(List.of(second), february10);
+        verify(calendarEventsClient, times(2)).fetchPage(any(CalendarQuery.class));
+    }
+
+    @Test
+    public void testSyncAllAppliesChangesSinceLastSync() throws Exception {
+
+        // Given
+        when(calendarEventsClient.fetchPage(CalendarQuery.between(tutorEmail, null, null)))
+                .thenReturn(new CalendarEventPage(List.of(first, second), null, "sync1"));
+        calendarMirror.getEvents(tutorEmail, null, null);
+
+        // When
+        when(calendarEventsClient.fetchPage(
+                CalendarQuery.sync(tutorEmail, "sync1").withPriority(CalendarQuery.Priority.BACKGROUND)))
+                .thenReturn(new CalendarEventPage(List.of(new CalendarEvent("a1", "cancelled", null, null), third),
+                        null, "sync2"));
+        calendarMirror.syncAll();
+
+        // Then
+        assertEquals(List.of(second, third), calendarMirror.getEvents(tutorEmail, null, null));
+    }
+
+    @Test
+    public void testGetEventsDownloadsCalendarAgainWhenSyncTokenExpired() throws Exception {
+
+        // Given
+        when(calendarEventsClient.fetchPage(CalendarQuery.between(tutorEmail, null, null)))
+                .thenReturn(new CalendarEventPage(List.of(first), null, "sync1"))
+                .thenReturn(new CalendarEventPage(List.of(third), null, "sync2"));
+        calendarMirror.getEvents(tutorEmail, null, null);
+
+        // When
+        when(calendarEventsClient.fetchPage(CalendarQuery.sync(tutorEmail, "sync1")))
+                .thenThrow(new CalendarResponseException(410, "Gone"));
+        calendarMirror.onSessionBooked(new SessionBookedEvent(tutorEmail, third.start().toInstant(),
+                third.end().toInstant()));
+
+        // Then
+        assertEquals(List.of(third), calendarMirror.getEvents(tutorEmail, null, null));
+    }
+
+    @Test
+    public void testGetEventsSyncsAgainWhenLessonBookedDuringSync() throws Exception {
+
+        // Given
+        when(calendarEventsClient.fetchPage(CalendarQuery.between(tutorEmail, null, null)))
+                .thenReturn(new CalendarEventPage(List.of(first), null, "sync1"));
+        calendarMirror.getEvents(tutorEmail, null, null);
+        when(calendarEventsClient.fetchPage(
+                CalendarQuery.sync(tutorEmail, "sync1").withPriority(CalendarQuery.Priority.BACKGROUND)))
+                .thenAnswer(call -> {
+                    calendarMirror.onSessionBooked(new SessionBookedEvent(tutorEmail, third.start().toInstant(),
+                            third.end().toInstant()));
+                    return new CalendarEventPage(List.of(), null, "sync2");
+                });
+        when(calendarEventsClient.fetchPage(CalendarQuery.sync(tutorEmail, "sync2")))
+                .thenReturn(new CalendarEventPage(List.of(third), null, "sync3"));
+
+        // When
+        calendarMirror.syncAll();
+        List<CalendarEvent> events = calendarMirror.getEvents(tutorEmail, null, null);
+
+        // Then
+        assertEquals(List.of(first, third), events);
+    }
+
+    private static CalendarEvent event(String id, String start, String end) {
+        return new CalendarEvent(id, "confirmed", ZonedDateTime.parse(start), ZonedDateTime.parse(end));
+    }
+}
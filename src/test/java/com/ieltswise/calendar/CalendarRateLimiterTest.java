@@ -0,0 +1,102 @@
+package com.ieltswise.calendar;
+
+import com.ieltswise.calendar.CalendarQuery.Priority;
+import com.ieltswise.exception.CalendarRateLimitException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CalendarRateLimiterTest {
+
+    private final Instant from = Instant.parse("2025-02-01T00:00:00Z");
+    private final Instant to = Instant.parse("2025-03-01T00:00:00Z");
+
+    private Clock clock;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testTutorCannotUseWholeQuota() throws Exception {
+
+        // Given
+        CalendarRateLimiter limiter = limiter(10, 10, 1, 2, 0, Duration.ZERO);
+
+        // When
+        limiter.acquire(query("first@gmail.com", Priority.INTERACTIVE));
+        limiter.acquire(query("first@gmail.com", Priority.INTERACTIVE));
+
+        // Then
+        assertThrows(CalendarRateLimitException.class,
+                () -> limiter.acquire(query("first@gmail.com", Priority.INTERACTIVE)));
+        limiter.acquire(query("second@gmail.com", Priority.INTERACTIVE));
+        assertEquals(1.0, registry.get("calendar.ratelimit.rejected").tag("priority", "interactive")
+                .tag("bucket", "tutor").functionCounter().count());
+        assertEquals(3.0, registry.get("calendar.ratelimit.permits").tag("priority", "interactive")
+                .functionCounter().count());
+    }
+
+    @Test
+    public void testBackgroundRequestsLeaveReserveForInteractive() throws Exception {
+
+        // Given
+        CalendarRateLimiter limiter = limiter(1, 3, 10, 10, 2, Duration.ZERO);
+
+        // When
+        limiter.acquire(query("first@gmail.com", Priority.BACKGROUND));
+
+        // Then
+        assertThrows(CalendarRateLimitException.class,
+                () -> limiter.acquire(query("second@gmail.com", Priority.BACKGROUND)));
+        limiter.acquire(query("second@gmail.com", Priority.INTERACTIVE));
+        limiter.acquire(query("third@gmail.com", Priority.INTERACTIVE));
+        assertEquals(1.0, registry.get("calendar.ratelimit.rejected").tag("priority", "background")
+                .tag("bucket", "global").functionCounter().count());
+    }
+
+    @Test
+    public void testRequestWaitsForPermitWithinMaxWait() throws Exception {
+
+        // Given
+        CalendarRateLimiter limiter = limiter(20, 1, 20, 1, 0, Duration.ofMillis(60));
+
+        // When
+        limiter.acquire(query("first@gmail.com", Priority.INTERACTIVE));
+        limiter.acquire(query("first@gmail.com", Priority.INTERACTIVE));
+
+        // Then
+        assertThrows(CalendarRateLimitException.class,
+                () -> limiter.acquire(query("first@gmail.com", Priority.INTERACTIVE)));
+        double waited = registry.get("calendar.ratelimit.wait").tag("priority", "interactive").timer()
+                .totalTime(TimeUnit.MILLISECONDS);
+        assertTrue(waited >= 50, "waited " + waited + " ms");
+    }
+
+    private CalendarRateLimiter limiter(double permitsPerSecond, int burst, double tutorPermitsPerSecond,
+                                        int tutorBurst, int interactiveReserve, Duration maxWait) {
+        CalendarRateLimiter limiter = new CalendarRateLimiter(permitsPerSecond, burst, tutorPermitsPerSecond,
+                tutorBurst, interactiveReserve, maxWait, maxWait, clock);
+        limiter.bindTo(registry);
+        return limiter;
+    }
+
+    private CalendarQuery query(String tutorId, Priority priority) {
+        return CalendarQuery.between(tutorId, from, to).withPriority(priority);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ieltswise.calendar;
+
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.services.calendar.Calendar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GoogleCalendarProviderTest {
+
+    private Credential credential;
+    private AtomicInteger loads;
+    private GoogleCalendarProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        credential = mock(Credential.class);
+        loads = new AtomicInteger();
+        provider = new GoogleCalendarProvider(httpTransport -> {
+            loads.incrementAndGet();
+            return credential;
+        }, Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void testGetCreatesClientOnce() throws Exception {
+
+        // When
+        Calendar first = provider.get();
+        Calendar second = provider.get();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testRefreshTokenOnlyWhenExpiring() throws Exception {
+
+        // Given
+        provider.get();
+
+        // When
+        when(credential.getExpiresInSeconds()).thenReturn(3600L);
+        provider.refreshTokenIfExpiring();
+
+        // Then
+        verify(credential, never()).refreshToken();
+
+        // When
+        when(credential.getExpiresInSeconds()).thenReturn(60L);
+        when(credential.refreshToken()).thenReturn(true);
+        provider.refreshTokenIfExpiring();
+
+        // Then
+        verify(credential).refreshToken();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ieltswise.calendar;
+
+import com.ieltswise.exception.CalendarResponseException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GoogleHttpClientTest {
+
+    private static final String BODY = "{\"items\": []}";
+
+    private HttpServer server;
+    private GoogleHttpClient googleHttpClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/gzip", exchange -> {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                compressed.writeTo(out);
+            }
+        });
+        server.createContext("/gone", exchange -> {
+            byte[] error = "{\"error\": \"fullSyncRequired\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(410, error.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(error);
+            }
+        });
+        server.start();
+        googleHttpClient = new GoogleHttpClient(Duration.ofSeconds(2), Duration.ofSeconds(2), 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testGetDecodesGzipAndReusesHostPermit() throws Exception {
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            try (InputStream in = googleHttpClient.get(uri("/gzip"))) {
+
+                // Then
+                assertEquals(BODY, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    public void testGetThrowsOnErrorStatusAndReleasesHostPermit() throws Exception {
+
+        // Then
+        CalendarResponseException e = assertThrows(CalendarResponseException.class,
+                () -> googleHttpClient.get(uri("/gone")));
+        assertEquals(410, e.getStatusCode());
+        try (InputStream in = googleHttpClient.get(uri("/gzip"))) {
+            assertEquals(BODY, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ieltswise.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RecurrenceExpanderTest {
+
+    private static final ZoneId LONDON = ZoneId.of("Europe/London");
+
+    @Test
+    public void testExpandWeeklyRuleWithDaysAndCountKeepsLocalTimeAcrossDstChange() {
+
+        // Given
+        CalendarEvent weekly = recurring("w1", "2024-03-26T12:00:00Z", "RRULE:FREQ=WEEKLY;BYDAY=TU,TH;COUNT=4");
+
+        // When
+        List<CalendarEvent> events = RecurrenceExpander.expand(List.of(weekly), millis("2024-03-01T00:00:00Z"),
+                millis("2024-05-01T00:00:00Z"));
+
+        // Then
+        assertEquals(List.of("2024-03-26T12:00Z", "2024-03-28T12:00Z", "2024-04-02T11:00Z", "2024-04-04T11:00Z"),
+                events.stream().map(event -> event.start().withZoneSameInstant(ZoneId.of("Z")).toString()).toList());
+        assertEquals("w1_20240326T120000Z", events.get(0).id());
+        assertEquals(millis("2024-04-02T12:00:00Z"), events.get(2).endMillis());
+    }
+
+    @Test
+    public void testExpandReturnsOnlyInstancesOfIntervalWithoutExcludedMovedAndCancelledOnes() {
+
+        // Given
+        CalendarEvent daily = recurring("d1", "2024-01-01T09:00:00Z", "RRULE:FREQ=DAILY;INTERVAL=2",
+                "EXDATE;TZID=Europe/London:20240603T090000");
+        CalendarEvent moved = new CalendarEvent("d1_20240605T080000Z", "confirmed",
+                ZonedDateTime.parse("2024-06-05T15:00:00Z"), ZonedDateTime.parse("2024-06-05T16:00:00Z"), null,
+                "d1", ZonedDateTime.parse("2024-06-05T08:00:00Z"));
+        CalendarEvent cancelled = new CalendarEvent("d1_20240607T080000Z", "cancelled", null, null, null,
+                "d1", ZonedDateTime.parse("2024-06-07T08:00:00Z"));
+        CalendarEvent single = new CalendarEvent("s1", "confirmed", ZonedDateTime.parse("2024-06-04T10:00:00Z"),
+                ZonedDateTime.parse("2024-06-04T11:00:00Z"));
+
+        // When
+        List<CalendarEvent> events = RecurrenceExpander.expand(List.of(daily, moved, cancelled, single),
+                millis("2024-06-01T00:00:00Z"), millis("2024-06-10T00:00:00Z"));
+
+        // Then
+        assertEquals(List.of("d1_20240601T080000Z", "d1_20240609T080000Z", "d1_20240605T080000Z", "s1"),
+                events.stream().map(CalendarEvent::id).toList());
+    }
+
+    @Test
+    public void testExpandStopsAtUntilAndKeepsUnsupportedRuleAsSingleEvent() {
+
+        // Given
+        CalendarEvent untilFriday = recurring("u1", "2024-06-03T09:00:00Z", "RRULE:FREQ=DAILY;UNTIL=20240607");
+        CalendarEvent monthly = recurring("m1", "2024-06-03T15:00:00Z", "RRULE:FREQ=MONTHLY;BYDAY=1MO");
+
+        // When
+        List<CalendarEvent> events = RecurrenceExpander.expand(List.of(untilFriday, monthly),
+                millis("2024-06-01T00:00:00Z"), millis("2024-07-01T00:00:00Z"));
+
+        // Then
+        assertEquals(6, events.size());
+        assertEquals("u1_20240607T090000Z", events.get(4).id());
+        assertSame(monthly, events.get(5));
+    }
+
+    @Test
+    public void testExpandReturnsSameListWithoutRecurringEvents() {
+
+        // Given
+        List<CalendarEvent> events = List.of(new CalendarEvent("s1", "confirmed",
+                ZonedDateTime.parse("2024-06-04T10:00:00Z"), ZonedDateTime.parse("2024-06-04T11:00:00Z")));
+
+        // Then
+        assertSame(events, RecurrenceExpander.expand(events, 0, Long.MAX_VALUE));
+    }
+
+    private CalendarEvent recurring(String id, String start, String... rules) {
+        ZonedDateTime startTime = ZonedDateTime.parse(start).withZoneSameInstant(LONDON);
+        return new CalendarEvent(id, "confirmed", startTime, startTime.plusHours(1),
+                new Recurrence(List.of(rules), LONDON), null, null);
+    }
+
+    private long millis(String time) {
+        return ZonedDateTime.parse(time).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ieltswise.calendar.standin;
+
+import com.ieltswise.calendar.CalendarCircuitBreaker;
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.CalendarEventsClient;
+import com.ieltswise.calendar.CalendarEventsFetcher;
+import com.ieltswise.calendar.CalendarRateLimiter;
+import com.ieltswise.calendar.GoogleHttpClient;
+import com.ieltswise.exception.CalendarResponseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StandInCalendarServerTest {
+
+    private final String tutorEmail = "test.tutor1.ieltswise67@gmail.com";
+    private final Instant february = Instant.parse("2025-02-01T00:00:00Z");
+    private final Instant march = Instant.parse("2025-03-01T00:00:00Z");
+
+    private StandInCalendarServer server;
+    private CalendarEventsFetcher fetcher;
+
+    @AfterEach
+    void tearDown() {
+        fetcher.shutdown();
+        server.close();
+    }
+
+    @Test
+    public void testGeneratedEventsAreServedInPagesAndReproducible() throws Exception {
+
+        // Given
+        start(settings(0, 2, null));
+
+        // When
+        List<CalendarEvent> events = fetcher.fetch(tutorEmail, february, march);
+        List<CalendarEvent> again = fetcher.fetch(tutorEmail, february, march);
+
+        // Then
+        assertEquals(28 * 2, events.size());
+        assertEquals(events, again);
+    }
+
+    @Test
+    public void testEventsFileIsServedForEveryCalendar() throws Exception {
+
+        // Given
+        start(settings(0, 1, Path.of("src/test/java/files/input/events_gmt.json")));
+
+        // When
+        List<CalendarEvent> events = fetcher.fetch(tutorEmail, february, march);
+
+        // Then
+        assertEquals(3, events.size());
+        assertEquals(Instant.parse("2025-02-03T06:00:00Z"), events.get(0).start().toInstant());
+    }
+
+    @Test
+    public void testErrorRateFailsRequests() throws Exception {
+
+        // Given
+        start(settings(1, 2, null));
+
+        // Then
+        assertThrows(CalendarResponseException.class, () -> fetcher.fetch(tutorEmail, february, march));
+    }
+
+    @Test
+    public void testMaximumRangeFitsDefaultRateLimits() throws Exception {
+
+        // Given
+        Properties properties = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/application.properties")) {
+            properties.load(in);
+        }
+        int maxRangeMonths = Integer.parseInt(properties.getProperty("calendar.range.max-months"));
+        CalendarRateLimiter limiter = new CalendarRateLimiter(
+                Double.parseDouble(properties.getProperty("calendar.rate-limit.permits-per-second")),
+                Integer.parseInt(properties.getProperty("calendar.rate-limit.burst")),
+                Double.parseDouble(properties.getProperty("calendar.rate-limit.tutor-permits-per-second")),
+                Integer.parseInt(properties.getProperty("calendar.rate-limit.tutor-burst")),
+                Integer.parseInt(properties.getProperty("calendar.rate-limit.interactive-reserve")),
+                Duration.parse(properties.getProperty("calendar.rate-limit.max-wait")),
+                Duration.parse(properties.getProperty("calendar.rate-limit.background-max-wait")));
+        start(new StandInCalendarServer.Settings(Duration.ZERO, Duration.ZERO, 0, 100, 1, 67, null, 4), limiter,
+                Integer.parseInt(properties.getProperty("calendar.fetch.per-tutor-concurrency")));
+        // a range in a zone other than UTC touches one more UTC month
+        Instant from = YearMonth.of(2025, 1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = YearMonth.of(2025, 1).plusMonths(maxRangeMonths + 1).atDay(1)
+                .atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        // When
+        List<CalendarEvent> events = fetcher.fetch(tutorEmail, from, to);
+
+        // Then
+        assertEquals(Duration.between(from, to).toDays(), events.size());
+    }
+
+    private StandInCalendarServer.Settings settings(double errorRate, int eventsPerDay, Path eventsFile) {
+        return new StandInCalendarServer.Settings(Duration.ZERO, Duration.ofMillis(2), errorRate, 10,
+                eventsPerDay, 67, eventsFile, 4);
+    }
+
+    private void start(StandInCalendarServer.Settings settings) throws IOException {
+        start(settings,
+                new CalendarRateLimiter(1000, 1000, 1000, 1000, 0, Duration.ofSeconds(1), Duration.ofSeconds(1)), 2);
+    }
+
+    private void start(StandInCalendarServer.Settings settings, CalendarRateLimiter limiter, int perTutorConcurrency)
+            throws IOException {
+        server = new StandInCalendarServer(0, settings);
+        server.start();
+        CalendarEventsClient client = new CalendarEventsClient(
+                new GoogleHttpClient(Duration.ofSeconds(2), Duration.ofSeconds(5), 4),
+                limiter,
+                new CalendarCircuitBreaker(20, 10, 50, Duration.ofSeconds(2), 80, Duration.ofSeconds(30), 3),
+                server.baseUrl(), "key");
+        fetcher = new CalendarEventsFetcher(client, 4, perTutorConcurrency);
+    }
+}
@@ -1,10 +1,18 @@
 package com.ieltswise.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ieltswise.controller.request.BatchSessionDataRequest;
+import com.ieltswise.controller.request.RecurringSessionDataRequest;
 import com.ieltswise.controller.request.RegularSessionDataRequest;
 import com.ieltswise.controller.request.SessionDataRequest;
+import com.ieltswise.controller.request.SessionSlotRequest;
+import com.ieltswise.controller.request.SlotHoldRequest;
 import com.ieltswise.controller.response.SessionDataResponse;
+import com.ieltswise.controller.response.SlotHoldResponse;
+import com.ieltswise.enums.BookingStatus;
+import com.ieltswise.exception.BookingNotFoundException;
 import com.ieltswise.exception.BookingSessionException;
+import com.ieltswise.exception.SlotUnavailableException;
 import com.ieltswise.service.BookingService;
 import com.ieltswise.service.PayPalPaymentService;
 import com.paypal.api.payments.Payment;
@@ -16,11 +24,15 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -52,6 +64,8 @@ public class StudentControllerTest {
             .build();
 
     SessionDataResponse sessionDataResponse = SessionDataResponse.builder()
+            .bookingId(1L)
+            .status(BookingStatus.CONFIRMED)
             .studentEmail(email)
             .sessionTime("2023-12-07T12:00:00+01:00")
             .eventLink("https://www.google.com/calendar/event?eid=MzdvMWk0bXQzcTI3OXAwNjdjdjBqMDhjbTggdm9sa29ub3Z" +
@@ -73,7 +87,7 @@ public class StudentControllerTest {
                 .andExpect(jsonPath("$.sessionTime").value(sessionDataResponse.getSessionTime()))
                 .andExpect(jsonPath("$.eventLink").value(sessionDataResponse.getEventLink()))
                 .andExpect(jsonPath("$.requestedService").value(sessionDataResponse.getRequestedService()))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
         verify(calendarMailService, times(1)).bookTrialSession(isA(SessionDataRequest.class));
     }
 
@@ -112,7 +126,7 @@ public class StudentControllerTest {
                 .andExpect(jsonPath("$.sessionTime").value(sessionDataResponse.getSessionTime()))
                 .andExpect(jsonPath("$.eventLink").value(sessionDataResponse.getEventLink()))
                 .andExpect(jsonPath("$.requestedService").value(sessionDataResponse.getRequestedService()))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
         verify(payPalService, times(1)).executePayment(anyString(), anyString(), anyString());
         verify(calendarMailService, times(1)).bookRegularSession(
                 isA(RegularSessionDataRequest.class));
@@ -164,6 +178,201 @@ public class StudentControllerTest {
         verify(calendarMailService, times(1)).isTrialAvailable(email);
     }
 
+    @Test
+    public void testBookRegularSessionsReturnSessions() throws Exception {
+
+        // Given
+        BatchSessionDataRequest batchSessionDataRequest = BatchSessionDataRequest.builder()
+                .tutorEmail("test.tutor1.ieltswise67@gmail.com")
+                .studentEmail(email)
+                .requestedService("Business English")
+                .sessions(List.of(
+                        new SessionSlotRequest("2023-12-07T12:00:00+01:00", "2023-12-07T13:00:00+01:00"),
+                        new SessionSlotRequest("2023-12-08T12:00:00+01:00", "2023-12-08T13:00:00+01:00")))
+                .build();
+        SessionDataResponse secondSession = SessionDataResponse.builder()
+                .bookingId(2L)
+                .status(BookingStatus.PENDING)
+                .studentEmail(email)
+                .sessionTime("2023-12-08T12:00:00+01:00")
+                .requestedService("Business English")
+                .build();
+
+        // When
+        when(calendarMailService.bookRegularSessions(isA(BatchSessionDataRequest.class)))
+                .thenReturn(List.of(sessionDataResponse, secondSession));
+
+        // Then
+        mockMvc.perform(post("/student/bookRegularSessions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchSessionDataRequest)))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].bookingId").value(2))
+                .andExpect(jsonPath("$[1].status").value("PENDING"))
+                .andExpect(status().isAccepted());
+        verify(calendarMailService, times(1)).bookRegularSessions(isA(BatchSessionDataRequest.class));
+    }
+
+    @Test
+    public void testBookRegularSessionsWithoutSessionsReturnBadRequest() throws Exception {
+
+        // Given
+        BatchSessionDataRequest batchSessionDataRequest = BatchSessionDataRequest.builder()
+                .tutorEmail("test.tutor1.ieltswise67@gmail.com")
+                .studentEmail(email)
+                .requestedService("Business English")
+                .sessions(List.of())
+                .build();
+
+        // Then
+        mockMvc.perform(post("/student/bookRegularSessions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchSessionDataRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testBookRecurringSessionReturnSession() throws Exception {
+
+        // Given
+        RecurringSessionDataRequest recurringSessionDataRequest = new RecurringSessionDataRequest();
+        recurringSessionDataRequest.setTutorEmail("test.tutor1.ieltswise67@gmail.com");
+        recurringSessionDataRequest.setStudentEmail(email);
+        recurringSessionDataRequest.setStudentName("Bob");
+        recurringSessionDataRequest.setRequestedService("Business English");
+        recurringSessionDataRequest.setStartDate("2023-12-07T12:00:00+01:00");
+        recurringSessionDataRequest.setEndDate("2023-12-07T13:00:00+01:00");
+        recurringSessionDataRequest.setFrequency("WEEKLY");
+        recurringSessionDataRequest.setCount(10);
+        SessionDataResponse recurringSession = SessionDataResponse.builder()
+                .bookingId(3L)
+                .status(BookingStatus.PENDING)
+                .lessons(10)
+                .studentEmail(email)
+                .sessionTime("2023-12-07T12:00:00+01:00")
+                .requestedService("Business English")
+                .build();
+
+        // When
+        when(calendarMailService.bookRecurringSession(isA(RecurringSessionDataRequest.class)))
+                .thenReturn(recurringSession);
+
+        // Then
+        mockMvc.perform(post("/student/bookRecurringSession")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(recurringSessionDataRequest)))
+                .andExpect(jsonPath("$.bookingId").value(3))
+                .andExpect(jsonPath("$.lessons").value(10))
+                .andExpect(status().isAccepted());
+        verify(calendarMailService, times(1)).bookRecurringSession(isA(RecurringSessionDataRequest.class));
+    }
+
+    @Test
+    public void testBookRecurringSessionThrowExceptionWhenCountIsTooLarge() throws Exception {
+
+        // Given
+        RecurringSessionDataRequest recurringSessionDataRequest = new RecurringSessionDataRequest();
+        recurringSessionDataRequest.setTutorEmail("test.tutor1.ieltswise67@gmail.com");
+        recurringSessionDataRequest.setStudentEmail(email);
+        recurringSessionDataRequest.setStudentName("Bob");
+        recurringSessionDataRequest.setRequestedService("Business English");
+        recurringSessionDataRequest.setStartDate("2023-12-07T12:00:00+01:00");
+        recurringSessionDataRequest.setEndDate("2023-12-07T13:00:00+01:00");
+        recurringSessionDataRequest.setFrequency("DAILY");
+        recurringSessionDataRequest.setCount(1000);
+
+        // Then
+        mockMvc.perform(post("/student/bookRecurringSession")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(recurringSessionDataRequest)))
+                .andExpect(status().isBadRequest());
+        verify(calendarMailService, never()).bookRecurringSession(isA(RecurringSessionDataRequest.class));
+    }
+
+    @Test
+    public void testGetBookingReturnBooking() throws Exception {
+
+        // When
+        when(calendarMailService.getBooking(1L)).thenReturn(sessionDataResponse);
+
+        // Then
+        mockMvc.perform(get("/student/booking/{bookingId}", 1L))
+                .andExpect(jsonPath("$.bookingId").value(1))
+                .andExpect(jsonPath("$.status").value("CONFIRMED"))
+                .andExpect(jsonPath("$.eventLink").value(sessionDataResponse.getEventLink()))
+                .andExpect(status().isOk());
+        verify(calendarMailService, times(1)).getBooking(1L);
+    }
+
+    @Test
+    public void testGetBookingThrowBookingNotFoundException() throws Exception {
+
+        // When
+        when(calendarMailService.getBooking(2L)).thenThrow(new BookingNotFoundException(2L));
+
+        // Then
+        mockMvc.perform(get("/student/booking/{bookingId}", 2L))
+                .andExpect(jsonPath("$.errorCode").value(23))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testHoldSlotReturnHold() throws Exception {
+
+        // Given
+        SlotHoldRequest slotHoldRequest = createSlotHoldRequest();
+
+        // When
+        when(calendarMailService.holdSlot(isA(SlotHoldRequest.class))).thenReturn(SlotHoldResponse.builder()
+                .holdId("hold-1")
+                .tutorEmail(slotHoldRequest.getTutorEmail())
+                .startDate(slotHoldRequest.getStartDate())
+                .endDate(slotHoldRequest.getEndDate())
+                .expiresAt(1701947400000L)
+                .build());
+
+        // Then
+        mockMvc.perform(post("/student/holdSlot")
+                        .content(objectMapper.writeValueAsString(slotHoldRequest))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.holdId").value("hold-1"))
+                .andExpect(jsonPath("$.expiresAt").value(1701947400000L))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    public void testHoldSlotThrowSlotUnavailableException() throws Exception {
+
+        // When
+        when(calendarMailService.holdSlot(isA(SlotHoldRequest.class)))
+                .thenThrow(new SlotUnavailableException("test.tutor1.ieltswise67@gmail.com", 1701946800000L));
+
+        // Then
+        mockMvc.perform(post("/student/holdSlot")
+                        .content(objectMapper.writeValueAsString(createSlotHoldRequest()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.errorCode").value(24))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void testReleaseSlotReturnNoContent() throws Exception {
+
+        // Then
+        mockMvc.perform(delete("/student/holdSlot/{holdId}", "hold-1"))
+                .andExpect(status().isNoContent());
+        verify(calendarMailService, times(1)).releaseSlot("hold-1");
+    }
+
+    private SlotHoldRequest createSlotHoldRequest() {
+        return SlotHoldRequest.builder()
+                .tutorEmail("test.tutor1.ieltswise67@gmail.com")
+                .studentEmail(email)
+                .startDate("2023-12-07T12:00:00+01:00")
+                .endDate("2023-12-07T13:00:00+01:00")
+                .build();
+    }
+
     private RegularSessionDataRequest createRegularSessionDataRequest() {
         RegularSessionDataRequest regularSessionDataRequest;
         regularSessionDataRequest = new RegularSessionDataRequest();
@@ -5,7 +5,9 @@ import com.ieltswise.controller.request.PaymentCredentialsRequest;
 import com.ieltswise.controller.request.ScheduleUpdateRequest;
 import com.ieltswise.controller.request.TutorCreateRequest;
 import com.ieltswise.controller.response.Event;
+import com.ieltswise.dto.AvailableSlot;
 import com.ieltswise.dto.FreeAndBusyHoursOfTheDay;
+import com.ieltswise.dto.FreeAndBusyHoursOfTheMonth;
 import com.ieltswise.dto.TimeSlot;
 import com.ieltswise.entity.PaymentCredentials;
 import com.ieltswise.entity.Schedule;
@@ -22,6 +24,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -30,18 +35,22 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static com.ieltswise.enums.ApplicationErrorCodes.ILLEGAL_ARGUMENT_ERROR;
 import static com.ieltswise.enums.Status.AVAILABLE;
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -119,7 +128,7 @@ public class TutorControllerTest {
                 Collections.singletonList(freeAndBusyHoursOfTheDay);
 
         // When
-        when(googleEventsService.getEventsByYearAndMonth(anyString(), anyInt(), anyInt()))
+        when(googleEventsService.getEventsByYearAndMonth(anyString(), anyInt(), anyInt(), any(ZoneId.class)))
                 .thenReturn(freeAndBusyHoursOfTheDayList);
 
         // Then
@@ -130,7 +139,141 @@ public class TutorControllerTest {
                 .andExpect(jsonPath("$[0].time[0]").value(hourStatus))
                 .andExpect(status().isOk());
         verify(googleEventsService, times(1))
-                .getEventsByYearAndMonth(anyString(), anyInt(), anyInt());
+                .getEventsByYearAndMonth(tutorEmail, 2024, 8, ZoneId.of("UTC"));
+    }
+
+    @Test
+    public void testGetEventsByYearAndMonthPassesRequestedZone() throws Exception {
+
+        // When
+        when(googleEventsService.getEventsByYearAndMonth(anyString(), anyInt(), anyInt(), any(ZoneId.class)))
+                .thenReturn(Collections.emptyList());
+
+        // Then
+        mockMvc.perform(get("/tutor/events/{tutorId}/{year}/{month}", tutorEmail, 2025, 3)
+                        .param("zone", "Europe/London"))
+                .andExpect(status().isOk());
+        verify(googleEventsService, times(1))
+                .getEventsByYearAndMonth(tutorEmail, 2025, 3, ZoneId.of("Europe/London"));
+    }
+
+    @Test
+    public void testGetEventsByYearAndMonthRejectsUnknownZone() throws Exception {
+
+        // Then
+        mockMvc.perform(get("/tutor/events/{tutorId}/{year}/{month}", tutorEmail, 2025, 3)
+                        .param("zone", "Mars/Olympus"))
+                .andExpect(jsonPath("$.errorCode").value(ILLEGAL_ARGUMENT_ERROR.getCodeId()))
+                .andExpect(status().isBadRequest());
+        verify(googleEventsService, never()).getEventsByYearAndMonth(anyString(), anyInt(), anyInt(),
+                any(ZoneId.class));
+    }
+
+    @Test
+    public void testGetEventsByYearMonthRangeRejectsMalformedMonth() throws Exception {
+
+        // Then
+        mockMvc.perform(get("/tutor/events/{tutorId}/range", tutorEmail)
+                        .param("from", "August")
+                        .param("to", "2024-09"))
+                .andExpect(jsonPath("$.errorCode").value(ILLEGAL_ARGUMENT_ERROR.getCodeId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetEventsByYearAndMonthMarksStaleResponse() throws Exception {
+
+        // Given
+        FreeAndBusyHoursOfTheDay day = FreeAndBusyHoursOfTheDay.builder()
+                .date(1725148800000L)
+                .time(Collections.emptyList())
+                .stale(true)
+                .build();
+
+        // When
+        when(googleEventsService.getEventsByYearAndMonth(anyString(), anyInt(), anyInt(), any(ZoneId.class)))
+                .thenReturn(List.of(day));
+
+        // Then
+        mockMvc.perform(get("/tutor/events/{tutorId}/{year}/{month}", tutorEmail, 2024, 9))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Warning"))
+                .andExpect(jsonPath("$[0].stale").value(true));
+    }
+
+    @Test
+    public void testGetEventsByYearMonthRangeReturnFreeAndBusyHoursOfTheMonthList() throws Exception {
+
+        // Given
+        FreeAndBusyHoursOfTheDay freeAndBusyHoursOfTheDay = FreeAndBusyHoursOfTheDay.builder()
+                .date(1722470400000L)
+                .time(Collections.emptyList())
+                .build();
+
+        List<FreeAndBusyHoursOfTheMonth> months = List.of(
+                new FreeAndBusyHoursOfTheMonth(2024, 8, List.of(freeAndBusyHoursOfTheDay)),
+                new FreeAndBusyHoursOfTheMonth(2024, 9, Collections.emptyList()));
+
+        // When
+        when(googleEventsService.getEventsByYearMonthRange(tutorEmail, YearMonth.of(2024, 8), YearMonth.of(2024, 9),
+                ZoneId.of("Asia/Tokyo"))).thenReturn(months);
+
+        // Then
+        mockMvc.perform(get("/tutor/events/{tutorId}/range", tutorEmail)
+                        .param("from", "2024-08")
+                        .param("to", "2024-09")
+                        .param("zone", "Asia/Tokyo"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].year").value(2024))
+                .andExpect(jsonPath("$[0].month").value(8))
+                .andExpect(jsonPath("$[0].days[0].date").value(freeAndBusyHoursOfTheDay.getDate()))
+                .andExpect(jsonPath("$[1].month").value(9))
+                .andExpect(status().isOk());
+        verify(googleEventsService, times(1))
+                .getEventsByYearMonthRange(tutorEmail, YearMonth.of(2024, 8), YearMonth.of(2024, 9),
+                        ZoneId.of("Asia/Tokyo"));
+    }
+
+    @Test
+    public void testGetNextAvailableSlotsReturnSlots() throws Exception {
+
+        // Given
+        Instant after = Instant.parse("2025-02-04T18:10:00Z");
+        AvailableSlot slot = new AvailableSlot(Instant.parse("2025-02-04T19:00:00Z").toEpochMilli(),
+                Instant.parse("2025-02-04T20:00:00Z").toEpochMilli());
+
+        // When
+        when(googleEventsService.getNextAvailableSlots(tutorEmail, after, 1)).thenReturn(List.of(slot));
+
+        // Then
+        mockMvc.perform(get("/tutor/events/{tutorId}/next", tutorEmail)
+                        .param("after", "2025-02-04T18:10:00Z")
+                        .param("count", "1"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].start").value(slot.getStart()))
+                .andExpect(jsonPath("$[0].end").value(slot.getEnd()))
+                .andExpect(status().isOk());
+        verify(googleEventsService, times(1)).getNextAvailableSlots(tutorEmail, after, 1);
+    }
+
+    @Test
+    public void testGetFreeTutorsReturnEmails() throws Exception {
+
+        // Given
+        ZonedDateTime from = ZonedDateTime.parse("2025-02-04T18:00:00Z");
+        ZonedDateTime to = ZonedDateTime.parse("2025-02-04T20:00:00Z");
+
+        // When
+        when(googleEventsService.getFreeTutors(from, to)).thenReturn(List.of(tutorEmail));
+
+        // Then
+        mockMvc.perform(get("/tutor/free")
+                        .param("from", "2025-02-04T18:00:00Z")
+                        .param("to", "2025-02-04T20:00:00Z"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]").value(tutorEmail))
+                .andExpect(status().isOk());
+        verify(googleEventsService, times(1)).getFreeTutors(from, to);
     }
 
     private List<TimeSlot> createTimeSlots() {
@@ -0,0 +1,223 @@
+package com.ieltswise.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ieltswise.entity.IdempotencyRecord;
+import com.ieltswise.enums.IdempotencyStatus;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    private static final String PATH = "/student/bookTrialSession";
+    private static final String BODY = "{\"studentEmail\":\"student@example.com\"}";
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+    @Mock
+    private FilterChain chain;
+
+    private IdempotencyFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private IdempotencyRecord record;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(idempotencyStore, new ObjectMapper());
+        request = new MockHttpServletRequest("POST", PATH);
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "key-1");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        response = new MockHttpServletResponse();
+        record = IdempotencyRecord.builder()
+                .id(1L)
+                .idempotencyKey("key-1")
+                .requestPath(PATH)
+                .status(IdempotencyStatus.IN_PROGRESS)
+                .build();
+    }
+
+    @Test
+    void testFirstRequestIsProcessedAndItsResponseStored() throws Exception {
+
+        // Given
+        when(idempotencyStore.begin(eq("key-1"), eq(PATH), anyString()))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Result.EXECUTE, record));
+        doAnswer(invocation -> {
+            HttpServletResponse chainResponse = invocation.getArgument(1);
+            assertEquals(BODY, new String(invocation.<ServletRequest>getArgument(0)
+                    .getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            chainResponse.setStatus(202);
+            chainResponse.setContentType("application/json");
+            chainResponse.getWriter().write("{\"bookingId\":1}");
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(202, response.getStatus());
+        assertEquals("{\"bookingId\":1}", response.getContentAsString());
+        verify(idempotencyStore).complete(record, 202, "application/json",
+                "{\"bookingId\":1}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRepeatedRequestGetsStoredResponse() throws Exception {
+
+        // Given
+        record.setStatus(IdempotencyStatus.COMPLETED);
+        record.setResponseStatus(202);
+        record.setResponseContentType("application/json");
+        record.setResponseBody("{\"bookingId\":1}".getBytes(StandardCharsets.UTF_8));
+        when(idempotencyStore.begin(eq("key-1"), eq(PATH), anyString()))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Result.REPLAY, record));
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(202, response.getStatus());
+        assertEquals("{\"bookingId\":1}", response.getContentAsString());
+        assertEquals("true", response.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void testServerErrorIsNotStored() throws Exception {
+
+        // Given
+        when(idempotencyStore.begin(eq("key-1"), eq(PATH), anyString()))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Result.EXECUTE, record));
+        doAnswer(invocation -> {
+            invocation.<HttpServletResponse>getArgument(1).setStatus(503);
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(503, response.getStatus());
+        verify(idempotencyStore).abandon(record);
+        verify(idempotencyStore, never()).complete(any(), any(Integer.class), any(), any());
+    }
+
+    @Test
+    void testConflictOfBookingIsStored() throws Exception {
+
+        // Given
+        when(idempotencyStore.begin(eq("key-1"), eq(PATH), anyString()))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Result.EXECUTE, record));
+        doAnswer(invocation -> {
+            invocation.<HttpServletResponse>getArgument(1).setStatus(409);
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(409, response.getStatus());
+        verify(idempotencyStore).complete(eq(record), eq(409), any(), any());
+        verify(idempotencyStore, never()).abandon(any());
+    }
+
+    @Test
+    void testBodyCanBeReadWithReadListener() throws Exception {
+
+        // Given
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+        when(idempotencyStore.begin(eq("key-1"), eq(PATH), anyString()))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Result.EXECUTE, record));
+        doAnswer(invocation -> {
+            ServletInputStream in = invocation.<ServletRequest>getArgument(0).getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        body.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(BODY, body.toString(StandardCharsets.UTF_8));
+        assertTrue(allDataRead.get());
+    }
+
+    @Test
+    void testKeyUsedForDifferentRequestIsRejected() throws Exception {
+
+        // Given
+        when(idempotencyStore.begin(eq("key-1"), eq(PATH), anyString()))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Result.MISMATCH, record));
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(422, response.getStatus());
+        assertEquals(25, new ObjectMapper().readTree(response.getContentAsString()).get("errorCode").asInt());
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void testRequestWithoutKeyIsProcessedAsUsual() throws Exception {
+
+        // Given
+        MockHttpServletRequest plainRequest = new MockHttpServletRequest("POST", PATH);
+
+        // When
+        filter.doFilter(plainRequest, response, chain);
+
+        // Then
+        verify(chain).doFilter(plainRequest, response);
+        verifyNoInteractions(idempotencyStore);
+        assertNull(response.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+    }
+}
@@ -0,0 +1,182 @@
+package com.ieltswise.idempotency;
+
+import com.ieltswise.entity.IdempotencyRecord;
+import com.ieltswise.enums.IdempotencyStatus;
+import com.ieltswise.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T10:00:00Z");
+    private static final String PATH = "/student/bookRegularSession";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyStore store;
+    private IdempotencyRecord existing;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(idempotencyRecordRepository, Duration.ofHours(24), Duration.ofMinutes(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        existing = IdempotencyRecord.builder()
+                .id(1L)
+                .idempotencyKey("key-1")
+                .requestPath(PATH)
+                .requestHash("hash")
+                .status(IdempotencyStatus.IN_PROGRESS)
+                .lockedUntil(NOW.toEpochMilli() + 30_000)
+                .expiresAt(NOW.toEpochMilli() + 3_600_000)
+                .build();
+    }
+
+    @Test
+    void testConcurrentRequestWithSameKeyIsToldToWait() {
+
+        // Given
+        when(idempotencyRecordRepository.findByIdempotencyKeyAndRequestPath("key-1", PATH))
+                .thenReturn(Optional.empty(), Optional.of(existing));
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("unique constraint violated"));
+
+        // When
+        IdempotencyStore.Claim claim = store.begin("key-1", PATH, "hash");
+
+        // Then
+        assertEquals(IdempotencyStore.Result.IN_PROGRESS, claim.result());
+    }
+
+    @Test
+    void testDifferentRequestWithUsedKeyIsRejected() {
+
+        // Given
+        existing.setStatus(IdempotencyStatus.COMPLETED);
+        when(idempotencyRecordRepository.findByIdempotencyKeyAndRequestPath("key-1", PATH))
+                .thenReturn(Optional.of(existing));
+
+        // Then
+        assertEquals(IdempotencyStore.Result.MISMATCH, store.begin("key-1", PATH, "other").result());
+        assertEquals(IdempotencyStore.Result.REPLAY, store.begin("key-1", PATH, "hash").result());
+    }
+
+    @Test
+    void testAbandonedRequestIsTakenOver() {
+
+        // Given
+        long expiredLock = NOW.toEpochMilli() - 1;
+        existing.setLockedUntil(expiredLock);
+        when(idempotencyRecordRepository.findByIdempotencyKeyAndRequestPath("key-1", PATH))
+                .thenReturn(Optional.of(existing));
+        when(idempotencyRecordRepository.takeOver(1L, expiredLock, NOW.toEpochMilli() + 60_000)).thenReturn(1);
+
+        // When
+        IdempotencyStore.Claim claim = store.begin("key-1", PATH, "hash");
+
+        // Then
+        assertEquals(IdempotencyStore.Result.EXECUTE, claim.result());
+        assertSame(existing, claim.record());
+    }
+
+    @Test
+    void testExpiredRecordIsReplacedByNewRequest() {
+
+        // Given
+        existing.setExpiresAt(NOW.toEpochMilli());
+        IdempotencyRecord created = IdempotencyRecord.builder().id(2L).build();
+        when(idempotencyRecordRepository.findByIdempotencyKeyAndRequestPath("key-1", PATH))
+                .thenReturn(Optional.of(existing), Optional.empty());
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenReturn(created);
+
+        // When
+        IdempotencyStore.Claim claim = store.begin("key-1", PATH, "other");
+
+        // Then
+        assertEquals(IdempotencyStore.Result.EXECUTE, claim.result());
+        assertSame(created, claim.record());
+        verify(idempotencyRecordRepository).deleteIfExpired(1L, NOW.toEpochMilli());
+    }
+
+    @Test
+    void testSlowRequestKeepsItsLockUntilCompleted() {
+
+        // Given
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+        store = new IdempotencyStore(idempotencyRecordRepository, Duration.ofHours(24), Duration.ofMinutes(1), clock);
+        when(idempotencyRecordRepository.findByIdempotencyKeyAndRequestPath("key-1", PATH))
+                .thenReturn(Optional.empty(), Optional.of(existing));
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord created = invocation.getArgument(0);
+            created.setId(1L);
+            return created;
+        });
+        long renewedLock = NOW.toEpochMilli() + 50_000 + 60_000;
+        when(idempotencyRecordRepository.extendLock(1L, NOW.toEpochMilli() + 60_000, renewedLock)).thenReturn(1);
+        when(idempotencyRecordRepository.complete(1L, renewedLock, 201, "application/json", new byte[0]))
+                .thenReturn(1);
+
+        // When
+        IdempotencyRecord record = store.begin("key-1", PATH, "hash").record();
+        when(clock.millis()).thenReturn(NOW.toEpochMilli() + 50_000);
+        store.renewLocks();
+        when(clock.millis()).thenReturn(NOW.toEpochMilli() + 70_000);
+        existing.setLockedUntil(record.getLockedUntil());
+        IdempotencyStore.Claim retry = store.begin("key-1", PATH, "hash");
+        boolean completed = store.complete(record, 201, "application/json", new byte[0]);
+
+        // Then
+        assertEquals(renewedLock, record.getLockedUntil());
+        assertEquals(IdempotencyStore.Result.IN_PROGRESS, retry.result());
+        assertTrue(completed);
+        verify(idempotencyRecordRepository, never()).takeOver(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testTakenOverRequestDoesNotOverwriteRecord() {
+
+        // Given
+        long expiredLock = NOW.toEpochMilli() - 1;
+        existing.setLockedUntil(expiredLock);
+        when(idempotencyRecordRepository.findByIdempotencyKeyAndRequestPath("key-1", PATH))
+                .thenReturn(Optional.of(existing));
+        when(idempotencyRecordRepository.takeOver(1L, expiredLock, NOW.toEpochMilli() + 60_000)).thenReturn(1);
+        IdempotencyRecord record = store.begin("key-1", PATH, "hash").record();
+        when(idempotencyRecordRepository.extendLock(1L, NOW.toEpochMilli() + 60_000, NOW.toEpochMilli() + 60_000))
+                .thenReturn(0);
+
+        // When
+        store.renewLocks();
+        boolean completed = store.complete(record, 201, "application/json", new byte[0]);
+        store.abandon(record);
+
+        // Then
+        assertFalse(completed);
+        assertEquals(IdempotencyStatus.IN_PROGRESS, record.getStatus());
+        verify(idempotencyRecordRepository, never()).save(any(IdempotencyRecord.class));
+        verify(idempotencyRecordRepository, never()).deleteById(anyLong());
+    }
+}
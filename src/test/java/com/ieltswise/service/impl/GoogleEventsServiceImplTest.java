@@ -1,10 +1,9 @@
 package com.ieltswise.service.impl;
 
+import com.ieltswise.calendar.CalendarEvent;
 import com.ieltswise.dto.FreeAndBusyHoursOfTheDay;
 import com.ieltswise.dto.TimeSlot;
 import com.ieltswise.service.ScheduleService;
-import org.json.JSONArray;
-import org.json.JSONException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,11 +11,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.time.DayOfWeek;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -46,19 +45,18 @@ public class GoogleEventsServiceImplTest {
     private ScheduleService scheduleService;
 
     private Method method;
-    private JSONArray jsonArray;
-    private ZonedDateTime startOfMonth;
-    private ZonedDateTime endOfMonth;
+    private List<CalendarEvent> events;
+    private YearMonth yearMonth;
     private Map<DayOfWeek, List<TimeSlot>> schedule;
 
     @BeforeEach
     void setUp() throws NoSuchMethodException {
 
         method = GoogleEventsServiceImpl.class.getDeclaredMethod("findAllEventsByYearAndMonth",
-                JSONArray.class, ZonedDateTime.class, ZonedDateTime.class, Map.class);
+                List.class, YearMonth.class, Map.class);
         method.setAccessible(true);
 
-        jsonArray = new JSONArray();
+        events = List.of();
     }
 
     @Test
@@ -66,14 +64,13 @@ public class GoogleEventsServiceImplTest {
             throws InvocationTargetException, IllegalAccessException {
 
         // Given
-        startOfMonth = ZonedDateTime.of(2025, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
-        endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
+        yearMonth = YearMonth.of(2025, 3);
         schedule = loadScheduleFromFile(FREE_SCHEDULE);
 
         // When
         @SuppressWarnings("unchecked")
         List<FreeAndBusyHoursOfTheDay> result = (List<FreeAndBusyHoursOfTheDay>) method.invoke(googleEventsService,
-                jsonArray, startOfMonth, endOfMonth, schedule);
+                events, yearMonth, schedule);
 
         // Then
         assertEquals(31, result.size());
@@ -82,18 +79,17 @@ public class GoogleEventsServiceImplTest {
 
     @Test
     public void testFindAllEventsByYearAndMonthWhenGmtPlus3AndFreeSchedule()
-            throws InvocationTargetException, IllegalAccessException, JSONException {
+            throws InvocationTargetException, IllegalAccessException, IOException {
 
         // Given
-        jsonArray = loadEvents(EVENTS_GMT_PLUS_3);
-        startOfMonth = ZonedDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
-        endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
+        events = loadEvents(EVENTS_GMT_PLUS_3);
+        yearMonth = YearMonth.of(2025, 1);
         schedule = loadScheduleFromFile(FREE_SCHEDULE);
 
         // When
         @SuppressWarnings("unchecked")
         List<FreeAndBusyHoursOfTheDay> result = (List<FreeAndBusyHoursOfTheDay>) method.invoke(googleEventsService,
-                jsonArray, startOfMonth, endOfMonth, schedule);
+                events, yearMonth, schedule);
 
         // Then
         assertEquals(31, result.size());
@@ -102,18 +98,17 @@ public class GoogleEventsServiceImplTest {
 
     @Test
     public void testFindAllEventsByYearAndMonthWhenGmtPlus3AndNotFreeSchedule()
-            throws InvocationTargetException, IllegalAccessException, JSONException {
+            throws InvocationTargetException, IllegalAccessException, IOException {
 
         // Given
-        jsonArray = loadEvents(EVENTS_GMT_PLUS_3);
-        startOfMonth = ZonedDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
-        endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
+        events = loadEvents(EVENTS_GMT_PLUS_3);
+        yearMonth = YearMonth.of(2025, 1);
         schedule = loadScheduleFromFile(BOOKED_MONDAY);
 
         // When
         @SuppressWarnings("unchecked")
         List<FreeAndBusyHoursOfTheDay> result = (List<FreeAndBusyHoursOfTheDay>) method.invoke(googleEventsService,
-                jsonArray, startOfMonth, endOfMonth, schedule);
+                events, yearMonth, schedule);
 
         // Then
         assertEquals(31, result.size());
@@ -122,19 +117,17 @@ public class GoogleEventsServiceImplTest {
 
     @Test
     public void testFindAllEventsByYearAndMonthWhenGmtAndFreeSchedule()
-            throws InvocationTargetException, IllegalAccessException, JSONException {
+            throws InvocationTargetException, IllegalAccessException, IOException {
 
         // Given
-        jsonArray = loadEvents(EVENTS_GMT);
-        startOfMonth = ZonedDateTime.of(2025, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC);
-        endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
-
+        events = loadEvents(EVENTS_GMT);
+        yearMonth = YearMonth.of(2025, 2);
         schedule = loadScheduleFromFile(FREE_SCHEDULE);
 
         // When
         @SuppressWarnings("unchecked")
         List<FreeAndBusyHoursOfTheDay> result = (List<FreeAndBusyHoursOfTheDay>) method.invoke(googleEventsService,
-                jsonArray, startOfMonth, endOfMonth, schedule);
+                events, yearMonth, schedule);
 
         // Then
         assertEquals(28, result.size());
@@ -143,19 +136,17 @@ public class GoogleEventsServiceImplTest {
 
     @Test
     public void testFindAllEventsByYearAndMonthWhenGmtAndNotFreeSchedule()
-            throws InvocationTargetException, IllegalAccessException, JSONException {
+            throws InvocationTargetException, IllegalAccessException, IOException {
 
         // Given
-        jsonArray = loadEvents(EVENTS_GMT);
-        startOfMonth = ZonedDateTime.of(2025, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC);
-        endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
-
+        events = loadEvents(EVENTS_GMT);
+        yearMonth = YearMonth.of(2025, 2);
         schedule = loadScheduleFromFile(BOOKED_MONDAY);
 
         // When
         @SuppressWarnings("unchecked")
         List<FreeAndBusyHoursOfTheDay> result = (List<FreeAndBusyHoursOfTheDay>) method.invoke(googleEventsService,
-                jsonArray, startOfMonth, endOfMonth, schedule);
+                events, yearMonth, schedule);
 
         // Then
         assertEquals(28, result.size());
@@ -164,19 +155,17 @@ public class GoogleEventsServiceImplTest {
 
     @Test
     public void testFindAllEventsByYearAndMonthWhenGmtMinus4AndFreeSchedule()
-            throws InvocationTargetException, IllegalAccessException, JSONException {
+            throws InvocationTargetException, IllegalAccessException, IOException {
 
         // Given
-        jsonArray = loadEvents(EVENTS_GMT_MINUS_4);
-        startOfMonth = ZonedDateTime.of(2025, 4, 1, 0, 0, 0, 0, ZoneOffset.UTC);
-        endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
-
+        events = loadEvents(EVENTS_GMT_MINUS_4);
+        yearMonth = YearMonth.of(2025, 4);
         schedule = loadScheduleFromFile(FREE_SCHEDULE);
 
         // When
         @SuppressWarnings("unchecked")
         List<FreeAndBusyHoursOfTheDay> result = (List<FreeAndBusyHoursOfTheDay>) method.invoke(googleEventsService,
-                jsonArray, startOfMonth, endOfMonth, schedule);
+                events, yearMonth, schedule);
 
         // Then
         assertEquals(30, result.size());
@@ -185,19 +174,17 @@ public class GoogleEventsServiceImplTest {
 
     @Test
     public void testFindAllEventsByYearAndMonthWhenGmtMinus4AndNotFreeSchedule()
-            throws InvocationTargetException, IllegalAccessException, JSONException {
+            throws InvocationTargetException, IllegalAccessException, IOException {
 
         // Given
-        jsonArray = loadEvents(EVENTS_GMT_MINUS_4);
-        startOfMonth = ZonedDateTime.of(2025, 4, 1, 0, 0, 0, 0, ZoneOffset.UTC);
-        endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
-
+        events = loadEvents(EVENTS_GMT_MINUS_4);
+        yearMonth = YearMonth.of(2025, 4);
         schedule = loadScheduleFromFile(BOOKED_MONDAY);
 
         // When
         @SuppressWarnings("unchecked")
         List<FreeAndBusyHoursOfTheDay> result = (List<FreeAndBusyHoursOfTheDay>) method.invoke(googleEventsService,
-                jsonArray, startOfMonth, endOfMonth, schedule);
+                events, yearMonth, schedule);
 
         // Then
         assertEquals(30, result.size());
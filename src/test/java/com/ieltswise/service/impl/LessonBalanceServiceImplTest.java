@@ -0,0 +1,92 @@
+package com.ieltswise.service.impl;
+
+import com.ieltswise.entity.UserLessonData;
+import com.ieltswise.repository.UserLessonDataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LessonBalanceServiceImplTest {
+
+    private static final String EMAIL = "student@example.com";
+
+    @Mock
+    private UserLessonDataRepository userLessonDataRepository;
+
+    private LessonBalanceServiceImpl lessonBalanceService;
+
+    @BeforeEach
+    void setUp() {
+        lessonBalanceService = new LessonBalanceServiceImpl(userLessonDataRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 3);
+    }
+
+    @Test
+    void testTakeLessonsReturnFalseWhenConditionalUpdateChangesNothing() {
+
+        // Given
+        when(userLessonDataRepository.takeLessons(eq(EMAIL), eq(2), any(Date.class))).thenReturn(0);
+
+        // Then
+        assertFalse(lessonBalanceService.takeLessons(EMAIL, 2));
+        verify(userLessonDataRepository, never()).save(any());
+    }
+
+    @Test
+    void testAddPaidLessonsRetriesAfterBalanceIsCreatedConcurrently() {
+
+        // Given
+        when(userLessonDataRepository.addPaidLessons(EMAIL, 5)).thenReturn(0, 1);
+        when(userLessonDataRepository.saveAndFlush(any(UserLessonData.class)))
+                .thenThrow(new DataIntegrityViolationException("unique constraint violated"));
+
+        // When
+        lessonBalanceService.addPaidLessons(EMAIL, 5);
+
+        // Then
+        verify(userLessonDataRepository, times(2)).addPaidLessons(EMAIL, 5);
+    }
+
+    @Test
+    void testAddPaidLessonsThrowIllegalStateExceptionAfterMaxAttempts() {
+
+        // Given
+        when(userLessonDataRepository.addPaidLessons(EMAIL, 5)).thenReturn(0);
+
+        // Then
+        assertThrows(IllegalStateException.class, () -> lessonBalanceService.addPaidLessons(EMAIL, 5));
+        verify(userLessonDataRepository, times(3)).addPaidLessons(EMAIL, 5);
+    }
+
+    @Test
+    void testUseTrialCreatesBalanceOfNewStudentAndReturnFalseWhenAlreadyUsed() {
+
+        // Given
+        when(userLessonDataRepository.useTrial(eq(EMAIL), eq("Bob"), any(Date.class))).thenReturn(0, 1, 0);
+        when(userLessonDataRepository.findByEmail(EMAIL)).thenReturn(null, new UserLessonData());
+
+        // Then
+        assertTrue(lessonBalanceService.useTrial(EMAIL, "Bob"));
+        verify(userLessonDataRepository).saveAndFlush(any(UserLessonData.class));
+        assertFalse(lessonBalanceService.useTrial(EMAIL, "Bob"));
+    }
+}
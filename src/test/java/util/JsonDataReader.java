@@ -2,16 +2,23 @@ package util;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ieltswise.calendar.CalendarEvent;
+import com.ieltswise.calendar.CalendarEventReader;
 import com.ieltswise.dto.FreeAndBusyHoursOfTheDay;
 import com.ieltswise.dto.TimeSlot;
 import com.ieltswise.enums.Status;
-import org.json.JSONArray;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -51,15 +58,12 @@ public class JsonDataReader {
         return schedules;
     }
 
-    public static JSONArray loadEvents(String filePath) {
-        objectMapper = new ObjectMapper();
-        JSONArray jsonArray = null;
-        try {
-            List<Object> list = objectMapper.readValue(new File(filePath), new TypeReference<>() {});
-            jsonArray = new JSONArray(list);
-        } catch (IOException e) {
-            e.printStackTrace();
+    public static List<CalendarEvent> loadEvents(String filePath) throws IOException {
+        try (InputStream in = new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream("{\"items\":".getBytes(StandardCharsets.UTF_8)),
+                new FileInputStream(filePath),
+                new ByteArrayInputStream("}".getBytes(StandardCharsets.UTF_8)))))) {
+            return CalendarEventReader.read(in).events();
         }
-        return jsonArray;
     }
 }